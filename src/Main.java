@@ -13,7 +13,9 @@ import java.io.Reader;
 /**
  * The Main class is the entry point of the image processing application.
  * It initializes the required components (model, controller) and starts the processing by
- * invoking the controller's "run" method.
+ * invoking the controller's "run" method. Scripts reach every image through the model, so their
+ * model releases replaced images; the interactive view keeps images of its own, so its model
+ * does not.
  */
 public class Main {
   /**
@@ -22,18 +24,18 @@ public class Main {
    * @param args The command-line arguments.
    */
   public static void main(String[] args) {
-    IImageDataBase model = new ImageDataBase();
     IController controller;
 
     try {
       if (args.length == 1 && args[0].equals("-text")) {
         Reader input = new InputStreamReader(System.in);
-        controller = new ControllerImpl(input, model, System.out);
+        controller = new ControllerImpl(input, new ImageDataBase(true), System.out);
       } else if (args.length == 2 && args[0].equals("-file")) {
         String scriptFileName = args[1];
         Reader input = new FileReader(scriptFileName);
-        controller = new ControllerImpl(input, model, System.out);
+        controller = new ControllerImpl(input, new ImageDataBase(true), System.out);
       } else if (args.length == 0 || (args.length == 1 && args[0].trim().isEmpty())) {
+        IImageDataBase model = new ImageDataBase();
         controller = new Controller(model, new View(model));
       } else {
         System.err.println("Invalid command-line arguments.");
@@ -7,6 +7,7 @@ import model.*;
 import model.image.IImageState;
 import model.transformations.*;
 import model.transformations.filter.BlurTransformation;
+import model.transformations.filter.FastGaussianBlurTransformation;
 import model.transformations.filter.GrayscaleTransformation;
 import model.transformations.filter.SepiaTransformation;
 import model.transformations.filter.SharpenTransformation;
@@ -75,6 +76,7 @@ public class Controller implements IController, ViewListener {
         model.add(fileName, image);
         view.getCanvas().setImage(bufferedImage);
         view.getCanvas().setImageID(fileName);
+        view.getCanvas().setPyramid(model.getPyramid(fileName));
         view.refreshCanvas(bufferedImage);
       } catch (IOException e) {
         JOptionPane.showMessageDialog(view, "Error loading the image.", "Error",
@@ -181,8 +183,8 @@ public class Controller implements IController, ViewListener {
 
       IImageState image = ConvertImage.convertFromBuffered(currentImage);
 
-      ITransformation brightenTransformation = new BrightenTransformation(brightenValue);
-      IImageState brightenedImage = brightenTransformation.run(image);
+      PointwiseTransformation brightenTransformation = new BrightenTransformation(brightenValue);
+      IImageState brightenedImage = brightenTransformation.view(image);
 
       String newID = view.getCanvas().getImageID() + "-brighten";
       model.add(newID, brightenedImage);
@@ -190,6 +192,7 @@ public class Controller implements IController, ViewListener {
       BufferedImage bufferedBrightenedImage = ConvertImage.convertToBuffered(brightenedImage);
       view.getCanvas().setImage(bufferedBrightenedImage);
       view.getCanvas().setImageID(newID);
+      view.getCanvas().setPyramid(model.getPyramid(newID));
       view.refreshCanvas(bufferedBrightenedImage);
     } catch (NumberFormatException ex) {
       JOptionPane.showMessageDialog(view, "Invalid input. Please enter an integer value.",
@@ -208,8 +211,8 @@ public class Controller implements IController, ViewListener {
 
     IImageState image = ConvertImage.convertFromBuffered(currentImage);
 
-    ITransformation valueTransformation = new ValueTransformation();
-    IImageState valueImage = valueTransformation.run(image);
+    PointwiseTransformation valueTransformation = new ValueTransformation();
+    IImageState valueImage = valueTransformation.view(image);
 
     String newID = view.getCanvas().getImageID() + "-value";
     model.add(newID, valueImage);
@@ -217,6 +220,7 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(valueImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 
@@ -231,8 +235,8 @@ public class Controller implements IController, ViewListener {
 
     IImageState image = ConvertImage.convertFromBuffered(currentImage);
 
-    ITransformation intensityTransformation = new IntensityTransformation();
-    IImageState intensityImage = intensityTransformation.run(image);
+    PointwiseTransformation intensityTransformation = new IntensityTransformation();
+    IImageState intensityImage = intensityTransformation.view(image);
 
     String newID = view.getCanvas().getImageID() + "-intensity";
     model.add(newID, intensityImage);
@@ -240,6 +244,7 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(intensityImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 
@@ -254,8 +259,8 @@ public class Controller implements IController, ViewListener {
 
     IImageState image = ConvertImage.convertFromBuffered(currentImage);
 
-    ITransformation lumaTransformation = new LumaTransformation();
-    IImageState lumaImage = lumaTransformation.run(image);
+    PointwiseTransformation lumaTransformation = new LumaTransformation();
+    IImageState lumaImage = lumaTransformation.view(image);
 
     String newID = view.getCanvas().getImageID() + "-luma";
     model.add(newID, lumaImage);
@@ -263,6 +268,7 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(lumaImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 
@@ -277,8 +283,8 @@ public class Controller implements IController, ViewListener {
 
     IImageState image = ConvertImage.convertFromBuffered(currentImage);
 
-    ITransformation redTransformation = new RedTransformation();
-    IImageState redImage = redTransformation.run(image);
+    PointwiseTransformation redTransformation = new RedTransformation();
+    IImageState redImage = redTransformation.view(image);
 
     String newID = view.getCanvas().getImageID() + "-red";
     model.add(newID, redImage);
@@ -286,6 +292,7 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(redImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 
@@ -300,8 +307,8 @@ public class Controller implements IController, ViewListener {
 
     IImageState image = ConvertImage.convertFromBuffered(currentImage);
 
-    ITransformation greenTransformation = new GreenTransformation();
-    IImageState greenImage = greenTransformation.run(image);
+    PointwiseTransformation greenTransformation = new GreenTransformation();
+    IImageState greenImage = greenTransformation.view(image);
 
     String newID = view.getCanvas().getImageID() + "-green";
     model.add(newID, greenImage);
@@ -309,6 +316,7 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(greenImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 
@@ -323,8 +331,8 @@ public class Controller implements IController, ViewListener {
 
     IImageState image = ConvertImage.convertFromBuffered(currentImage);
 
-    ITransformation blueTransformation = new BlueTransformation();
-    IImageState blueImage = blueTransformation.run(image);
+    PointwiseTransformation blueTransformation = new BlueTransformation();
+    IImageState blueImage = blueTransformation.view(image);
 
     String newID = view.getCanvas().getImageID() + "-blue";
     model.add(newID, blueImage);
@@ -332,6 +340,7 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(blueImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 
@@ -355,9 +364,49 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(blurredImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 
+  @Override
+  public void handleBlurRadiusEvent() {
+    String inputValue = JOptionPane.showInputDialog(view, "Enter radius:");
+
+    if (inputValue == null || inputValue.isEmpty()) {
+      return;
+    }
+
+    try {
+      int radius = Integer.parseInt(inputValue);
+      BufferedImage currentImage = view.getCanvas().getImage();
+
+      if (currentImage == null) {
+        JOptionPane.showMessageDialog(view, "No image.", "Error", JOptionPane.ERROR_MESSAGE);
+        return;
+      }
+
+      IImageState image = ConvertImage.convertFromBuffered(currentImage);
+
+      ITransformation blurTransformation = new FastGaussianBlurTransformation(radius);
+      IImageState blurredImage = blurTransformation.run(image);
+
+      String newID = view.getCanvas().getImageID() + "-blur-" + radius;
+      model.add(newID, blurredImage);
+
+      BufferedImage bufferedBlurredImage = ConvertImage.convertToBuffered(blurredImage);
+      view.getCanvas().setImage(bufferedBlurredImage);
+      view.getCanvas().setImageID(newID);
+      view.getCanvas().setPyramid(model.getPyramid(newID));
+      view.refreshCanvas(bufferedBlurredImage);
+    } catch (NumberFormatException ex) {
+      JOptionPane.showMessageDialog(view, "Invalid input. Please enter an integer value.",
+          "Error", JOptionPane.ERROR_MESSAGE);
+    } catch (IllegalArgumentException ex) {
+      JOptionPane.showMessageDialog(view, "Invalid input. Please enter a positive radius.",
+          "Error", JOptionPane.ERROR_MESSAGE);
+    }
+  }
+
   @Override
   public void handleSharpenEvent() {
     BufferedImage currentImage = view.getCanvas().getImage();
@@ -378,6 +427,7 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(sharpenedImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 
@@ -392,8 +442,8 @@ public class Controller implements IController, ViewListener {
 
     IImageState image = ConvertImage.convertFromBuffered(currentImage);
 
-    ITransformation grayscaleTransformation = new GrayscaleTransformation();
-    IImageState grayscaleImage = grayscaleTransformation.run(image);
+    PointwiseTransformation grayscaleTransformation = new GrayscaleTransformation();
+    IImageState grayscaleImage = grayscaleTransformation.view(image);
 
     String newID = view.getCanvas().getImageID() + "-grayscale";
     model.add(newID, grayscaleImage);
@@ -401,6 +451,7 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(grayscaleImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 
@@ -415,8 +466,8 @@ public class Controller implements IController, ViewListener {
 
     IImageState image = ConvertImage.convertFromBuffered(currentImage);
 
-    ITransformation sepiaTransformation = new SepiaTransformation();
-    IImageState sepiaImage = sepiaTransformation.run(image);
+    PointwiseTransformation sepiaTransformation = new SepiaTransformation();
+    IImageState sepiaImage = sepiaTransformation.view(image);
 
     String newID = view.getCanvas().getImageID() + "-sepia";
     model.add(newID, sepiaImage);
@@ -424,6 +475,7 @@ public class Controller implements IController, ViewListener {
     BufferedImage bufferedValueImage = ConvertImage.convertToBuffered(sepiaImage);
     view.getCanvas().setImage(bufferedValueImage);
     view.getCanvas().setImageID(newID);
+    view.getCanvas().setPyramid(model.getPyramid(newID));
     view.refreshCanvas(bufferedValueImage);
   }
 }
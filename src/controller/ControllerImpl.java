@@ -1,18 +1,28 @@
 package controller;
 
+import controller.commands.AutoLevelsCommand;
 import controller.commands.BlueComponentCommand;
 import controller.commands.BlurCommand;
+import controller.commands.BlurRadiusCommand;
 import controller.commands.BrightenCommand;
+import controller.commands.ContrastCommand;
+import controller.commands.EqualizeCommand;
+import controller.commands.GammaCommand;
+import controller.commands.GaussianBlurCommand;
 import controller.commands.GrayscaleCommand;
 import controller.commands.GreenComponentCommand;
 import controller.commands.ICommand;
 import controller.commands.IntensityComponentCommand;
+import controller.commands.InvertCommand;
+import controller.commands.LevelsCommand;
 import controller.commands.LoadCommand;
 import controller.commands.LumaComponentCommand;
 import controller.commands.RedComponentCommand;
+import controller.commands.ResizeCommand;
 import controller.commands.SaveCommand;
 import controller.commands.SepiaCommand;
 import controller.commands.SharpenCommand;
+import controller.commands.ThumbnailCommand;
 import controller.commands.ValueComponentCommand;
 import model.IImageDataBase;
 
@@ -64,6 +74,16 @@ public class ControllerImpl implements IController {
     this.commandMap.put("sharpen", new SharpenCommand());
     this.commandMap.put("grayscale", new GrayscaleCommand());
     this.commandMap.put("sepia", new SepiaCommand());
+    this.commandMap.put("gamma", new GammaCommand());
+    this.commandMap.put("contrast", new ContrastCommand());
+    this.commandMap.put("levels", new LevelsCommand());
+    this.commandMap.put("invert", new InvertCommand());
+    this.commandMap.put("equalize", new EqualizeCommand());
+    this.commandMap.put("auto-levels", new AutoLevelsCommand());
+    this.commandMap.put("gaussian-blur", new GaussianBlurCommand());
+    this.commandMap.put("blur-radius", new BlurRadiusCommand());
+    this.commandMap.put("resize", new ResizeCommand());
+    this.commandMap.put("thumbnail", new ThumbnailCommand());
   }
 
   /**
@@ -0,0 +1,125 @@
+package controller.commands;
+
+import model.IImageDataBase;
+import model.image.IImage;
+import model.image.IImageState;
+import model.image.Region;
+import model.transformations.ITransformation;
+import model.transformations.PointwiseTransformation;
+
+import java.util.Objects;
+import java.util.Scanner;
+
+/**
+ * Implements the ICommand interface for the commands that apply a transformation to an image.
+ * The arguments of such a command may start with an option that restricts the transformation to
+ * part of the image: "--roi x,y,width,height" for a rectangle, or "--mask mask-image-id" for the
+ * pixels of a mask image that are not black. The pixels outside the region are those of the
+ * source image. The positions of the other arguments count from after the option.
+ * Pointwise transformations whose result replaces their source image, as in "brighten 10 img
+ * img", transform it in place when nothing else reads from it.
+ */
+public abstract class AbstractTransformationCommand implements ICommand {
+
+  @Override
+  public void run(Scanner scanner, IImageDataBase model) {
+    Objects.requireNonNull(scanner);
+    Objects.requireNonNull(model);
+
+    Region region = null;
+    if (scanner.hasNext("--roi")) {
+      scanner.next();
+      region = readRectangle(scanner);
+    } else if (scanner.hasNext("--mask")) {
+      scanner.next();
+      if (!scanner.hasNext()) {
+        throw new IllegalStateException("--mask must be followed by the mask image id.");
+      }
+      IImageState mask = model.get(scanner.next());
+      if (mask == null) {
+        throw new IllegalStateException("Mask image with specified id doesn't exist.");
+      }
+      region = Region.ofMask(mask);
+    }
+
+    run(scanner, model, region);
+  }
+
+  /**
+   * Executes the command with the arguments that follow the region option.
+   *
+   * @param scanner The scanner to read the remaining arguments from.
+   * @param model   The image database model on which the command will be executed.
+   * @param region  The region to restrict the transformation to, or null for the whole image.
+   */
+  protected abstract void run(Scanner scanner, IImageDataBase model, Region region);
+
+  /**
+   * Runs a transformation on an image, or on the region of it if there is one.
+   *
+   * @param transformation The transformation.
+   * @param sourceImage    The image.
+   * @param region         The region, or null for the whole image.
+   * @return The transformed image.
+   */
+  protected static IImageState apply(ITransformation transformation, IImageState sourceImage,
+                                     Region region) {
+    if (region == null) {
+      return transformation.run(sourceImage);
+    }
+    return transformation.run(sourceImage, region);
+  }
+
+  /**
+   * Applies a pointwise transformation to a stored image. When the result replaces the source,
+   * which is mutable and not shared with any other stored image, the whole image is transformed
+   * in place. Otherwise the result is a view of the source, or the source with the region
+   * transformed if there is one.
+   *
+   * @param transformation The transformation.
+   * @param model          The image database model that stores the source image.
+   * @param sourceImageId  The id of the source image, which must be in the model.
+   * @param destId         The id the result will be stored under.
+   * @param region         The region, or null for the whole image.
+   * @return The transformed image, to be stored under the destination id.
+   */
+  protected static IImageState transform(PointwiseTransformation transformation,
+                                         IImageDataBase model, String sourceImageId,
+                                         String destId, Region region) {
+    IImageState sourceImage = model.get(sourceImageId);
+    if (region == null && sourceImageId.equals(destId) && sourceImage instanceof IImage
+        && !model.isShared(sourceImageId)) {
+      transformation.runInPlace((IImage) sourceImage);
+      return sourceImage;
+    }
+    if (region == null) {
+      return transformation.view(sourceImage);
+    }
+    return transformation.run(sourceImage, region);
+  }
+
+  /**
+   * Reads a rectangle written as x,y,width,height.
+   *
+   * @param scanner The scanner to read the rectangle from.
+   * @return The rectangular region.
+   * @throws IllegalStateException If the next argument is not a valid rectangle.
+   */
+  private static Region readRectangle(Scanner scanner) {
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("--roi must be followed by x,y,width,height.");
+    }
+    String[] values = scanner.next().split(",");
+    if (values.length != 4) {
+      throw new IllegalStateException("--roi must be followed by x,y,width,height.");
+    }
+    try {
+      return new Region(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
+          Integer.parseInt(values[2]), Integer.parseInt(values[3]));
+    } catch (NumberFormatException e) {
+      throw new IllegalStateException("--roi must be followed by x,y,width,height.");
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(e.getMessage());
+    }
+  }
+}
@@ -2,22 +2,19 @@ package controller.commands;
 
 import model.IImageDataBase;
 import model.image.IImageState;
+import model.image.Region;
 import model.transformations.ITransformation;
 import model.transformations.filter.BlurTransformation;
 
-import java.util.Objects;
 import java.util.Scanner;
 
 /**
  * A command that applies a blur transformation to an image and stores the result in the model.
  */
-public class BlurCommand implements ICommand {
+public class BlurCommand extends AbstractTransformationCommand {
 
   @Override
-  public void run(Scanner scanner, IImageDataBase model) {
-    Objects.requireNonNull(scanner);
-    Objects.requireNonNull(model);
-
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
     if (!scanner.hasNext()) {
       throw new IllegalStateException("Second argument must be the image id.");
     }
@@ -36,7 +33,7 @@ public class BlurCommand implements ICommand {
     }
 
     ITransformation blurTransformation = new BlurTransformation();
-    IImageState blurredImage = blurTransformation.run(sourceImage);
+    IImageState blurredImage = apply(blurTransformation, sourceImage, region);
 
     model.add(destId, blurredImage);
   }
@@ -0,0 +1,53 @@
+package controller.commands;
+
+import model.IImageDataBase;
+import model.image.IImageState;
+import model.image.Region;
+import model.transformations.ITransformation;
+import model.transformations.filter.FastGaussianBlurTransformation;
+
+import java.util.Scanner;
+
+/**
+ * A command that applies an approximate Gaussian blur of a given radius to an image and stores
+ * the result in the model. Its cost does not grow with the radius.
+ */
+public class BlurRadiusCommand extends AbstractTransformationCommand {
+
+  @Override
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
+    if (!scanner.hasNextInt()) {
+      throw new IllegalStateException("Second argument must be an int.");
+    }
+
+    int radius = scanner.nextInt();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Third argument must be the image id.");
+    }
+
+    String sourceImageId = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be the image id.");
+    }
+
+    String destId = scanner.next();
+
+    IImageState sourceImage = model.get(sourceImageId);
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified id doesn't exist.");
+    }
+
+    ITransformation blurTransformation;
+    try {
+      blurTransformation = new FastGaussianBlurTransformation(radius);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(e.getMessage());
+    }
+
+    IImageState blurredImage = apply(blurTransformation, sourceImage, region);
+
+    model.add(destId, blurredImage);
+  }
+}
@@ -2,23 +2,22 @@ package controller.commands;
 
 import model.IImageDataBase;
 import model.image.IImageState;
+import model.image.Region;
 import model.transformations.BrightenTransformation;
-import model.transformations.ITransformation;
+import model.transformations.PointwiseTransformation;
 
-import java.util.Objects;
 import java.util.Scanner;
 
 /**
  * A command that applies a brighten transformation to an image and stores the result in the
  * model.
+ * The result is stored as a view that computes its pixels from the source image when they
+ * are read, unless it replaces the source image, which is then transformed in place.
  */
-public class BrightenCommand implements ICommand {
+public class BrightenCommand extends AbstractTransformationCommand {
 
   @Override
-  public void run(Scanner scanner, IImageDataBase model) {
-    Objects.requireNonNull(scanner);
-    Objects.requireNonNull(model);
-
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
     if (!scanner.hasNextInt()) {
       throw new IllegalStateException("Second argument must be an int.");
     }
@@ -42,8 +41,9 @@ public class BrightenCommand implements ICommand {
       throw new IllegalStateException("Image with specified id doesn't exist.");
     }
 
-    ITransformation brightenTransformation = new BrightenTransformation(value);
-    IImageState brightenedImage = brightenTransformation.run(sourceImage);
+    PointwiseTransformation brightenTransformation = new BrightenTransformation(value);
+    IImageState brightenedImage = transform(brightenTransformation, model, sourceImageId,
+        destId, region);
 
     model.add(destId, brightenedImage);
   }
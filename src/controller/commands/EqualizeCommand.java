@@ -0,0 +1,45 @@
+package controller.commands;
+
+import model.IImageDataBase;
+import model.image.IImageState;
+import model.image.Region;
+import model.transformations.EqualizeTransformation;
+import model.transformations.PointwiseTransformation;
+
+import java.util.Scanner;
+
+/**
+ * A command that equalizes the histogram of every channel of an image and stores the result in
+ * the model.
+ * The histograms are counted once, and the result is stored as a view that computes its pixels
+ * from the source image when they are read, unless it replaces the source image, which is then
+ * transformed in place.
+ */
+public class EqualizeCommand extends AbstractTransformationCommand {
+
+  @Override
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Second argument must be the image id.");
+    }
+
+    String sourceImageId = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Third argument must be the image id.");
+    }
+
+    String destId = scanner.next();
+
+    IImageState sourceImage = model.get(sourceImageId);
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified id doesn't exist.");
+    }
+
+    PointwiseTransformation equalizeTransformation = new EqualizeTransformation(sourceImage);
+    IImageState equalizedImage = transform(equalizeTransformation, model, sourceImageId,
+        destId, region);
+
+    model.add(destId, equalizedImage);
+  }
+}
@@ -0,0 +1,55 @@
+package controller.commands;
+
+import model.IImageDataBase;
+import model.image.IImageState;
+import model.image.Region;
+import model.transformations.GammaTransformation;
+import model.transformations.PointwiseTransformation;
+
+import java.util.Scanner;
+
+/**
+ * A command that applies a gamma transformation to an image and stores the result in the
+ * model.
+ * The result is stored as a view that computes its pixels from the source image when they
+ * are read, unless it replaces the source image, which is then transformed in place.
+ */
+public class GammaCommand extends AbstractTransformationCommand {
+
+  @Override
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
+    if (!scanner.hasNextDouble()) {
+      throw new IllegalStateException("Second argument must be a number.");
+    }
+
+    double gamma = scanner.nextDouble();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Third argument must be the image id.");
+    }
+
+    String sourceImageId = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be the image id.");
+    }
+
+    String destId = scanner.next();
+
+    IImageState sourceImage = model.get(sourceImageId);
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified id doesn't exist.");
+    }
+
+    PointwiseTransformation gammaTransformation;
+    try {
+      gammaTransformation = new GammaTransformation(gamma);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(e.getMessage());
+    }
+
+    IImageState gammaImage = transform(gammaTransformation, model, sourceImageId, destId, region);
+
+    model.add(destId, gammaImage);
+  }
+}
@@ -0,0 +1,53 @@
+package controller.commands;
+
+import model.IImageDataBase;
+import model.image.IImageState;
+import model.image.Region;
+import model.transformations.ITransformation;
+import model.transformations.filter.GaussianBlurTransformation;
+
+import java.util.Scanner;
+
+/**
+ * A command that applies a Gaussian blur of a given radius to an image and stores the result in
+ * the model.
+ */
+public class GaussianBlurCommand extends AbstractTransformationCommand {
+
+  @Override
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
+    if (!scanner.hasNextInt()) {
+      throw new IllegalStateException("Second argument must be an int.");
+    }
+
+    int radius = scanner.nextInt();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Third argument must be the image id.");
+    }
+
+    String sourceImageId = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be the image id.");
+    }
+
+    String destId = scanner.next();
+
+    IImageState sourceImage = model.get(sourceImageId);
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified id doesn't exist.");
+    }
+
+    ITransformation gaussianBlurTransformation;
+    try {
+      gaussianBlurTransformation = new GaussianBlurTransformation(radius);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(e.getMessage());
+    }
+
+    IImageState blurredImage = apply(gaussianBlurTransformation, sourceImage, region);
+
+    model.add(destId, blurredImage);
+  }
+}
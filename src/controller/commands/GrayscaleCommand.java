@@ -2,22 +2,21 @@ package controller.commands;
 
 import model.IImageDataBase;
 import model.image.IImageState;
-import model.transformations.ITransformation;
+import model.image.Region;
+import model.transformations.PointwiseTransformation;
 import model.transformations.filter.GrayscaleTransformation;
 
-import java.util.Objects;
 import java.util.Scanner;
 
 /**
  * A command that applies a blur transformation to an image and stores the result in the model.
+ * The result is stored as a view that computes its pixels from the source image when they
+ * are read, unless it replaces the source image, which is then transformed in place.
  */
-public class GrayscaleCommand implements ICommand {
+public class GrayscaleCommand extends AbstractTransformationCommand {
 
   @Override
-  public void run(Scanner scanner, IImageDataBase model) {
-    Objects.requireNonNull(scanner);
-    Objects.requireNonNull(model);
-
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
     if (!scanner.hasNext()) {
       throw new IllegalStateException("Second argument must be the image id.");
     }
@@ -35,8 +34,9 @@ public class GrayscaleCommand implements ICommand {
       throw new IllegalStateException("Image with specified id doesn't exist.");
     }
 
-    ITransformation grayscaleTransformation = new GrayscaleTransformation();
-    IImageState grayscaleImage = grayscaleTransformation.run(sourceImage);
+    PointwiseTransformation grayscaleTransformation = new GrayscaleTransformation();
+    IImageState grayscaleImage = transform(grayscaleTransformation, model, sourceImageId,
+        destId, region);
 
     model.add(destId, grayscaleImage);
   }
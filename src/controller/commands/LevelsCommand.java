@@ -0,0 +1,61 @@
+package controller.commands;
+
+import model.IImageDataBase;
+import model.image.IImageState;
+import model.image.Region;
+import model.transformations.LevelsTransformation;
+import model.transformations.PointwiseTransformation;
+
+import java.util.Scanner;
+
+/**
+ * A command that applies a levels transformation to an image and stores the result in the
+ * model.
+ * The result is stored as a view that computes its pixels from the source image when they
+ * are read, unless it replaces the source image, which is then transformed in place.
+ */
+public class LevelsCommand extends AbstractTransformationCommand {
+
+  @Override
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
+    if (!scanner.hasNextInt()) {
+      throw new IllegalStateException("Second argument must be an int.");
+    }
+
+    int black = scanner.nextInt();
+
+    if (!scanner.hasNextInt()) {
+      throw new IllegalStateException("Third argument must be an int.");
+    }
+
+    int white = scanner.nextInt();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be the image id.");
+    }
+
+    String sourceImageId = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fifth argument must be the image id.");
+    }
+
+    String destId = scanner.next();
+
+    IImageState sourceImage = model.get(sourceImageId);
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified id doesn't exist.");
+    }
+
+    PointwiseTransformation levelsTransformation;
+    try {
+      levelsTransformation = new LevelsTransformation(black, white);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(e.getMessage());
+    }
+
+    IImageState levelsImage = transform(levelsTransformation, model, sourceImageId, destId, region);
+
+    model.add(destId, levelsImage);
+  }
+}
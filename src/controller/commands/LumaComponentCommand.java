@@ -2,23 +2,22 @@ package controller.commands;
 
 import model.IImageDataBase;
 import model.image.IImageState;
-import model.transformations.ITransformation;
+import model.image.Region;
 import model.transformations.LumaTransformation;
+import model.transformations.PointwiseTransformation;
 
-import java.util.Objects;
 import java.util.Scanner;
 
 /**
  * A command that applies a luma component transformation to an image and stores the result in
  * the model.
+ * The result is stored as a view that computes its pixels from the source image when they
+ * are read, unless it replaces the source image, which is then transformed in place.
  */
-public class LumaComponentCommand implements ICommand {
+public class LumaComponentCommand extends AbstractTransformationCommand {
 
   @Override
-  public void run(Scanner scanner, IImageDataBase model) {
-    Objects.requireNonNull(scanner);
-    Objects.requireNonNull(model);
-
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
     if (!scanner.hasNext()) {
       throw new IllegalStateException("Second argument must be the image id.");
     }
@@ -36,8 +35,8 @@ public class LumaComponentCommand implements ICommand {
       throw new IllegalStateException("Image with specified id doesn't exist.");
     }
 
-    ITransformation lumaTransformation = new LumaTransformation();
-    IImageState lumaImage = lumaTransformation.run(sourceImage);
+    PointwiseTransformation lumaTransformation = new LumaTransformation();
+    IImageState lumaImage = transform(lumaTransformation, model, sourceImageId, destId, region);
 
     model.add(destId, lumaImage);
   }
@@ -0,0 +1,62 @@
+package controller.commands;
+
+import model.IImageDataBase;
+import model.image.IImageState;
+import model.transformations.ITransformation;
+import model.transformations.filter.ResizeTransformation;
+
+import java.util.Objects;
+import java.util.Scanner;
+
+/**
+ * A command that resizes an image to a given width and height by area averaging and stores the
+ * result in the model.
+ */
+public class ResizeCommand implements ICommand {
+
+  @Override
+  public void run(Scanner scanner, IImageDataBase model) {
+    Objects.requireNonNull(scanner);
+    Objects.requireNonNull(model);
+
+    if (!scanner.hasNextInt()) {
+      throw new IllegalStateException("Second argument must be an int.");
+    }
+
+    int width = scanner.nextInt();
+
+    if (!scanner.hasNextInt()) {
+      throw new IllegalStateException("Third argument must be an int.");
+    }
+
+    int height = scanner.nextInt();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be the image id.");
+    }
+
+    String sourceImageId = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fifth argument must be the image id.");
+    }
+
+    String destId = scanner.next();
+
+    IImageState sourceImage = model.get(sourceImageId);
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified id doesn't exist.");
+    }
+
+    ITransformation resizeTransformation;
+    IImageState resizedImage;
+    try {
+      resizeTransformation = new ResizeTransformation(width, height);
+      resizedImage = resizeTransformation.run(sourceImage);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(e.getMessage());
+    }
+
+    model.add(destId, resizedImage);
+  }
+}
@@ -39,10 +39,9 @@ public class SaveCommand implements ICommand {
 
     String fileFormat = pathToSave.substring(pathToSave.length() - 3);
     IImageSaver saver;
-    Appendable output = new StringBuilder();
 
     if (fileFormat.equals("ppm")) {
-      saver = new PPMImageSaver(pathToSave, image, output);
+      saver = new PPMImageSaver(pathToSave, image);
     } else if (fileFormat.equals("png")) {
       saver = new PNGImageSaver(pathToSave, image);
     } else {
@@ -2,22 +2,21 @@ package controller.commands;
 
 import model.IImageDataBase;
 import model.image.IImageState;
-import model.transformations.ITransformation;
+import model.image.Region;
+import model.transformations.PointwiseTransformation;
 import model.transformations.filter.SepiaTransformation;
 
-import java.util.Objects;
 import java.util.Scanner;
 
 /**
  * A command that applies a blur transformation to an image and stores the result in the model.
+ * The result is stored as a view that computes its pixels from the source image when they
+ * are read, unless it replaces the source image, which is then transformed in place.
  */
-public class SepiaCommand implements ICommand {
+public class SepiaCommand extends AbstractTransformationCommand {
 
   @Override
-  public void run(Scanner scanner, IImageDataBase model) {
-    Objects.requireNonNull(scanner);
-    Objects.requireNonNull(model);
-
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
     if (!scanner.hasNext()) {
       throw new IllegalStateException("Second argument must be the image id.");
     }
@@ -35,8 +34,8 @@ public class SepiaCommand implements ICommand {
       throw new IllegalStateException("Image with specified id doesn't exist.");
     }
 
-    ITransformation sepiaTransformation = new SepiaTransformation();
-    IImageState sepiaImage = sepiaTransformation.run(sourceImage);
+    PointwiseTransformation sepiaTransformation = new SepiaTransformation();
+    IImageState sepiaImage = transform(sepiaTransformation, model, sourceImageId, destId, region);
 
     model.add(destId, sepiaImage);
   }
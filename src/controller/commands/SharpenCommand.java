@@ -2,22 +2,19 @@ package controller.commands;
 
 import model.IImageDataBase;
 import model.image.IImageState;
+import model.image.Region;
 import model.transformations.ITransformation;
 import model.transformations.filter.SharpenTransformation;
 
-import java.util.Objects;
 import java.util.Scanner;
 
 /**
  * A command that applies a blur transformation to an image and stores the result in the model.
  */
-public class SharpenCommand implements ICommand {
+public class SharpenCommand extends AbstractTransformationCommand {
 
   @Override
-  public void run(Scanner scanner, IImageDataBase model) {
-    Objects.requireNonNull(scanner);
-    Objects.requireNonNull(model);
-
+  protected void run(Scanner scanner, IImageDataBase model, Region region) {
     if (!scanner.hasNext()) {
       throw new IllegalStateException("Second argument must be the image id.");
     }
@@ -36,7 +33,7 @@ public class SharpenCommand implements ICommand {
     }
 
     ITransformation sharpenTransformation = new SharpenTransformation();
-    IImageState sharpenedImage = sharpenTransformation.run(sourceImage);
+    IImageState sharpenedImage = apply(sharpenTransformation, sourceImage, region);
 
     model.add(destId, sharpenedImage);
   }
@@ -0,0 +1,56 @@
+package controller.commands;
+
+import model.IImageDataBase;
+import model.image.IImageState;
+import model.transformations.ITransformation;
+import model.transformations.filter.ThumbnailTransformation;
+
+import java.util.Objects;
+import java.util.Scanner;
+
+/**
+ * A command that shrinks an image to fit in a square of a given size, keeping its aspect ratio,
+ * and stores the result in the model.
+ */
+public class ThumbnailCommand implements ICommand {
+
+  @Override
+  public void run(Scanner scanner, IImageDataBase model) {
+    Objects.requireNonNull(scanner);
+    Objects.requireNonNull(model);
+
+    if (!scanner.hasNextInt()) {
+      throw new IllegalStateException("Second argument must be an int.");
+    }
+
+    int size = scanner.nextInt();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Third argument must be the image id.");
+    }
+
+    String sourceImageId = scanner.next();
+
+    if (!scanner.hasNext()) {
+      throw new IllegalStateException("Fourth argument must be the image id.");
+    }
+
+    String destId = scanner.next();
+
+    IImageState sourceImage = model.get(sourceImageId);
+    if (sourceImage == null) {
+      throw new IllegalStateException("Image with specified id doesn't exist.");
+    }
+
+    ITransformation thumbnailTransformation;
+    IImageState thumbnail;
+    try {
+      thumbnailTransformation = new ThumbnailTransformation(size);
+      thumbnail = thumbnailTransformation.run(sourceImage);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(e.getMessage());
+    }
+
+    model.add(destId, thumbnail);
+  }
+}
@@ -1,13 +1,22 @@
 package controller.io;
 
-import model.image.IImage;
+import model.ConvertImage;
 import model.image.IImageState;
-import model.image.ImageImpl;
+import model.image.ImageStorage;
+import model.image.MappedImage;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.Objects;
 
 /**
@@ -17,6 +26,7 @@ import java.util.Objects;
  */
 public class ImageLoader implements IImageLoader {
   private final String filePath;
+  private final ImageStorage storage;
 
   /**
    * Constructs a new PNGImageLoader with the specified file path.
@@ -25,31 +35,116 @@ public class ImageLoader implements IImageLoader {
    * @throws NullPointerException If the filePath is null.
    */
   public ImageLoader(String filePath) {
+    this(filePath, ImageStorage.getDefault());
+  }
+
+  /**
+   * Constructs a new ImageLoader with the specified file path and storage for the loaded image.
+   *
+   * @param filePath The path of the PNG or JPEG file to be loaded.
+   * @param storage  The storage of the loaded image.
+   * @throws NullPointerException If the filePath or storage is null.
+   */
+  public ImageLoader(String filePath, ImageStorage storage) {
     this.filePath = Objects.requireNonNull(filePath);
+    this.storage = Objects.requireNonNull(storage);
   }
 
   @Override
   public IImageState run() {
     try {
-      BufferedImage bufferedImage = ImageIO.read(new File(filePath));
-      int width = bufferedImage.getWidth();
-      int height = bufferedImage.getHeight();
-      IImage image = new ImageImpl(width, height);
-
-      for (int row = 0; row < height; row++) {
-        for (int col = 0; col < width; col++) {
-          int rgb = bufferedImage.getRGB(col, row);
-          int r = (rgb >> 16) & 0xFF;
-          int g = (rgb >> 8) & 0xFF;
-          int b = rgb & 0xFF;
-          image.setPixel(col, row, r, g, b);
-        }
+      if (this.storage == ImageStorage.MAPPED) {
+        return readIntoMapping();
       }
-      return image;
-
+      BufferedImage bufferedImage = ImageIO.read(new File(filePath));
+      return ConvertImage.convertFromBuffered(bufferedImage, this.storage);
     } catch (IOException e) {
       System.out.println("Error loading image: " + e.getMessage());
     }
     return null;
   }
+
+  /**
+   * Decodes the file into a memory-mapped image. Files that decode to 8-bit RGB without alpha
+   * are decoded straight into the mapping, so the pixels never have to fit on the heap. Other
+   * files, such as those with alpha, grey levels or a palette, cannot use the mapping as the
+   * destination of the reader: they are decoded as usual and copied into the mapping row by row,
+   * which gives the same pixels as loading them into any other storage.
+   *
+   * @return The loaded image.
+   * @throws IOException If the file cannot be read or no reader supports its format.
+   */
+  private IImageState readIntoMapping() throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(new File(filePath))) {
+      if (input == null) {
+        throw new IOException("Can't read input file!");
+      }
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        throw new IOException("Unsupported image format.");
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        MappedImage image = new MappedImage(reader.getWidth(0), reader.getHeight(0));
+        try {
+          if (decodesToRgb(reader)) {
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setDestination(image.asBufferedImage());
+            reader.read(0, param);
+          } else {
+            copyRows(reader.read(0), image);
+          }
+        } catch (IOException | RuntimeException e) {
+          image.release();
+          throw e;
+        }
+        return image;
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * Checks whether the reader decodes the image to 8-bit RGB samples without alpha by default,
+   * which is the layout of the BufferedImage view of a mapped image.
+   *
+   * @param reader The reader, whose input is set.
+   * @return True if the image can be decoded straight into a mapped image.
+   * @throws IOException If the image types cannot be read.
+   */
+  private static boolean decodesToRgb(ImageReader reader) throws IOException {
+    Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+    if (!types.hasNext()) {
+      return false;
+    }
+    ColorModel colorModel = types.next().getColorModel();
+    if (colorModel.hasAlpha() || colorModel instanceof IndexColorModel
+        || colorModel.getNumComponents() != 3
+        || colorModel.getColorSpace().getType() != ColorSpace.TYPE_RGB) {
+      return false;
+    }
+    for (int size : colorModel.getComponentSize()) {
+      if (size != 8) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Copies a decoded image into a mapped image of the same size one row at a time.
+   *
+   * @param decoded The decoded image.
+   * @param image   The mapped image.
+   */
+  private static void copyRows(BufferedImage decoded, MappedImage image) {
+    int width = image.getWidth();
+    int[] row = new int[width];
+    for (int y = 0; y < image.getHeight(); y++) {
+      decoded.getRGB(0, y, width, 1, row, 0, width);
+      image.setRGB(0, y, width, 1, row, 0, width);
+    }
+  }
 }
@@ -1,5 +1,6 @@
 package controller.io;
 
+import model.ConvertImage;
 import model.image.IImageState;
 
 import javax.imageio.ImageIO;
@@ -31,19 +32,7 @@ public class PNGImageSaver implements IImageSaver {
 
   @Override
   public void run() {
-    int width = image.getWidth();
-    int height = image.getHeight();
-    BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-
-    for (int row = 0; row < height; row++) {
-      for (int col = 0; col < width; col++) {
-        int r = image.getRedChannel(col, row);
-        int g = image.getGreenChannel(col, row);
-        int b = image.getBlueChannel(col, row);
-        int rgb = (r << 16) | (g << 8) | b;
-        bufferedImage.setRGB(col, row, rgb);
-      }
-    }
+    BufferedImage bufferedImage = ConvertImage.viewAsBuffered(image);
 
     try {
       File file = new File(pathToSave);
@@ -2,12 +2,14 @@ package controller.io;
 
 import model.image.IImage;
 import model.image.IImageState;
-import model.image.ImageImpl;
+import model.image.ImageStorage;
 
-import java.io.FileInputStream;
+import java.io.BufferedReader;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Scanner;
 
 /**
  * Implements the IImageLoader interface to load an image from a PPM file.
@@ -16,6 +18,7 @@ import java.util.Scanner;
  */
 public class PPMImageLoader implements IImageLoader {
   private final String filePath;
+  private final ImageStorage storage;
 
   /**
    * Constructs a new PPMImageLoader with the specified file path.
@@ -24,49 +27,99 @@ public class PPMImageLoader implements IImageLoader {
    * @throws NullPointerException If the filePath is null.
    */
   public PPMImageLoader(String filePath) {
+    this(filePath, ImageStorage.getDefault());
+  }
+
+  /**
+   * Constructs a new PPMImageLoader with the specified file path and storage for the loaded image.
+   *
+   * @param filePath The path of the PPM file to be loaded.
+   * @param storage  The storage of the loaded image.
+   * @throws NullPointerException If the filePath or storage is null.
+   */
+  public PPMImageLoader(String filePath, ImageStorage storage) {
     this.filePath = Objects.requireNonNull(filePath);
+    this.storage = Objects.requireNonNull(storage);
   }
 
   @Override
   public IImageState run() {
-    Scanner sc = null;
+    try (BufferedReader reader = new BufferedReader(new FileReader(this.filePath))) {
+      PPMTokenizer tokens = new PPMTokenizer(reader);
 
-    try {
-      sc = new Scanner(new FileInputStream(this.filePath));
-    } catch (FileNotFoundException e) {
-      System.out.println("File " + this.filePath + " not found!");
-    }
-    StringBuilder builder = new StringBuilder();
+      String token = tokens.next();
+      if (!token.equals("P3")) {
+        System.out.println("Invalid PPM file: plain RAW file should begin with P3");
+      }
+      int width = Integer.parseInt(tokens.next());
+      int height = Integer.parseInt(tokens.next());
+      int maxValue = Integer.parseInt(tokens.next());
+
+      IImage image = this.storage.create(width, height);
+      int[] pixels = new int[width];
 
-    while (sc.hasNextLine()) {
-      String s = sc.nextLine();
-      if (s.charAt(0) != '#') {
-        builder.append(s + System.lineSeparator());
+      for (int row = 0; row < height; row++) {
+        for (int col = 0; col < width; col++) {
+          int r = Integer.parseInt(tokens.next());
+          int g = Integer.parseInt(tokens.next());
+          int b = Integer.parseInt(tokens.next());
+          if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255) {
+            throw new IllegalArgumentException("Pixel values out of bounds.");
+          }
+          pixels[col] = (r << 16) | (g << 8) | b;
+        }
+        image.setRGB(0, row, width, 1, pixels, 0, width);
       }
+      return image;
+    } catch (FileNotFoundException e) {
+      System.out.println("File " + this.filePath + " not found!");
+    } catch (IOException e) {
+      System.out.println("Error loading image: " + e.getMessage());
     }
+    return null;
+  }
 
-    sc = new Scanner(builder.toString());
-
-    String token;
+  /**
+   * Reads the whitespace-separated tokens of a PPM file one line at a time, skipping comment
+   * lines, so the pixels can be written into the image as they are read.
+   */
+  private static class PPMTokenizer {
+    private final BufferedReader reader;
+    private String[] tokens;
+    private int position;
 
-    token = sc.next();
-    if (!token.equals("P3")) {
-      System.out.println("Invalid PPM file: plain RAW file should begin with P3");
+    /**
+     * Constructs a new PPMTokenizer over the given reader.
+     *
+     * @param reader The reader of the PPM file.
+     */
+    PPMTokenizer(BufferedReader reader) {
+      this.reader = reader;
+      this.tokens = new String[0];
+      this.position = 0;
     }
-    int width = sc.nextInt();
-    int height = sc.nextInt();
-    int maxValue = sc.nextInt();
-
-    IImage image = new ImageImpl(width, height);
 
-    for (int row = 0; row < height; row++) {
-      for (int col = 0; col < width; col++) {
-        int r = sc.nextInt();
-        int g = sc.nextInt();
-        int b = sc.nextInt();
-        image.setPixel(col, row, r, g, b);
+    /**
+     * Returns the next token of the file.
+     *
+     * @return The next token.
+     * @throws IOException            If reading the file fails.
+     * @throws NoSuchElementException If the file has no more tokens.
+     */
+    String next() throws IOException {
+      while (this.position >= this.tokens.length) {
+        String line = this.reader.readLine();
+        if (line == null) {
+          throw new NoSuchElementException("Unexpected end of PPM file.");
+        }
+        line = line.trim();
+        if (line.isEmpty() || line.charAt(0) == '#') {
+          continue;
+        }
+        this.tokens = line.split("\\s+");
+        this.position = 0;
       }
+      return this.tokens[this.position++];
     }
-    return image;
   }
 }
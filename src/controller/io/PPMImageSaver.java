@@ -5,6 +5,7 @@ import model.image.IImageState;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.Objects;
 
 /**
@@ -17,13 +18,25 @@ public class PPMImageSaver implements IImageSaver {
   private final IImageState image;
   private final Appendable output;
 
+  /**
+   * Constructs a PPMImageSaver object that streams the image straight into the file.
+   *
+   * @param pathToSave The file path to which the PPM image will be saved.
+   * @param image      The IImageState object representing the image to be saved.
+   * @throws NullPointerException if either pathToSave or image is null.
+   */
+  public PPMImageSaver(String pathToSave, IImageState image) {
+    this(pathToSave, image, null);
+  }
+
   /**
    * Constructs a PPMImageSaver object with the given parameters.
    *
    * @param pathToSave The file path to which the PPM image will be saved.
    * @param image      The IImageState object representing the image to be saved.
-   * @param output     The Appendable object where the image content will be written.
-   * @throws NullPointerException if either pathToSave, image, or output is null.
+   * @param output     The Appendable object where the image content will also be written, or
+   *                   null to only write the file.
+   * @throws NullPointerException if either pathToSave or image is null.
    */
   public PPMImageSaver(String pathToSave, IImageState image, Appendable output) {
     this.pathToSave = Objects.requireNonNull(pathToSave);
@@ -31,11 +44,14 @@ public class PPMImageSaver implements IImageSaver {
     this.output = output;
   }
 
-  private void write(String message) {
-    try {
-      this.output.append(message);
-    } catch (IOException e) {
-      throw new IllegalStateException("Writing failed.");
+  private void write(Writer writer, String message) throws IOException {
+    writer.write(message);
+    if (this.output != null) {
+      try {
+        this.output.append(message);
+      } catch (IOException e) {
+        throw new IllegalStateException("Writing failed.");
+      }
     }
   }
 
@@ -43,18 +59,24 @@ public class PPMImageSaver implements IImageSaver {
   public void run() {
     try (BufferedWriter writer = new BufferedWriter(new FileWriter(pathToSave))) {
 
-      write("P3\n");
-      write(image.getWidth() + " " + image.getHeight() + "\n");
-      write("255\n");
+      write(writer, "P3\n");
+      write(writer, image.getWidth() + " " + image.getHeight() + "\n");
+      write(writer, "255\n");
 
+      int width = image.getWidth();
+      int[] pixels = new int[width];
+      StringBuilder line = new StringBuilder();
       for (int row = 0; row < image.getHeight(); row++) {
-        for (int col = 0; col < image.getWidth(); col++) {
-          write(image.getRedChannel(col, row) + " " + image.getGreenChannel(col, row) + " "
-              + image.getBlueChannel(col, row) + " ");
+        image.getRGB(0, row, width, 1, pixels, 0, width);
+        line.setLength(0);
+        for (int col = 0; col < width; col++) {
+          line.append((pixels[col] >> 16) & 0xFF).append(' ')
+              .append((pixels[col] >> 8) & 0xFF).append(' ')
+              .append(pixels[col] & 0xFF).append(' ');
         }
-        write("\n");
+        line.append('\n');
+        write(writer, line.toString());
       }
-      writer.write(output.toString());
     } catch (IOException e) {
       throw new IllegalStateException("Saving file failed.");
     }
@@ -2,7 +2,9 @@ package model;
 
 import model.image.IImage;
 import model.image.IImageState;
-import model.image.ImageImpl;
+import model.image.ImageStorage;
+import model.image.MappedImage;
+import model.image.PixelBufferPool;
 
 import java.awt.image.BufferedImage;
 
@@ -13,26 +15,30 @@ import java.awt.image.BufferedImage;
 public class ConvertImage {
 
   /**
-   * Converts a BufferedImage to an IImageState representation.
+   * Converts a BufferedImage to an IImageState representation using the default storage.
    *
    * @param bufferedImage The BufferedImage to convert.
    * @return An IImageState representing the input BufferedImage.
    */
   public static IImage convertFromBuffered(BufferedImage bufferedImage) {
-    IImage newImage = new ImageImpl(bufferedImage.getWidth(), bufferedImage.getHeight());
-
-    for (int x = 0; x < bufferedImage.getWidth(); x++) {
-      for (int y = 0; y < bufferedImage.getHeight(); y++) {
-        int rgb = bufferedImage.getRGB(x, y);
-        int red = (rgb >> 16) & 0xFF;
-        int green = (rgb >> 8) & 0xFF;
-        int blue = rgb & 0xFF;
-
-        newImage.setPixel(x, y, red, green, blue);
-      }
-    }
+    return convertFromBuffered(bufferedImage, ImageStorage.getDefault());
+  }
 
-    return newImage;
+  /**
+   * Converts a BufferedImage to an IImageState representation using the given storage.
+   * The pixels are read out of the BufferedImage in one bulk call into an array borrowed from
+   * the shared PixelBufferPool, which is then handed to the storage.
+   *
+   * @param bufferedImage The BufferedImage to convert.
+   * @param storage       The storage of the new image.
+   * @return An IImageState representing the input BufferedImage.
+   */
+  public static IImage convertFromBuffered(BufferedImage bufferedImage, ImageStorage storage) {
+    int width = bufferedImage.getWidth();
+    int height = bufferedImage.getHeight();
+    int[] rgb = PixelBufferPool.getShared().acquire(width * height);
+    bufferedImage.getRGB(0, 0, width, height, rgb, 0, width);
+    return storage.create(width, height, rgb);
   }
 
   /**
@@ -45,15 +51,39 @@ public class ConvertImage {
     int width = image.getWidth();
     int height = image.getHeight();
     BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    int[] rgb = toRGB(image);
+    bufferedImage.setRGB(0, 0, width, height, rgb, 0, width);
+    PixelBufferPool.getShared().release(rgb);
+    return bufferedImage;
+  }
 
-    for (int x = 0; x < width; x++) {
-      for (int y = 0; y < height; y++) {
-        int rgb = (image.getRedChannel(x, y) << 16) | (image.getGreenChannel(x, y) << 8)
-            | image.getBlueChannel(x, y);
-        bufferedImage.setRGB(x, y, rgb);
-      }
+  /**
+   * Returns a BufferedImage with the pixels of an IImageState, for immediate use such as saving.
+   * A mapped image is returned as a view of its scratch file instead of a copy, so it can be
+   * encoded without loading it onto the heap.
+   *
+   * @param image The IImageState to convert.
+   * @return A BufferedImage that may share its pixels with the input IImageState.
+   */
+  public static BufferedImage viewAsBuffered(IImageState image) {
+    if (image instanceof MappedImage) {
+      return ((MappedImage) image).asBufferedImage();
     }
+    return convertToBuffered(image);
+  }
 
-    return bufferedImage;
+  /**
+   * Interleaves the pixels of an IImageState into row-major pixels packed as 0xAARRGGBB.
+   *
+   * @param image The IImageState to convert.
+   * @return The packed pixels of the image, in an array borrowed from the shared PixelBufferPool
+   *         that the caller may release once it is done with it.
+   */
+  public static int[] toRGB(IImageState image) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[] rgb = PixelBufferPool.getShared().acquire(width * height);
+    image.getRGB(0, 0, width, height, rgb, 0, width);
+    return rgb;
   }
 }
@@ -1,6 +1,8 @@
 package model;
 
 import model.image.IImageState;
+import model.image.ImagePyramid;
+import model.image.IntegralImage;
 
 import java.util.Map;
 
@@ -12,6 +14,11 @@ import java.util.Map;
 public interface IImageDataBase {
   /**
    * Adds a new image to the database with the specified unique identifier.
+   * An image previously stored under the same identifier is replaced. A database that releases
+   * images releases its storage if no other image in the database still uses it, and it must
+   * not be used afterwards.
+   * Adding the image that is already stored under the identifier tells the database that its
+   * pixels were modified in place, which drops what the database cached for it.
    *
    * @param id    The unique identifier for the image to be added.
    * @param image The IImageState representing the image to be added to the database.
@@ -27,6 +34,50 @@ public interface IImageDataBase {
    */
   IImageState get(String id);
 
+  /**
+   * Checks whether the image associated with the specified identifier is shared: stored under
+   * another identifier too, or read by another stored image. An image that is not shared can be
+   * modified in place without changing any other image in the database.
+   *
+   * @param id The unique identifier of the image.
+   * @return True if the image is shared, false if it is not or no image has the identifier.
+   * @throws NullPointerException If the provided id is null.
+   */
+  boolean isShared(String id);
+
+  /**
+   * Retrieves the summed-area table of the image associated with the specified identifier.
+   * The table is built on the first request and cached alongside the image, so later requests
+   * for the same image return it without rebuilding it, until the image leaves the database.
+   *
+   * @param id The unique identifier of the image.
+   * @return The summed-area table of the image, or null if no image has the identifier.
+   * @throws NullPointerException If the provided id is null.
+   */
+  IntegralImage getIntegralImage(String id);
+
+  /**
+   * Retrieves the pyramid of downsampled levels of the image associated with the specified
+   * identifier. The pyramid is created on the first request and cached alongside the image, and
+   * its levels are built when they are first read, so later requests for the same image return
+   * the levels already built, until the image leaves the database.
+   *
+   * @param id The unique identifier of the image.
+   * @return The pyramid of the image, or null if no image has the identifier.
+   * @throws NullPointerException If the provided id is null.
+   */
+  ImagePyramid getPyramid(String id);
+
+  /**
+   * Removes the image associated with the specified unique identifier from the database.
+   * A database that releases images releases its storage if no other image in the database
+   * still uses it, and it must not be used afterwards.
+   *
+   * @param id The unique identifier of the image to be removed.
+   * @throws NullPointerException If the provided id is null.
+   */
+  void remove(String id);
+
   /**
    * Retrieves all the images stored in the database as a map.
    *
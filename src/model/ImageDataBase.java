@@ -1,25 +1,54 @@
 package model;
 
+import model.image.IDerivedImageState;
 import model.image.IImageState;
+import model.image.IReleasableImage;
+import model.image.ImagePyramid;
+import model.image.IntegralImage;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Objects;
 
 /**
  * Represents a database that stores and manages images.
  * It implements the IImageDataBase interface and allows adding new images, retrieving images
- * by their unique identifier, and accessing all the stored images as a map.
+ * by their unique identifier, and accessing all the stored images as a map. A database created
+ * to release images gives the storage of replaced or removed images back, for example to the
+ * PixelBufferPool, once no stored image reads from them any more. Summed-area tables and
+ * pyramids are cached per stored image and dropped when the image leaves the database or is
+ * added again after being modified in place.
  */
 public class ImageDataBase implements IImageDataBase {
   private final Map<String, IImageState> images;
+  private final Map<IImageState, IntegralImage> integralImages;
+  private final Map<IImageState, ImagePyramid> pyramids;
+  private final boolean releasesImages;
 
   /**
-   * Constructs a new ImageDataBase object.
+   * Constructs a new ImageDataBase object that never releases images.
    * This initializes an empty database for storing images.
    */
   public ImageDataBase() {
+    this(false);
+  }
+
+  /**
+   * Constructs a new ImageDataBase object.
+   * This initializes an empty database for storing images. Releasing images is only safe when
+   * nothing outside the database keeps using a stored image after it is replaced or removed,
+   * such as a batch script that reaches every image through the database.
+   *
+   * @param releasesImages True to release the storage of replaced or removed images once no
+   *                       stored image reads from them, false to leave them to their holders and
+   *                       the garbage collector.
+   */
+  public ImageDataBase(boolean releasesImages) {
+    this.releasesImages = releasesImages;
     this.images = new HashMap<String, IImageState>();
+    this.integralImages = new IdentityHashMap<IImageState, IntegralImage>();
+    this.pyramids = new IdentityHashMap<IImageState, ImagePyramid>();
   }
 
   @Override
@@ -27,7 +56,22 @@ public class ImageDataBase implements IImageDataBase {
     if (id == null || image == null) {
       throw new IllegalArgumentException("id or image is null");
     }
-    this.images.put(id, image);
+    IImageState previous = this.images.put(id, image);
+    if (previous == image) {
+      this.integralImages.remove(image);
+      this.pyramids.remove(image);
+      return;
+    }
+    forgetIfUnstored(previous);
+    releaseIfUnused(previous);
+  }
+
+  @Override
+  public void remove(String id) {
+    Objects.requireNonNull(id);
+    IImageState removed = this.images.remove(id);
+    forgetIfUnstored(removed);
+    releaseIfUnused(removed);
   }
 
   @Override
@@ -36,8 +80,97 @@ public class ImageDataBase implements IImageDataBase {
     return this.images.get(id);
   }
 
+  @Override
+  public boolean isShared(String id) {
+    IImageState image = get(id);
+    if (image == null) {
+      return false;
+    }
+    for (Map.Entry<String, IImageState> entry : this.images.entrySet()) {
+      if (!entry.getKey().equals(id) && readsFrom(entry.getValue(), image)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public IntegralImage getIntegralImage(String id) {
+    IImageState image = get(id);
+    if (image == null) {
+      return null;
+    }
+    return this.integralImages.computeIfAbsent(image, IntegralImage::new);
+  }
+
+  @Override
+  public ImagePyramid getPyramid(String id) {
+    IImageState image = get(id);
+    if (image == null) {
+      return null;
+    }
+    return this.pyramids.computeIfAbsent(image, ImagePyramid::new);
+  }
+
   @Override
   public Map<String, IImageState> getImages() {
     return this.images;
   }
+
+  /**
+   * Drops the cached summed-area table and pyramid of an image that has left the database,
+   * unless it is still stored under another identifier.
+   *
+   * @param image The image that has left the database, or null.
+   */
+  private void forgetIfUnstored(IImageState image) {
+    if (image != null && !this.images.containsValue(image)) {
+      this.integralImages.remove(image);
+      this.pyramids.remove(image);
+    }
+  }
+
+  /**
+   * Releases the storage of an image that has left the database, if this database releases
+   * images and no stored image is the same image or is derived from it. The sources of a
+   * released derived image are checked in turn.
+   *
+   * @param image The image that has left the database, or null.
+   */
+  private void releaseIfUnused(IImageState image) {
+    if (image == null || !this.releasesImages) {
+      return;
+    }
+    for (IImageState stored : this.images.values()) {
+      if (readsFrom(stored, image)) {
+        return;
+      }
+    }
+
+    if (image instanceof IReleasableImage) {
+      ((IReleasableImage) image).release();
+    }
+    if (image instanceof IDerivedImageState) {
+      releaseIfUnused(((IDerivedImageState) image).getSource());
+    }
+  }
+
+  /**
+   * Checks whether an image is the given image or reads its pixels from it.
+   *
+   * @param image  The image to check.
+   * @param source The possible source.
+   * @return True if the source is the image or one of the images it is derived from.
+   */
+  private static boolean readsFrom(IImageState image, IImageState source) {
+    IImageState current = image;
+    while (current != null) {
+      if (current == source) {
+        return true;
+      }
+      current = current instanceof IDerivedImageState
+          ? ((IDerivedImageState) current).getSource() : null;
+    }
+    return false;
+  }
 }
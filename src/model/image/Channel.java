@@ -0,0 +1,26 @@
+package model.image;
+
+/**
+ * Represents one of the color channels (red, green, or blue) of a pixel.
+ */
+public enum Channel {
+  RED(16),
+  GREEN(8),
+  BLUE(0);
+
+  private final int shift;
+
+  Channel(int shift) {
+    this.shift = shift;
+  }
+
+  /**
+   * Extracts the value of this channel from a pixel packed as 0xAARRGGBB.
+   *
+   * @param rgb The packed pixel.
+   * @return The value of this channel, in the range [0, 255].
+   */
+  public int of(int rgb) {
+    return (rgb >> this.shift) & 0xFF;
+  }
+}
@@ -0,0 +1,170 @@
+package model.image;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents an image that starts as a copy of another image and shares its rows with it until
+ * they are written.
+ * It implements the IImage and IDerivedImageState interfaces. Reading a row that has not been
+ * written reads the source image; the first write to a row copies that row, so a derived image
+ * only costs memory for the rows it changes.
+ */
+public class CopyOnWriteImage implements IImage, IDerivedImageState {
+  private final IImageState source;
+  private final int width;
+  private final int height;
+  private final AtomicReferenceArray<int[]> rows;
+
+  /**
+   * Constructs a new CopyOnWriteImage object that shares every row with the given source image.
+   *
+   * @param source The image to copy, which must not be modified while this image is in use.
+   * @throws NullPointerException If the source is null.
+   */
+  public CopyOnWriteImage(IImageState source) {
+    this.source = Objects.requireNonNull(source);
+    this.width = source.getWidth();
+    this.height = source.getHeight();
+    this.rows = new AtomicReferenceArray<int[]>(this.height);
+  }
+
+  @Override
+  public IImageState getSource() {
+    return this.source;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getRedChannel(int x, int y) {
+    checkBounds(x, y);
+    int[] row = this.rows.get(y);
+    if (row == null) {
+      return this.source.getRedChannel(x, y);
+    }
+    return (row[x] >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreenChannel(int x, int y) {
+    checkBounds(x, y);
+    int[] row = this.rows.get(y);
+    if (row == null) {
+      return this.source.getGreenChannel(x, y);
+    }
+    return (row[x] >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlueChannel(int x, int y) {
+    checkBounds(x, y);
+    int[] row = this.rows.get(y);
+    if (row == null) {
+      return this.source.getBlueChannel(x, y);
+    }
+    return row[x] & 0xFF;
+  }
+
+  @Override
+  public void setPixel(int x, int y, int r, int g, int b) {
+    checkBounds(x, y);
+    if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255) {
+      throw new IllegalArgumentException("Pixel values out of bounds.");
+    }
+    ownedRow(y)[x] = 0xFF000000 | (r << 16) | (g << 8) | b;
+  }
+
+  @Override
+  public void getRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    for (int row = 0; row < height; row++) {
+      int[] owned = this.rows.get(y + row);
+      if (owned == null) {
+        this.source.getRGB(x, y + row, width, 1, rgb, offset + row * scansize, width);
+      } else {
+        System.arraycopy(owned, x, rgb, offset + row * scansize, width);
+      }
+    }
+  }
+
+  @Override
+  public void setRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    for (int row = 0; row < height; row++) {
+      int[] owned = ownedRow(y + row);
+      int source = offset + row * scansize;
+      for (int col = 0; col < width; col++) {
+        owned[x + col] = 0xFF000000 | rgb[source + col];
+      }
+    }
+  }
+
+  /**
+   * Checks whether the given row is still shared with the source image.
+   *
+   * @param y The row.
+   * @return True if the row has not been written, false otherwise.
+   */
+  public boolean isRowShared(int y) {
+    return this.rows.get(y) == null;
+  }
+
+  /**
+   * Counts the rows that have been copied from the source image because they were written.
+   *
+   * @return The number of rows owned by this image.
+   */
+  public int getCopiedRowCount() {
+    int count = 0;
+    for (int y = 0; y < this.height; y++) {
+      if (this.rows.get(y) != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the row owned by this image, copying it from the source image on first access.
+   *
+   * @param y The row.
+   * @return The pixels of the row, packed as 0xAARRGGBB.
+   */
+  private int[] ownedRow(int y) {
+    int[] row = this.rows.get(y);
+    if (row != null) {
+      return row;
+    }
+
+    row = new int[this.width];
+    this.source.getRGB(0, y, this.width, 1, row, 0, this.width);
+
+    if (this.rows.compareAndSet(y, null, row)) {
+      return row;
+    }
+    return this.rows.get(y);
+  }
+
+  /**
+   * Checks that the specified coordinates are inside the image.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @throws IllegalArgumentException If the specified coordinates (x, y) are outside the image
+   *                                  dimensions.
+   */
+  private void checkBounds(int x, int y) {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("x or y outside of bounds");
+    }
+  }
+}
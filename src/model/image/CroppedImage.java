@@ -0,0 +1,89 @@
+package model.image;
+
+import java.util.Objects;
+
+/**
+ * Represents a rectangle of another image as an image of its own, without copying any pixels.
+ * It implements the IDerivedImageState interface: pixel (x, y) of the cropped image is pixel
+ * (left + x, top + y) of the source image, which is read on every access.
+ */
+public class CroppedImage implements IDerivedImageState {
+  private final IImageState source;
+  private final int left;
+  private final int top;
+  private final int width;
+  private final int height;
+
+  /**
+   * Constructs a new CroppedImage of a rectangle of the given source image.
+   *
+   * @param source The image to crop, which must not be modified while this image is in use.
+   * @param left   The x-coordinate in the source of the top left pixel of the rectangle.
+   * @param top    The y-coordinate in the source of the top left pixel of the rectangle.
+   * @param width  The width of the rectangle.
+   * @param height The height of the rectangle.
+   * @throws IllegalArgumentException If the rectangle is not inside the source image.
+   * @throws NullPointerException     If the source is null.
+   */
+  public CroppedImage(IImageState source, int left, int top, int width, int height) {
+    this.source = Objects.requireNonNull(source);
+    Regions.checkRegion(source, left, top, width, height);
+    this.left = left;
+    this.top = top;
+    this.width = width;
+    this.height = height;
+  }
+
+  @Override
+  public IImageState getSource() {
+    return this.source;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getRedChannel(int x, int y) {
+    checkBounds(x, y);
+    return this.source.getRedChannel(this.left + x, this.top + y);
+  }
+
+  @Override
+  public int getGreenChannel(int x, int y) {
+    checkBounds(x, y);
+    return this.source.getGreenChannel(this.left + x, this.top + y);
+  }
+
+  @Override
+  public int getBlueChannel(int x, int y) {
+    checkBounds(x, y);
+    return this.source.getBlueChannel(this.left + x, this.top + y);
+  }
+
+  @Override
+  public void getRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    this.source.getRGB(this.left + x, this.top + y, width, height, rgb, offset, scansize);
+  }
+
+  /**
+   * Checks that the specified coordinates are inside the image.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @throws IllegalArgumentException If the specified coordinates (x, y) are outside the image
+   *                                  dimensions.
+   */
+  private void checkBounds(int x, int y) {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("x or y outside of bounds");
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package model.image;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Frees the native memory of direct buffers as soon as they are no longer needed.
+ * The JDK only frees a direct buffer once the garbage collector finds it unreachable; when the
+ * unsupported cleaner hook is available it is used to free the memory immediately instead.
+ */
+final class DirectBuffers {
+  private static final Object UNSAFE;
+  private static final Method INVOKE_CLEANER;
+
+  static {
+    Object unsafe = null;
+    Method invokeCleaner = null;
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      unsafe = field.get(null);
+      invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      unsafe = null;
+      invokeCleaner = null;
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invokeCleaner;
+  }
+
+  private DirectBuffers() {
+  }
+
+  /**
+   * Frees the native memory of the given direct buffer. The buffer must not be used afterwards.
+   * If the memory cannot be freed eagerly, it is left to the garbage collector.
+   *
+   * @param buffer The direct buffer to free.
+   */
+  static void free(ByteBuffer buffer) {
+    if (INVOKE_CLEANER == null || !buffer.isDirect()) {
+      return;
+    }
+    try {
+      INVOKE_CLEANER.invoke(UNSAFE, buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // the buffer is still freed once it becomes unreachable
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package model.image;
+
+import java.util.Objects;
+
+/**
+ * Represents the histograms of the red, green and blue channels and of the luma of an image,
+ * counting the pixels that have each of the 256 values.
+ * The rows are split into bands as the parallelism allows. Each band counts into its own partial
+ * histograms and adds them to the totals once it is done, so the bands never contend for a
+ * counter. The luma of a pixel is computed and truncated as LumaTransformation does, with the
+ * products of each channel read from tables. The histograms reflect the pixels of the image when
+ * they were built.
+ */
+public final class Histogram {
+  /**
+   * The number of values a channel can take, and so the number of bins of each histogram.
+   */
+  public static final int BINS = 256;
+
+  private static final int LUMA = 3;
+  private static final double[] RED_LUMA = new double[BINS];
+  private static final double[] GREEN_LUMA = new double[BINS];
+  private static final double[] BLUE_LUMA = new double[BINS];
+
+  static {
+    for (int value = 0; value < BINS; value++) {
+      RED_LUMA[value] = 0.2126 * value;
+      GREEN_LUMA[value] = 0.7152 * value;
+      BLUE_LUMA[value] = 0.0722 * value;
+    }
+  }
+
+  private final long[][] counts;
+  private final long pixelCount;
+
+  /**
+   * Constructs the histograms of an image, using the default parallelism.
+   *
+   * @param image The image.
+   * @throws NullPointerException If the image is null.
+   */
+  public Histogram(IImageState image) {
+    this(image, Parallelism.getDefault());
+  }
+
+  /**
+   * Constructs the histograms of an image, using the given parallelism.
+   *
+   * @param image       The image.
+   * @param parallelism The parallelism of the count.
+   * @throws NullPointerException If the image or parallelism is null.
+   */
+  public Histogram(IImageState image, Parallelism parallelism) {
+    Objects.requireNonNull(image);
+    Objects.requireNonNull(parallelism);
+    int width = image.getWidth();
+    int height = image.getHeight();
+    this.counts = new long[4][BINS];
+    this.pixelCount = (long) width * height;
+    if (width == 0 || height == 0) {
+      return;
+    }
+    parallelism.forEachBand(width, height, (fromRow, toRow) -> {
+      int[] partial = new int[4 * BINS];
+      countRows(image, fromRow, toRow, partial);
+      synchronized (this.counts) {
+        for (int channel = 0; channel < 4; channel++) {
+          for (int value = 0; value < BINS; value++) {
+            this.counts[channel][value] += partial[channel * BINS + value];
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Counts the values of a band of rows into partial histograms.
+   *
+   * @param image   The image.
+   * @param fromRow The first row of the band.
+   * @param toRow   The row after the last row of the band.
+   * @param partial The red, green, blue and luma histograms of the band, one after another.
+   */
+  private static void countRows(IImageState image, int fromRow, int toRow, int[] partial) {
+    int width = image.getWidth();
+    int[] pixels = new int[width];
+    for (int row = fromRow; row < toRow; row++) {
+      image.getRGB(0, row, width, 1, pixels, 0, width);
+      for (int col = 0; col < width; col++) {
+        int pixel = pixels[col];
+        int red = (pixel >> 16) & 0xFF;
+        int green = (pixel >> 8) & 0xFF;
+        int blue = pixel & 0xFF;
+        int luma = (int) (RED_LUMA[red] + GREEN_LUMA[green] + BLUE_LUMA[blue]);
+        partial[red]++;
+        partial[BINS + green]++;
+        partial[2 * BINS + blue]++;
+        partial[LUMA * BINS + luma]++;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of pixels counted by each histogram.
+   *
+   * @return The number of pixels of the image.
+   */
+  public long getPixelCount() {
+    return this.pixelCount;
+  }
+
+  /**
+   * Gets the histogram of a channel.
+   *
+   * @param channel The channel.
+   * @return A copy of the number of pixels with each of the 256 values of the channel.
+   * @throws NullPointerException If the channel is null.
+   */
+  public long[] getCounts(Channel channel) {
+    return this.counts[channel.ordinal()].clone();
+  }
+
+  /**
+   * Gets the histogram of the luma.
+   *
+   * @return A copy of the number of pixels with each of the 256 values of the luma.
+   */
+  public long[] getLumaCounts() {
+    return this.counts[LUMA].clone();
+  }
+}
@@ -0,0 +1,15 @@
+package model.image;
+
+/**
+ * Represents the state of an image that is derived from another image and still reads some of
+ * its pixels from it.
+ * The source image must not be modified while images derived from it are in use.
+ */
+public interface IDerivedImageState extends IImageState {
+  /**
+   * Gets the image this image reads its unchanged pixels from.
+   *
+   * @return The source image.
+   */
+  IImageState getSource();
+}
@@ -17,4 +17,28 @@ public interface IImage extends IImageState {
    *                                  dimensions.
    */
   void setPixel(int x, int y, int r, int g, int b);
+
+  /**
+   * Sets a rectangle of pixels from the given array of pixels packed as 0xAARRGGBB. The alpha of
+   * the packed pixels is ignored. Pixel (x + i, y + j) is read from rgb[offset + j * scansize + i].
+   *
+   * @param x        The x-coordinate of the top left pixel of the rectangle.
+   * @param y        The y-coordinate of the top left pixel of the rectangle.
+   * @param width    The width of the rectangle.
+   * @param height   The height of the rectangle.
+   * @param rgb      The array that holds the pixels.
+   * @param offset   The position in the array of the top left pixel.
+   * @param scansize The distance in the array between the starts of two consecutive rows.
+   * @throws IllegalArgumentException If the rectangle is not inside the image dimensions.
+   */
+  default void setRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    for (int row = 0; row < height; row++) {
+      int index = offset + row * scansize;
+      for (int col = 0; col < width; col++) {
+        int pixel = rgb[index + col];
+        setPixel(x + col, y + row, (pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+      }
+    }
+  }
 }
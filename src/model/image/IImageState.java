@@ -52,4 +52,29 @@ public interface IImageState {
    *                                  dimensions.
    */
   int getBlueChannel(int x, int y);
+
+  /**
+   * Copies a rectangle of pixels into the given array, packed as 0xAARRGGBB with an opaque
+   * alpha. Reading a whole row or rectangle at once avoids the bounds check and call per channel
+   * of the per-pixel getters. Pixel (x + i, y + j) is stored at rgb[offset + j * scansize + i].
+   *
+   * @param x        The x-coordinate of the top left pixel of the rectangle.
+   * @param y        The y-coordinate of the top left pixel of the rectangle.
+   * @param width    The width of the rectangle.
+   * @param height   The height of the rectangle.
+   * @param rgb      The array that receives the pixels.
+   * @param offset   The position in the array of the top left pixel.
+   * @param scansize The distance in the array between the starts of two consecutive rows.
+   * @throws IllegalArgumentException If the rectangle is not inside the image dimensions.
+   */
+  default void getRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    for (int row = 0; row < height; row++) {
+      int index = offset + row * scansize;
+      for (int col = 0; col < width; col++) {
+        rgb[index + col] = 0xFF000000 | (getRedChannel(x + col, y + row) << 16)
+            | (getGreenChannel(x + col, y + row) << 8) | getBlueChannel(x + col, y + row);
+      }
+    }
+  }
 }
@@ -0,0 +1,20 @@
+package model.image;
+
+/**
+ * Represents an image whose pixel storage can be given back explicitly instead of waiting for
+ * the garbage collector.
+ * It extends the IImage interface; once released, the image must not be used again.
+ */
+public interface IReleasableImage extends IImage {
+  /**
+   * Releases the pixel storage of this image. Releasing an image more than once has no effect.
+   */
+  void release();
+
+  /**
+   * Checks whether the pixel storage of this image has been released.
+   *
+   * @return True if the image has been released, false otherwise.
+   */
+  boolean isReleased();
+}
@@ -0,0 +1,19 @@
+package model.image;
+
+/**
+ * Represents a source that computes the pixels of a tile when the tile is first accessed.
+ */
+public interface ITileSource {
+  /**
+   * Computes the pixels of the given rectangle of the image.
+   *
+   * @param x        The x-coordinate of the top left pixel of the rectangle.
+   * @param y        The y-coordinate of the top left pixel of the rectangle.
+   * @param width    The width of the rectangle.
+   * @param height   The height of the rectangle.
+   * @param tile     The array to fill with the pixels packed as 0xAARRGGBB, row-major. The alpha
+   *                 is ignored.
+   * @param scansize The distance between the starts of two consecutive rows in the array.
+   */
+  void computeTile(int x, int y, int width, int height, int[] tile, int scansize);
+}
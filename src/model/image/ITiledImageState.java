@@ -0,0 +1,48 @@
+package model.image;
+
+/**
+ * Represents the state of an image that is split into fixed-size tiles.
+ * It extends the IImageState interface with read access to whole tiles. Tiles are numbered from
+ * the top left corner of the image; the tiles of the last row and column may extend past the
+ * image, in which case the pixels outside the image are undefined.
+ */
+public interface ITiledImageState extends IImageState {
+  /**
+   * Gets the width of every tile.
+   *
+   * @return The number of columns (pixels) in a tile.
+   */
+  int getTileWidth();
+
+  /**
+   * Gets the height of every tile.
+   *
+   * @return The number of rows (pixels) in a tile.
+   */
+  int getTileHeight();
+
+  /**
+   * Gets the number of tiles in each row of tiles.
+   *
+   * @return The number of tiles across the image.
+   */
+  int getTilesAcross();
+
+  /**
+   * Gets the number of tiles in each column of tiles.
+   *
+   * @return The number of tiles down the image.
+   */
+  int getTilesDown();
+
+  /**
+   * Copies the pixels of a tile into the given array, packed as 0xAARRGGBB, row-major, with one
+   * row every tile-width elements.
+   *
+   * @param tileX The column of the tile.
+   * @param tileY The row of the tile.
+   * @param tile  The array to fill, of at least tile-width times tile-height elements.
+   * @throws IllegalArgumentException If the tile is outside the image.
+   */
+  void readTile(int tileX, int tileY, int[] tile);
+}
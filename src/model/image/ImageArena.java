@@ -0,0 +1,51 @@
+package model.image;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a scope that owns off-heap images.
+ * Every image allocated through the arena is released together when the arena is closed, so a
+ * batch of intermediate images can be freed at once, for example with try-with-resources.
+ */
+public class ImageArena implements AutoCloseable {
+  private final List<IReleasableImage> images;
+  private boolean closed;
+
+  /**
+   * Constructs a new, empty ImageArena.
+   */
+  public ImageArena() {
+    this.images = new ArrayList<IReleasableImage>();
+    this.closed = false;
+  }
+
+  /**
+   * Allocates a new off-heap image owned by this arena.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @return A new OffHeapImage that is released when this arena is closed.
+   * @throws IllegalStateException If the arena has already been closed.
+   */
+  public synchronized OffHeapImage allocate(int width, int height) {
+    if (this.closed) {
+      throw new IllegalStateException("Arena has been closed.");
+    }
+    OffHeapImage image = new OffHeapImage(width, height);
+    this.images.add(image);
+    return image;
+  }
+
+  /**
+   * Releases every image allocated by this arena. Closing an arena more than once has no effect.
+   */
+  @Override
+  public synchronized void close() {
+    this.closed = true;
+    for (IReleasableImage image : this.images) {
+      image.release();
+    }
+    this.images.clear();
+  }
+}
@@ -0,0 +1,141 @@
+package model.image;
+
+import java.util.Objects;
+
+/**
+ * Represents the pyramid of an image: level 0 is the image itself, and every other level is the
+ * level before it halved in both dimensions, down to a single pixel. A pixel of a level is the
+ * average of the two by two block of the level before it, rounded half up; along an odd
+ * dimension the last pixel of the block is repeated. Levels are built on first request, each
+ * from the level before it, with the rows split into bands as the parallelism allows, and are
+ * kept for later requests. The levels reflect the pixels of the image when they were built.
+ * Level 0 is the image itself, not a copy, so it is only readable for as long as the image is: a
+ * releasable image that is released, for example by an ImageDataBase that releases images, can
+ * no longer be read through the pyramid either. The other levels are never released, so they
+ * stay readable by whoever holds them after the pyramid is dropped.
+ */
+public final class ImagePyramid {
+  private final Parallelism parallelism;
+  private final IImageState[] levels;
+
+  /**
+   * Constructs the pyramid of an image, using the default parallelism. No level is built yet.
+   *
+   * @param image The image.
+   * @throws NullPointerException If the image is null.
+   */
+  public ImagePyramid(IImageState image) {
+    this(image, Parallelism.getDefault());
+  }
+
+  /**
+   * Constructs the pyramid of an image, using the given parallelism. No level is built yet.
+   *
+   * @param image       The image.
+   * @param parallelism The parallelism of the builds.
+   * @throws NullPointerException If the image or parallelism is null.
+   */
+  public ImagePyramid(IImageState image, Parallelism parallelism) {
+    Objects.requireNonNull(image);
+    this.parallelism = Objects.requireNonNull(parallelism);
+    int size = Math.max(image.getWidth(), image.getHeight());
+    int count = size <= 1 ? 1 : 33 - Integer.numberOfLeadingZeros(size - 1);
+    this.levels = new IImageState[count];
+    this.levels[0] = image;
+  }
+
+  /**
+   * Gets the number of levels of this pyramid, the last of which is a single pixel unless the
+   * image is empty.
+   *
+   * @return The number of levels, at least 1.
+   */
+  public int getLevelCount() {
+    return this.levels.length;
+  }
+
+  /**
+   * Gets a level of this pyramid, building it and the levels before it if they are not built.
+   *
+   * @param level The level, 0 for the image itself.
+   * @return The image of the level.
+   * @throws IllegalArgumentException If the level is negative or not less than the level count.
+   * @throws IllegalStateException    If a level has to be built and the image has been released.
+   */
+  public synchronized IImageState getLevel(int level) {
+    if (level < 0 || level >= this.levels.length) {
+      throw new IllegalArgumentException("level out of bounds");
+    }
+    for (int i = 1; i <= level; i++) {
+      if (this.levels[i] == null) {
+        this.levels[i] = halve(this.levels[i - 1]);
+      }
+    }
+    return this.levels[level];
+  }
+
+  /**
+   * Chooses the smallest level that is at least as large as the given size in both dimensions,
+   * so that drawing it at that size shrinks it by less than half. Nothing is built.
+   *
+   * @param width  The width the image will be drawn at.
+   * @param height The height the image will be drawn at.
+   * @return The level, 0 if the image is no larger than twice the size.
+   */
+  public int levelFor(int width, int height) {
+    int levelWidth = this.levels[0].getWidth();
+    int levelHeight = this.levels[0].getHeight();
+    int level = 0;
+    while (level + 1 < this.levels.length
+        && (levelWidth + 1) / 2 >= width && (levelHeight + 1) / 2 >= height) {
+      levelWidth = (levelWidth + 1) / 2;
+      levelHeight = (levelHeight + 1) / 2;
+      level++;
+    }
+    return level;
+  }
+
+  /**
+   * Halves both dimensions of an image by averaging blocks of two by two pixels, rounding odd
+   * dimensions up. The red and blue channels of a packed pixel are summed in one int and the
+   * green channel in another, as ResizeTransformation does, so the sums never carry into each
+   * other.
+   *
+   * @param source The level to halve.
+   * @return The next level.
+   */
+  private IImageState halve(IImageState source) {
+    int sourceWidth = source.getWidth();
+    int sourceHeight = source.getHeight();
+    int width = (sourceWidth + 1) / 2;
+    int height = (sourceHeight + 1) / 2;
+    int[] pixels = new int[Math.multiplyExact(width, height)];
+
+    this.parallelism.forEachBand(width, height, (fromRow, toRow) -> {
+      int[] top = new int[sourceWidth];
+      int[] bottom = new int[sourceWidth];
+      for (int row = fromRow; row < toRow; row++) {
+        source.getRGB(0, 2 * row, sourceWidth, 1, top, 0, sourceWidth);
+        int[] lower = top;
+        if (2 * row + 1 < sourceHeight) {
+          source.getRGB(0, 2 * row + 1, sourceWidth, 1, bottom, 0, sourceWidth);
+          lower = bottom;
+        }
+        int offset = row * width;
+        for (int col = 0; col < width; col++) {
+          int left = 2 * col;
+          int right = Math.min(left + 1, sourceWidth - 1);
+          int a = top[left];
+          int b = top[right];
+          int c = lower[left];
+          int d = lower[right];
+          int redBlue = (a & 0xFF00FF) + (b & 0xFF00FF) + (c & 0xFF00FF) + (d & 0xFF00FF);
+          int green = (a & 0xFF00) + (b & 0xFF00) + (c & 0xFF00) + (d & 0xFF00);
+          pixels[offset + col] = 0xFF000000 | (((redBlue + 0x20002) >> 2) & 0xFF00FF)
+              | (((green + 0x200) >> 2) & 0xFF00);
+        }
+      }
+    });
+    return new PackedImage(width, height, pixels);
+  }
+}
@@ -0,0 +1,141 @@
+package model.image;
+
+import java.util.Objects;
+
+/**
+ * Represents the ways the pixels of a new image can be laid out in memory.
+ * Loaders, conversions and transformations create their images through the default storage,
+ * which can be changed to suit the workload.
+ */
+public enum ImageStorage {
+  /**
+   * Each pixel is packed into one int of a row-major array.
+   */
+  PACKED {
+    @Override
+    public IImage create(int width, int height) {
+      return new PackedImage(width, height);
+    }
+
+    @Override
+    public IImage create(int width, int height, int[] rgb) {
+      return new PackedImage(width, height, rgb);
+    }
+  },
+
+  /**
+   * Each channel is stored in its own row-major byte plane.
+   */
+  PLANAR {
+    @Override
+    public IImage create(int width, int height) {
+      return new PlanarImage(width, height);
+    }
+
+    @Override
+    public IImage create(int width, int height, int[] rgb) {
+      PlanarImage image = new PlanarImage(width, height, rgb);
+      PixelBufferPool.getShared().release(rgb);
+      return image;
+    }
+  },
+
+  /**
+   * Each pixel is packed into one int of a direct buffer outside the Java heap.
+   */
+  OFF_HEAP {
+    @Override
+    public IImage create(int width, int height) {
+      return new OffHeapImage(width, height);
+    }
+
+    @Override
+    public IImage create(int width, int height, int[] rgb) {
+      OffHeapImage image = new OffHeapImage(width, height);
+      image.setRGB(0, 0, width, height, rgb, 0, width);
+      PixelBufferPool.getShared().release(rgb);
+      return image;
+    }
+  },
+
+  /**
+   * Each pixel is packed into one int of a memory-mapped scratch file, for images larger than
+   * the Java heap.
+   */
+  MAPPED {
+    @Override
+    public IImage create(int width, int height) {
+      return new MappedImage(width, height);
+    }
+
+    @Override
+    public IImage create(int width, int height, int[] rgb) {
+      MappedImage image = new MappedImage(width, height);
+      image.setRGB(0, 0, width, height, rgb, 0, width);
+      PixelBufferPool.getShared().release(rgb);
+      return image;
+    }
+  },
+
+  /**
+   * The pixels are split into square tiles that are only allocated when first written.
+   */
+  TILED {
+    @Override
+    public IImage create(int width, int height) {
+      return new TiledImage(width, height);
+    }
+
+    @Override
+    public IImage create(int width, int height, int[] rgb) {
+      TiledImage image = new TiledImage(width, height);
+      image.setRGB(0, 0, width, height, rgb, 0, width);
+      PixelBufferPool.getShared().release(rgb);
+      return image;
+    }
+  };
+
+  private static volatile ImageStorage defaultStorage = PACKED;
+
+  /**
+   * Creates a new image with the specified dimensions using this storage.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @return A new, mutable image.
+   */
+  public abstract IImage create(int width, int height);
+
+  /**
+   * Creates a new image using this storage from row-major pixels packed as 0xAARRGGBB.
+   * The storage takes ownership of the given array: it either keeps it as the storage of the
+   * image or copies it and returns it to the shared PixelBufferPool, which only takes it back if
+   * the pool handed it out.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @param rgb    The row-major packed pixels of the image.
+   * @return A new, mutable image holding the given pixels.
+   * @throws IllegalArgumentException If the length of rgb does not match the dimensions.
+   */
+  public abstract IImage create(int width, int height, int[] rgb);
+
+  /**
+   * Gets the storage used when no storage is specified.
+   *
+   * @return The default storage.
+   */
+  public static ImageStorage getDefault() {
+    return defaultStorage;
+  }
+
+  /**
+   * Sets the storage used when no storage is specified.
+   *
+   * @param storage The new default storage.
+   * @throws NullPointerException If the storage is null.
+   */
+  public static void setDefault(ImageStorage storage) {
+    defaultStorage = Objects.requireNonNull(storage);
+  }
+}
@@ -0,0 +1,245 @@
+package model.image;
+
+import java.util.Objects;
+
+/**
+ * Represents the summed-area table of an image, which answers the sum or mean of any channel over
+ * any rectangle in constant time. Each channel has its own table with a row and a column of zeros
+ * before the first pixel, so that entry (x, y) holds the sum of the pixels above and to the left
+ * of pixel (x, y). A rectangle sum is then four table reads.
+ * The tables are ints while every rectangle sum fits in 32 unsigned bits, which holds for images
+ * of up to 16843009 pixels: the entries wrap around, but the differences of the four corners are
+ * still exact. Larger images use long tables. The table is built in two passes, row prefix sums
+ * over bands of rows and column prefix sums over strips of columns, which both run in parallel as
+ * the parallelism allows. The table reflects the pixels of the image when it was built.
+ */
+public final class IntegralImage {
+  private final int width;
+  private final int height;
+  private final int stride;
+  private final int[][] tables;
+  private final long[][] wideTables;
+
+  /**
+   * Constructs the summed-area table of an image, using the default parallelism.
+   *
+   * @param image The image.
+   * @throws NullPointerException If the image is null.
+   */
+  public IntegralImage(IImageState image) {
+    this(image, Parallelism.getDefault());
+  }
+
+  /**
+   * Constructs the summed-area table of an image, using the given parallelism.
+   *
+   * @param image       The image.
+   * @param parallelism The parallelism of the build.
+   * @throws NullPointerException If the image or parallelism is null.
+   */
+  public IntegralImage(IImageState image, Parallelism parallelism) {
+    Objects.requireNonNull(image);
+    Objects.requireNonNull(parallelism);
+    this.width = image.getWidth();
+    this.height = image.getHeight();
+    this.stride = this.width + 1;
+    int length = Math.multiplyExact(this.stride, this.height + 1);
+
+    if (255L * this.width * this.height <= 0xFFFFFFFFL) {
+      this.tables = new int[][] {new int[length], new int[length], new int[length]};
+      this.wideTables = null;
+      parallelism.forEachBand(this.width, this.height, (fromRow, toRow) ->
+          sumRows(image, fromRow, toRow));
+      parallelism.forEachBand(this.height, this.width, (fromCol, toCol) ->
+          sumColumns(fromCol, toCol));
+    } else {
+      this.tables = null;
+      this.wideTables = new long[][] {new long[length], new long[length], new long[length]};
+      parallelism.forEachBand(this.width, this.height, (fromRow, toRow) ->
+          sumRowsWide(image, fromRow, toRow));
+      parallelism.forEachBand(this.height, this.width, (fromCol, toCol) ->
+          sumColumnsWide(fromCol, toCol));
+    }
+  }
+
+  /**
+   * Fills a band of rows of the int tables with the prefix sums of each row.
+   *
+   * @param image   The image.
+   * @param fromRow The first row of the band.
+   * @param toRow   The row after the last row of the band.
+   */
+  private void sumRows(IImageState image, int fromRow, int toRow) {
+    int[] pixels = new int[this.width];
+    int[] red = this.tables[0];
+    int[] green = this.tables[1];
+    int[] blue = this.tables[2];
+    for (int row = fromRow; row < toRow; row++) {
+      image.getRGB(0, row, this.width, 1, pixels, 0, this.width);
+      int index = (row + 1) * this.stride + 1;
+      int redSum = 0;
+      int greenSum = 0;
+      int blueSum = 0;
+      for (int col = 0; col < this.width; col++) {
+        int pixel = pixels[col];
+        redSum += (pixel >> 16) & 0xFF;
+        greenSum += (pixel >> 8) & 0xFF;
+        blueSum += pixel & 0xFF;
+        red[index + col] = redSum;
+        green[index + col] = greenSum;
+        blue[index + col] = blueSum;
+      }
+    }
+  }
+
+  /**
+   * Adds every row of the int tables to the row below it, for a strip of columns.
+   *
+   * @param fromCol The first column of the strip.
+   * @param toCol   The column after the last column of the strip.
+   */
+  private void sumColumns(int fromCol, int toCol) {
+    for (int[] table : this.tables) {
+      for (int row = 2; row <= this.height; row++) {
+        int index = row * this.stride + 1;
+        for (int col = fromCol; col < toCol; col++) {
+          table[index + col] += table[index - this.stride + col];
+        }
+      }
+    }
+  }
+
+  /**
+   * Fills a band of rows of the long tables with the prefix sums of each row.
+   *
+   * @param image   The image.
+   * @param fromRow The first row of the band.
+   * @param toRow   The row after the last row of the band.
+   */
+  private void sumRowsWide(IImageState image, int fromRow, int toRow) {
+    int[] pixels = new int[this.width];
+    long[] red = this.wideTables[0];
+    long[] green = this.wideTables[1];
+    long[] blue = this.wideTables[2];
+    for (int row = fromRow; row < toRow; row++) {
+      image.getRGB(0, row, this.width, 1, pixels, 0, this.width);
+      int index = (row + 1) * this.stride + 1;
+      long redSum = 0;
+      long greenSum = 0;
+      long blueSum = 0;
+      for (int col = 0; col < this.width; col++) {
+        int pixel = pixels[col];
+        redSum += (pixel >> 16) & 0xFF;
+        greenSum += (pixel >> 8) & 0xFF;
+        blueSum += pixel & 0xFF;
+        red[index + col] = redSum;
+        green[index + col] = greenSum;
+        blue[index + col] = blueSum;
+      }
+    }
+  }
+
+  /**
+   * Adds every row of the long tables to the row below it, for a strip of columns.
+   *
+   * @param fromCol The first column of the strip.
+   * @param toCol   The column after the last column of the strip.
+   */
+  private void sumColumnsWide(int fromCol, int toCol) {
+    for (long[] table : this.wideTables) {
+      for (int row = 2; row <= this.height; row++) {
+        int index = row * this.stride + 1;
+        for (int col = fromCol; col < toCol; col++) {
+          table[index + col] += table[index - this.stride + col];
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the width of the image this table was built from.
+   *
+   * @return The width in pixels.
+   */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * Gets the height of the image this table was built from.
+   *
+   * @return The height in pixels.
+   */
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Sums a channel over a rectangle of the image.
+   *
+   * @param channel The channel to sum.
+   * @param x       The x-coordinate of the top left pixel of the rectangle.
+   * @param y       The y-coordinate of the top left pixel of the rectangle.
+   * @param width   The width of the rectangle.
+   * @param height  The height of the rectangle.
+   * @return The sum of the channel over the rectangle, 0 if it is empty.
+   * @throws IllegalArgumentException If the rectangle is not inside the image.
+   * @throws NullPointerException     If the channel is null.
+   */
+  public long sum(Channel channel, int x, int y, int width, int height) {
+    Objects.requireNonNull(channel);
+    if (x < 0 || y < 0 || width < 0 || height < 0 || x > this.width - width
+        || y > this.height - height) {
+      throw new IllegalArgumentException("region outside of bounds");
+    }
+    int topLeft = y * this.stride + x;
+    int topRight = topLeft + width;
+    int bottomLeft = topLeft + height * this.stride;
+    int bottomRight = bottomLeft + width;
+
+    if (this.tables != null) {
+      int[] table = this.tables[channel.ordinal()];
+      return Integer.toUnsignedLong(table[bottomRight] - table[bottomLeft] - table[topRight]
+          + table[topLeft]);
+    }
+    long[] table = this.wideTables[channel.ordinal()];
+    return table[bottomRight] - table[bottomLeft] - table[topRight] + table[topLeft];
+  }
+
+  /**
+   * Averages a channel over a rectangle of the image.
+   *
+   * @param channel The channel to average.
+   * @param x       The x-coordinate of the top left pixel of the rectangle.
+   * @param y       The y-coordinate of the top left pixel of the rectangle.
+   * @param width   The width of the rectangle.
+   * @param height  The height of the rectangle.
+   * @return The mean of the channel over the rectangle.
+   * @throws IllegalArgumentException If the rectangle is empty or not inside the image.
+   * @throws NullPointerException     If the channel is null.
+   */
+  public double mean(Channel channel, int x, int y, int width, int height) {
+    long sum = sum(channel, x, y, width, height);
+    if (width == 0 || height == 0) {
+      throw new IllegalArgumentException("region is empty");
+    }
+    return (double) sum / ((long) width * height);
+  }
+
+  /**
+   * Averages every channel over a rectangle of the image, rounding to the nearest integer.
+   *
+   * @param x      The x-coordinate of the top left pixel of the rectangle.
+   * @param y      The y-coordinate of the top left pixel of the rectangle.
+   * @param width  The width of the rectangle.
+   * @param height The height of the rectangle.
+   * @return The mean pixel packed as 0xFFRRGGBB.
+   * @throws IllegalArgumentException If the rectangle is empty or not inside the image.
+   */
+  public int meanRGB(int x, int y, int width, int height) {
+    long red = Math.round(mean(Channel.RED, x, y, width, height));
+    long green = Math.round(mean(Channel.GREEN, x, y, width, height));
+    long blue = Math.round(mean(Channel.BLUE, x, y, width, height));
+    return (int) (0xFF000000L | (red << 16) | (green << 8) | blue);
+  }
+}
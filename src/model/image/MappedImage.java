@@ -0,0 +1,323 @@
+package model.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Represents an image implementation whose pixels live in a memory-mapped scratch file.
+ * It implements the IReleasableImage interface and keeps every pixel packed into one int of the
+ * file, so the operating system decides which parts of the image stay resident and images larger
+ * than the Java heap can be processed. The file is mapped in segments of whole rows, because a
+ * single mapping cannot exceed 2 GB. The scratch file is deleted when the image is released.
+ * Every access to the pixels holds a shared lock that releasing waits for, so the file is never
+ * unmapped under a read or write in progress, and accesses after the release throw an exception.
+ */
+public class MappedImage implements IReleasableImage {
+  private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+  private final int width;
+  private final int height;
+  private final int rowsPerSegment;
+  private final File file;
+  private final StampedLock lock;
+  private RandomAccessFile raf;
+  private MappedByteBuffer[] mappings;
+  private IntBuffer[] segments;
+
+  /**
+   * Constructs a new MappedImage object backed by a scratch file in the default temporary
+   * directory.
+   *
+   * @param width  The width of the image, representing the number of columns (pixels) in the image.
+   * @param height The height of the image, representing the number of rows (pixels) in the image.
+   * @throws IllegalArgumentException If the width or height is negative.
+   * @throws IllegalStateException    If the scratch file cannot be created or mapped.
+   */
+  public MappedImage(int width, int height) {
+    this(width, height, null);
+  }
+
+  /**
+   * Constructs a new MappedImage object backed by a scratch file in the given directory.
+   *
+   * @param width     The width of the image, representing the number of columns (pixels) in the
+   *                  image.
+   * @param height    The height of the image, representing the number of rows (pixels) in the
+   *                  image.
+   * @param directory The directory of the scratch file, or null for the default temporary
+   *                  directory.
+   * @throws IllegalArgumentException If the width or height is negative.
+   * @throws IllegalStateException    If the scratch file cannot be created or mapped.
+   */
+  public MappedImage(int width, int height, File directory) {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("width or height is negative");
+    }
+    Math.multiplyExact(width, height);
+    this.width = width;
+    this.height = height;
+    this.rowsPerSegment = (int) Math.max(1, MAX_SEGMENT_BYTES / Math.max(1, 4L * width));
+    this.lock = new StampedLock();
+
+    int count = Math.max(1, (height + this.rowsPerSegment - 1) / this.rowsPerSegment);
+    this.mappings = new MappedByteBuffer[count];
+    this.segments = new IntBuffer[count];
+
+    try {
+      this.file = File.createTempFile("image", ".raw", directory);
+      this.file.deleteOnExit();
+      this.raf = new RandomAccessFile(this.file, "rw");
+      this.raf.setLength(4L * width * height);
+      FileChannel channel = this.raf.getChannel();
+
+      for (int i = 0; i < count; i++) {
+        long firstRow = (long) i * this.rowsPerSegment;
+        long rows = Math.min(this.rowsPerSegment, height - firstRow);
+        this.mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE, 4L * width * firstRow,
+            4L * width * Math.max(0, rows));
+        this.mappings[i].order(ByteOrder.nativeOrder());
+        this.segments[i] = this.mappings[i].asIntBuffer();
+      }
+    } catch (IOException e) {
+      release();
+      throw new IllegalStateException("Creating the scratch file failed.", e);
+    }
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getRedChannel(int x, int y) {
+    return (get(x, y) >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreenChannel(int x, int y) {
+    return (get(x, y) >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlueChannel(int x, int y) {
+    return get(x, y) & 0xFF;
+  }
+
+  @Override
+  public void setPixel(int x, int y, int r, int g, int b) {
+    checkBounds(x, y);
+    if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255) {
+      throw new IllegalArgumentException("Pixel values out of bounds.");
+    }
+    long stamp = lockPixels();
+    try {
+      segment(y).put(offset(x, y), 0xFF000000 | (r << 16) | (g << 8) | b);
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void getRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    long stamp = lockPixels();
+    try {
+      for (int row = 0; row < height; row++) {
+        segment(y + row).get(offset(x, y + row), rgb, offset + row * scansize, width);
+      }
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void setRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    long stamp = lockPixels();
+    try {
+      for (int row = 0; row < height; row++) {
+        IntBuffer segment = segment(y + row);
+        int index = offset(x, y + row);
+        int source = offset + row * scansize;
+        for (int col = 0; col < width; col++) {
+          segment.put(index + col, 0xFF000000 | rgb[source + col]);
+        }
+      }
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Creates a BufferedImage that shares its pixels with the mapped file of this image.
+   * Image readers can decode straight into it and image writers can encode straight out of it,
+   * without copying the image onto the heap. Reading or writing the view after this image has
+   * been released throws an IllegalStateException.
+   *
+   * @return A TYPE_INT_RGB compatible BufferedImage backed by this image.
+   * @throws IllegalStateException If the image has been released.
+   */
+  public BufferedImage asBufferedImage() {
+    DirectColorModel colorModel = new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF);
+    WritableRaster raster = Raster.createWritableRaster(
+        colorModel.createCompatibleSampleModel(this.width, this.height),
+        new MappedDataBuffer(), null);
+    return new BufferedImage(colorModel, raster, false, null);
+  }
+
+  @Override
+  public void release() {
+    long stamp = this.lock.writeLock();
+    try {
+      if (this.mappings != null) {
+        MappedByteBuffer[] released = this.mappings;
+        this.mappings = null;
+        this.segments = null;
+        for (MappedByteBuffer mapping : released) {
+          if (mapping != null) {
+            DirectBuffers.free(mapping);
+          }
+        }
+      }
+      if (this.raf != null) {
+        try {
+          this.raf.close();
+        } catch (IOException e) {
+          // the file is deleted below or when the virtual machine exits
+        }
+        this.raf = null;
+        if (this.file != null) {
+          this.file.delete();
+        }
+      }
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public boolean isReleased() {
+    long stamp = this.lock.readLock();
+    try {
+      return this.segments == null;
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Returns the packed value of the pixel at the specified coordinates.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @return The packed pixel.
+   */
+  private int get(int x, int y) {
+    checkBounds(x, y);
+    long stamp = lockPixels();
+    try {
+      return segment(y).get(offset(x, y));
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Takes the shared lock on the pixels of this image, which the caller must unlock once it is
+   * done with the segments. The file is not unmapped while the lock is held.
+   *
+   * @return The stamp to unlock with.
+   * @throws IllegalStateException If the image has been released.
+   */
+  private long lockPixels() {
+    long stamp = this.lock.readLock();
+    if (this.segments == null) {
+      this.lock.unlockRead(stamp);
+      throw new IllegalStateException("Image has been released.");
+    }
+    return stamp;
+  }
+
+  /**
+   * Returns the mapped segment that holds the given row. The caller must hold the shared lock.
+   *
+   * @param y The row.
+   * @return The segment of the row.
+   */
+  private IntBuffer segment(int y) {
+    return this.segments[y / this.rowsPerSegment];
+  }
+
+  /**
+   * Returns the position of the pixel at the specified coordinates within its segment.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @return The index of the pixel in its segment.
+   */
+  private int offset(int x, int y) {
+    return (y % this.rowsPerSegment) * this.width + x;
+  }
+
+  /**
+   * Checks that the specified coordinates are inside the image.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @throws IllegalArgumentException If the specified coordinates (x, y) are outside the image
+   *                                  dimensions.
+   */
+  private void checkBounds(int x, int y) {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("x or y outside of bounds");
+    }
+  }
+
+  /**
+   * A data buffer that reads and writes the pixels of the enclosing image in place.
+   */
+  private class MappedDataBuffer extends DataBuffer {
+
+    MappedDataBuffer() {
+      super(DataBuffer.TYPE_INT, width * height);
+    }
+
+    @Override
+    public int getElem(int bank, int i) {
+      long stamp = lockPixels();
+      try {
+        return segment(i / width).get(i - (i / width / rowsPerSegment) * rowsPerSegment * width);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    @Override
+    public void setElem(int bank, int i, int val) {
+      long stamp = lockPixels();
+      try {
+        segment(i / width).put(i - (i / width / rowsPerSegment) * rowsPerSegment * width,
+            0xFF000000 | val);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+  }
+}
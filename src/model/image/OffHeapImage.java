@@ -0,0 +1,199 @@
+package model.image;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Represents an image implementation whose pixels live outside the Java heap.
+ * It implements the IReleasableImage interface and keeps every pixel packed into one int of a
+ * direct buffer, so the garbage collector never has to scan the pixel data. The native memory
+ * is freed when the image is released, either explicitly or by the ImageArena that created it.
+ * Writes and bulk reads hold a shared lock that releasing waits for, so the memory is never freed
+ * under them, and accesses after the release throw an exception. Single-pixel reads are
+ * optimistic: they take no lock and only retry under the shared lock when a release intervened,
+ * so a caller must not release an image while another thread still reads it pixel by pixel.
+ */
+public class OffHeapImage implements IReleasableImage {
+  private final int width;
+  private final int height;
+  private final StampedLock lock;
+  private ByteBuffer buffer;
+  private IntBuffer data;
+
+  /**
+   * Constructs a new OffHeapImage object with the specified width and height.
+   *
+   * @param width  The width of the image, representing the number of columns (pixels) in the image.
+   * @param height The height of the image, representing the number of rows (pixels) in the image.
+   * @throws IllegalArgumentException If the width or height is negative, or if the image is too
+   *                                  large for a single direct buffer.
+   */
+  public OffHeapImage(int width, int height) {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("width or height is negative");
+    }
+    long bytes = 4L * width * height;
+    if (bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("image is too large for an off-heap buffer");
+    }
+    this.width = width;
+    this.height = height;
+    this.lock = new StampedLock();
+    this.buffer = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    this.data = this.buffer.asIntBuffer();
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getRedChannel(int x, int y) {
+    return (read(index(x, y)) >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreenChannel(int x, int y) {
+    return (read(index(x, y)) >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlueChannel(int x, int y) {
+    return read(index(x, y)) & 0xFF;
+  }
+
+  @Override
+  public void setPixel(int x, int y, int r, int g, int b) {
+    int index = index(x, y);
+    if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255) {
+      throw new IllegalArgumentException("Pixel values out of bounds.");
+    }
+    long stamp = lockPixels();
+    try {
+      this.data.put(index, 0xFF000000 | (r << 16) | (g << 8) | b);
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void getRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    long stamp = lockPixels();
+    try {
+      for (int row = 0; row < height; row++) {
+        this.data.get((y + row) * this.width + x, rgb, offset + row * scansize, width);
+      }
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void setRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    long stamp = lockPixels();
+    try {
+      IntBuffer pixels = this.data;
+      for (int row = 0; row < height; row++) {
+        int index = (y + row) * this.width + x;
+        int source = offset + row * scansize;
+        for (int col = 0; col < width; col++) {
+          pixels.put(index + col, 0xFF000000 | rgb[source + col]);
+        }
+      }
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void release() {
+    long stamp = this.lock.writeLock();
+    try {
+      if (this.buffer != null) {
+        ByteBuffer released = this.buffer;
+        this.buffer = null;
+        this.data = null;
+        DirectBuffers.free(released);
+      }
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public boolean isReleased() {
+    long stamp = this.lock.readLock();
+    try {
+      return this.buffer == null;
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Reads one packed pixel of this image, optimistically first, and under the shared lock if a
+   * release intervened.
+   *
+   * @param index The index of the pixel in the buffer.
+   * @return The packed pixel.
+   * @throws IllegalStateException If the image has been released.
+   */
+  private int read(int index) {
+    long stamp = this.lock.tryOptimisticRead();
+    IntBuffer pixels = this.data;
+    if (pixels != null) {
+      int pixel = pixels.get(index);
+      if (this.lock.validate(stamp)) {
+        return pixel;
+      }
+    }
+    stamp = lockPixels();
+    try {
+      return this.data.get(index);
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Takes the shared lock on the pixels of this image, which the caller must unlock once it is
+   * done with the buffer. The buffer is not freed while the lock is held.
+   *
+   * @return The stamp to unlock with.
+   * @throws IllegalStateException If the image has been released.
+   */
+  private long lockPixels() {
+    long stamp = this.lock.readLock();
+    if (this.data == null) {
+      this.lock.unlockRead(stamp);
+      throw new IllegalStateException("Image has been released.");
+    }
+    return stamp;
+  }
+
+  /**
+   * Returns the position of the pixel at the specified coordinates in the row-major buffer.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @return The index of the pixel in the buffer.
+   * @throws IllegalArgumentException If the specified coordinates (x, y) are outside the image
+   *                                  dimensions.
+   */
+  private int index(int x, int y) {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("x or y outside of bounds");
+    }
+    return y * this.width + x;
+  }
+}
@@ -0,0 +1,152 @@
+package model.image;
+
+/**
+ * Represents an image implementation that stores every pixel packed into a single int.
+ * It implements the IReleasableImage interface and keeps the pixels in one row-major int array, so
+ * setting a pixel does not allocate a new object. The array is borrowed from the shared
+ * PixelBufferPool and returned to it when the image is released.
+ */
+public class PackedImage implements IReleasableImage {
+  private final int width;
+  private final int height;
+  private int[] data;
+
+  /**
+   * Constructs a new PackedImage object with the specified width and height.
+   *
+   * @param width  The width of the image, representing the number of columns (pixels) in the image.
+   * @param height The height of the image, representing the number of rows (pixels) in the image.
+   * @throws IllegalArgumentException If the width or height is negative.
+   */
+  public PackedImage(int width, int height) {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("width or height is negative");
+    }
+    this.width = width;
+    this.height = height;
+    this.data = PixelBufferPool.getShared().acquire(Math.multiplyExact(width, height));
+  }
+
+  /**
+   * Constructs a new PackedImage object from row-major pixels packed as 0xAARRGGBB.
+   * The given array becomes the storage of the image and is not copied; the alpha of every pixel
+   * is set to opaque in place, and the array goes to the shared PixelBufferPool when the image is
+   * released.
+   *
+   * @param width  The width of the image, representing the number of columns (pixels) in the image.
+   * @param height The height of the image, representing the number of rows (pixels) in the image.
+   * @param rgb    The row-major packed pixels of the image.
+   * @throws IllegalArgumentException If the length of rgb does not match the dimensions.
+   */
+  public PackedImage(int width, int height, int[] rgb) {
+    if (width < 0 || height < 0 || rgb.length != Math.multiplyExact(width, height)) {
+      throw new IllegalArgumentException("pixel data does not match the dimensions");
+    }
+    this.width = width;
+    this.height = height;
+    this.data = rgb;
+    for (int i = 0; i < rgb.length; i++) {
+      rgb[i] |= 0xFF000000;
+    }
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getRedChannel(int x, int y) {
+    return (pixels()[index(x, y)] >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreenChannel(int x, int y) {
+    return (pixels()[index(x, y)] >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlueChannel(int x, int y) {
+    return pixels()[index(x, y)] & 0xFF;
+  }
+
+  @Override
+  public void setPixel(int x, int y, int r, int g, int b) {
+    int index = index(x, y);
+    if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255) {
+      throw new IllegalArgumentException("Pixel values out of bounds.");
+    }
+    pixels()[index] = 0xFF000000 | (r << 16) | (g << 8) | b;
+  }
+
+  @Override
+  public void getRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    int[] pixels = pixels();
+    for (int row = 0; row < height; row++) {
+      System.arraycopy(pixels, (y + row) * this.width + x, rgb, offset + row * scansize, width);
+    }
+  }
+
+  @Override
+  public void setRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    int[] pixels = pixels();
+    for (int row = 0; row < height; row++) {
+      int index = (y + row) * this.width + x;
+      int source = offset + row * scansize;
+      for (int col = 0; col < width; col++) {
+        pixels[index + col] = 0xFF000000 | rgb[source + col];
+      }
+    }
+  }
+
+  @Override
+  public synchronized void release() {
+    if (this.data != null) {
+      int[] released = this.data;
+      this.data = null;
+      PixelBufferPool.getShared().release(released);
+    }
+  }
+
+  @Override
+  public synchronized boolean isReleased() {
+    return this.data == null;
+  }
+
+  /**
+   * Returns the pixel array of this image.
+   *
+   * @return The pixel array.
+   * @throws IllegalStateException If the image has been released.
+   */
+  private int[] pixels() {
+    int[] pixels = this.data;
+    if (pixels == null) {
+      throw new IllegalStateException("Image has been released.");
+    }
+    return pixels;
+  }
+
+  /**
+   * Returns the position of the pixel at the specified coordinates in the row-major data array.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @return The index of the pixel in the data array.
+   * @throws IllegalArgumentException If the specified coordinates (x, y) are outside the image
+   *                                  dimensions.
+   */
+  private int index(int x, int y) {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("x or y outside of bounds");
+    }
+    return y * this.width + x;
+  }
+}
@@ -0,0 +1,148 @@
+package model.image;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Represents how a transformation splits the rows of an image across threads.
+ * The rows are split into bands of consecutive rows, one band per thread, which run as tasks of
+ * the common ForkJoinPool while the calling thread runs the first band itself. Each band reads
+ * whatever source rows it needs, including the halo rows of a neighbourhood filter, and writes
+ * only its own rows of the result. An image with fewer than two bands' worth of pixels stays on
+ * the calling thread, since forking would cost more than it saves.
+ */
+public final class Parallelism {
+  /**
+   * The default minimum number of pixels of a band.
+   */
+  public static final int DEFAULT_MIN_BAND_PIXELS = 1 << 16;
+
+  /**
+   * Runs every transformation on the calling thread.
+   */
+  public static final Parallelism SEQUENTIAL = new Parallelism(1);
+
+  private static volatile Parallelism defaultParallelism = new Parallelism(
+      Runtime.getRuntime().availableProcessors());
+
+  private final int threads;
+  private final int minBandPixels;
+
+  /**
+   * Constructs a new Parallelism that uses up to the given number of threads.
+   *
+   * @param threads The largest number of bands an image is split into.
+   * @throws IllegalArgumentException If threads is not positive.
+   */
+  public Parallelism(int threads) {
+    this(threads, DEFAULT_MIN_BAND_PIXELS);
+  }
+
+  /**
+   * Constructs a new Parallelism that uses up to the given number of threads, with bands of at
+   * least the given number of pixels.
+   *
+   * @param threads       The largest number of bands an image is split into.
+   * @param minBandPixels The smallest number of pixels worth giving a thread of its own.
+   * @throws IllegalArgumentException If threads or minBandPixels is not positive.
+   */
+  public Parallelism(int threads, int minBandPixels) {
+    if (threads < 1 || minBandPixels < 1) {
+      throw new IllegalArgumentException("threads and band size must be positive");
+    }
+    this.threads = threads;
+    this.minBandPixels = minBandPixels;
+  }
+
+  /**
+   * Gets the parallelism used when no parallelism is specified. It initially uses one thread
+   * per available processor.
+   *
+   * @return The default parallelism.
+   */
+  public static Parallelism getDefault() {
+    return defaultParallelism;
+  }
+
+  /**
+   * Sets the parallelism used when no parallelism is specified.
+   *
+   * @param parallelism The new default parallelism.
+   * @throws NullPointerException If the parallelism is null.
+   */
+  public static void setDefault(Parallelism parallelism) {
+    defaultParallelism = Objects.requireNonNull(parallelism);
+  }
+
+  /**
+   * Gets the largest number of bands an image is split into.
+   *
+   * @return The number of threads.
+   */
+  public int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * Gets the smallest number of pixels worth giving a thread of its own.
+   *
+   * @return The minimum number of pixels of a band.
+   */
+  public int getMinBandPixels() {
+    return this.minBandPixels;
+  }
+
+  /**
+   * Computes the number of bands an image of the given size is split into.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @return The number of bands, at least 1 and at most the height of the image.
+   */
+  public int bands(int width, int height) {
+    long bands = Math.min((long) width * height / this.minBandPixels, this.threads);
+    return (int) Math.max(1, Math.min(bands, height));
+  }
+
+  /**
+   * Runs a task over every row of an image, split into bands of consecutive rows. The task is
+   * called once per band, possibly on several threads at once, and must only write the rows of
+   * its band. Returns once every band is done.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @param task   The task to run over each band.
+   * @throws RuntimeException If the task throws for any band.
+   */
+  public void forEachBand(int width, int height, RowTask task) {
+    int bands = bands(width, height);
+    if (bands == 1) {
+      task.run(0, height);
+      return;
+    }
+
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(bands);
+    for (int band = 0; band < bands; band++) {
+      int fromRow = (int) ((long) height * band / bands);
+      int toRow = (int) ((long) height * (band + 1) / bands);
+      tasks.add(ForkJoinTask.adapt(() -> task.run(fromRow, toRow)));
+    }
+    ForkJoinTask.invokeAll(tasks);
+  }
+
+  /**
+   * Represents the work done on one band of rows.
+   */
+  @FunctionalInterface
+  public interface RowTask {
+    /**
+     * Processes the rows of one band.
+     *
+     * @param fromRow The first row of the band.
+     * @param toRow   The row after the last row of the band.
+     */
+    void run(int fromRow, int toRow);
+  }
+}
@@ -0,0 +1,205 @@
+package model.image;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps released pixel arrays so that new images of the same size can reuse them instead of
+ * allocating new ones.
+ * Arrays are grouped by length. The pool never holds more than its memory cap; when a released
+ * array does not fit, the arrays of the least recently used lengths are dropped first. Batch jobs
+ * that process many images of the same size therefore reuse a handful of arrays instead of
+ * leaving one large array per image for the garbage collector. Only arrays the pool handed out
+ * are taken back: an array allocated elsewhere may still be used by its owner, so pooling it
+ * could lend it to a second image.
+ */
+public class PixelBufferPool {
+  private static final PixelBufferPool SHARED =
+      new PixelBufferPool(Runtime.getRuntime().maxMemory() / 4);
+
+  private final Map<Integer, ArrayDeque<int[]>> buffers;
+  private final Map<int[], Boolean> lent;
+  private long maxBytes;
+  private long pooledBytes;
+  private long hits;
+  private long misses;
+
+  /**
+   * Constructs a new, empty PixelBufferPool object.
+   *
+   * @param maxBytes The largest number of bytes the pool may hold.
+   * @throws IllegalArgumentException If maxBytes is negative.
+   */
+  public PixelBufferPool(long maxBytes) {
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("maximum size is negative");
+    }
+    this.buffers = new LinkedHashMap<Integer, ArrayDeque<int[]>>(16, 0.75f, true);
+    this.lent = new WeakHashMap<int[], Boolean>();
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Gets the pool used by packed images. Its cap starts at a quarter of the maximum heap size.
+   *
+   * @return The shared pool.
+   */
+  public static PixelBufferPool getShared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns an array of the given length filled with zeros, reusing a pooled array if one is
+   * available.
+   *
+   * @param length The length of the array.
+   * @return An array of the given length that the caller owns until it is released.
+   * @throws IllegalArgumentException If the length is negative.
+   */
+  public int[] acquire(int length) {
+    if (length < 0) {
+      throw new IllegalArgumentException("length is negative");
+    }
+    int[] buffer = null;
+    synchronized (this) {
+      ArrayDeque<int[]> pooled = this.buffers.get(length);
+      if (pooled != null) {
+        buffer = pooled.poll();
+        if (pooled.isEmpty()) {
+          this.buffers.remove(length);
+        }
+      }
+      if (buffer == null) {
+        this.misses++;
+      } else {
+        this.hits++;
+        this.pooledBytes -= bytes(buffer);
+      }
+    }
+
+    if (buffer == null) {
+      buffer = new int[length];
+    } else {
+      Arrays.fill(buffer, 0);
+    }
+    synchronized (this) {
+      this.lent.put(buffer, Boolean.TRUE);
+    }
+    return buffer;
+  }
+
+  /**
+   * Returns an array to the pool. The caller must not use the array afterwards.
+   * An array that this pool did not hand out, or that was already returned, is ignored. If the
+   * array does not fit under the cap, even after dropping the arrays of other lengths, it is left
+   * to the garbage collector.
+   *
+   * @param buffer The array to return.
+   * @throws NullPointerException If the buffer is null.
+   */
+  public synchronized void release(int[] buffer) {
+    long size = bytes(buffer);
+    if (this.lent.remove(buffer) == null) {
+      return;
+    }
+    if (size > this.maxBytes) {
+      return;
+    }
+    trim(this.maxBytes - size);
+    this.buffers.computeIfAbsent(buffer.length, length -> new ArrayDeque<int[]>()).push(buffer);
+    this.pooledBytes += size;
+  }
+
+  /**
+   * Gets the largest number of bytes the pool may hold.
+   *
+   * @return The memory cap of the pool in bytes.
+   */
+  public synchronized long getMaxBytes() {
+    return this.maxBytes;
+  }
+
+  /**
+   * Sets the largest number of bytes the pool may hold, dropping pooled arrays if needed.
+   *
+   * @param maxBytes The new memory cap in bytes, or 0 to disable pooling.
+   * @throws IllegalArgumentException If maxBytes is negative.
+   */
+  public synchronized void setMaxBytes(long maxBytes) {
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("maximum size is negative");
+    }
+    this.maxBytes = maxBytes;
+    trim(maxBytes);
+  }
+
+  /**
+   * Gets the number of bytes held by the pool.
+   *
+   * @return The size of all pooled arrays in bytes.
+   */
+  public synchronized long getPooledBytes() {
+    return this.pooledBytes;
+  }
+
+  /**
+   * Gets the number of acquisitions that reused a pooled array.
+   *
+   * @return The number of hits.
+   */
+  public synchronized long getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Gets the number of acquisitions that had to allocate a new array.
+   *
+   * @return The number of misses.
+   */
+  public synchronized long getMisses() {
+    return this.misses;
+  }
+
+  /**
+   * Drops every pooled array and resets the hit and miss counters.
+   */
+  public synchronized void clear() {
+    this.buffers.clear();
+    this.pooledBytes = 0;
+    this.hits = 0;
+    this.misses = 0;
+  }
+
+  /**
+   * Drops pooled arrays, least recently used lengths first, until the pool holds at most the
+   * given number of bytes.
+   *
+   * @param limit The number of bytes the pool may keep.
+   */
+  private void trim(long limit) {
+    Iterator<ArrayDeque<int[]>> iterator = this.buffers.values().iterator();
+    while (this.pooledBytes > limit && iterator.hasNext()) {
+      ArrayDeque<int[]> pooled = iterator.next();
+      while (this.pooledBytes > limit && !pooled.isEmpty()) {
+        this.pooledBytes -= bytes(pooled.removeLast());
+      }
+      if (pooled.isEmpty()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Returns the size of an array in bytes.
+   *
+   * @param buffer The array.
+   * @return The number of bytes of its elements.
+   */
+  private static long bytes(int[] buffer) {
+    return 4L * buffer.length;
+  }
+}
@@ -0,0 +1,163 @@
+package model.image;
+
+/**
+ * Represents an image implementation that stores each color channel in its own plane.
+ * It implements the IImage interface and keeps the red, green and blue values in three
+ * contiguous row-major byte arrays, so a pass over a single channel reads one byte per sample.
+ */
+public class PlanarImage implements IImage {
+  private final int width;
+  private final int height;
+  private final byte[] red;
+  private final byte[] green;
+  private final byte[] blue;
+
+  /**
+   * Constructs a new PlanarImage object with the specified width and height.
+   *
+   * @param width  The width of the image, representing the number of columns (pixels) in the image.
+   * @param height The height of the image, representing the number of rows (pixels) in the image.
+   * @throws IllegalArgumentException If the width or height is negative.
+   */
+  public PlanarImage(int width, int height) {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("width or height is negative");
+    }
+    int size = Math.multiplyExact(width, height);
+    this.width = width;
+    this.height = height;
+    this.red = new byte[size];
+    this.green = new byte[size];
+    this.blue = new byte[size];
+  }
+
+  /**
+   * Constructs a new PlanarImage object from interleaved pixels packed as 0xAARRGGBB.
+   * The pixels are split into the three planes in a single pass.
+   *
+   * @param width  The width of the image, representing the number of columns (pixels) in the image.
+   * @param height The height of the image, representing the number of rows (pixels) in the image.
+   * @param rgb    The row-major packed pixels of the image.
+   * @throws IllegalArgumentException If the length of rgb does not match the dimensions.
+   */
+  public PlanarImage(int width, int height, int[] rgb) {
+    this(width, height);
+    if (rgb.length != this.red.length) {
+      throw new IllegalArgumentException("pixel data does not match the dimensions");
+    }
+    setRGB(0, 0, width, height, rgb, 0, width);
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getRedChannel(int x, int y) {
+    return this.red[index(x, y)] & 0xFF;
+  }
+
+  @Override
+  public int getGreenChannel(int x, int y) {
+    return this.green[index(x, y)] & 0xFF;
+  }
+
+  @Override
+  public int getBlueChannel(int x, int y) {
+    return this.blue[index(x, y)] & 0xFF;
+  }
+
+  @Override
+  public void setPixel(int x, int y, int r, int g, int b) {
+    int index = index(x, y);
+    if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255) {
+      throw new IllegalArgumentException("Pixel values out of bounds.");
+    }
+    this.red[index] = (byte) r;
+    this.green[index] = (byte) g;
+    this.blue[index] = (byte) b;
+  }
+
+  @Override
+  public void getRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    for (int row = 0; row < height; row++) {
+      int index = (y + row) * this.width + x;
+      int target = offset + row * scansize;
+      for (int col = 0; col < width; col++) {
+        rgb[target + col] = 0xFF000000 | ((this.red[index + col] & 0xFF) << 16)
+            | ((this.green[index + col] & 0xFF) << 8) | (this.blue[index + col] & 0xFF);
+      }
+    }
+  }
+
+  @Override
+  public void setRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    for (int row = 0; row < height; row++) {
+      int index = (y + row) * this.width + x;
+      int source = offset + row * scansize;
+      for (int col = 0; col < width; col++) {
+        int pixel = rgb[source + col];
+        this.red[index + col] = (byte) (pixel >> 16);
+        this.green[index + col] = (byte) (pixel >> 8);
+        this.blue[index + col] = (byte) pixel;
+      }
+    }
+  }
+
+  /**
+   * Creates a greyscale image whose three planes are copies of the given channel of this image.
+   * The copy is done plane by plane, without unpacking any pixel.
+   *
+   * @param channel The channel to copy into every plane of the new image.
+   * @return A new PlanarImage with the same dimensions as this image.
+   */
+  public PlanarImage channelAsGreyscale(Channel channel) {
+    byte[] plane = plane(channel);
+    PlanarImage result = new PlanarImage(this.width, this.height);
+    System.arraycopy(plane, 0, result.red, 0, plane.length);
+    System.arraycopy(plane, 0, result.green, 0, plane.length);
+    System.arraycopy(plane, 0, result.blue, 0, plane.length);
+    return result;
+  }
+
+  /**
+   * Returns the plane that stores the given channel.
+   *
+   * @param channel The channel of the plane.
+   * @return The plane of the channel.
+   */
+  private byte[] plane(Channel channel) {
+    switch (channel) {
+      case RED:
+        return this.red;
+      case GREEN:
+        return this.green;
+      default:
+        return this.blue;
+    }
+  }
+
+  /**
+   * Returns the position of the pixel at the specified coordinates in the row-major planes.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @return The index of the pixel in each plane.
+   * @throws IllegalArgumentException If the specified coordinates (x, y) are outside the image
+   *                                  dimensions.
+   */
+  private int index(int x, int y) {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("x or y outside of bounds");
+    }
+    return y * this.width + x;
+  }
+}
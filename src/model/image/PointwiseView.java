@@ -0,0 +1,125 @@
+package model.image;
+
+import java.util.Objects;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Represents a read-only image whose pixels are computed from the pixels of another image when
+ * they are read.
+ * It implements the IDerivedImageState interface. Every pixel of the view is a function of the
+ * pixel at the same position in the source image, so the view stores no pixels of its own. A view
+ * recomputes its pixels on every read; call materialize() to get a stable copy that no longer
+ * depends on the source image.
+ */
+public class PointwiseView implements IDerivedImageState {
+  private final IImageState source;
+  private final IntUnaryOperator function;
+
+  /**
+   * Constructs a new PointwiseView object over the given source image.
+   *
+   * @param source   The image to read, which must not be modified while this view is in use.
+   * @param function The function from a source pixel to a pixel of this view, both packed as
+   *                 0xAARRGGBB. The alpha of the result is ignored.
+   * @throws NullPointerException If the source or function is null.
+   */
+  public PointwiseView(IImageState source, IntUnaryOperator function) {
+    this.source = Objects.requireNonNull(source);
+    this.function = Objects.requireNonNull(function);
+  }
+
+  @Override
+  public IImageState getSource() {
+    return this.source;
+  }
+
+  /**
+   * Gets the function this view applies to every pixel of its source image.
+   *
+   * @return The pixel function.
+   */
+  public IntUnaryOperator getFunction() {
+    return this.function;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.source.getHeight();
+  }
+
+  @Override
+  public int getWidth() {
+    return this.source.getWidth();
+  }
+
+  @Override
+  public int getRedChannel(int x, int y) {
+    return (get(x, y) >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreenChannel(int x, int y) {
+    return (get(x, y) >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlueChannel(int x, int y) {
+    return get(x, y) & 0xFF;
+  }
+
+  @Override
+  public void getRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    this.source.getRGB(x, y, width, height, rgb, offset, scansize);
+    for (int row = 0; row < height; row++) {
+      int index = offset + row * scansize;
+      for (int col = 0; col < width; col++) {
+        rgb[index + col] = 0xFF000000 | this.function.applyAsInt(rgb[index + col]);
+      }
+    }
+  }
+
+  /**
+   * Computes every pixel of this view into a new image of the default storage.
+   *
+   * @return A new image with the same pixels as this view.
+   */
+  public IImage materialize() {
+    return materialize(ImageStorage.getDefault());
+  }
+
+  /**
+   * Computes every pixel of this view into a new image of the given storage, splitting the
+   * rows across threads as the default parallelism allows.
+   *
+   * @param storage The storage of the new image.
+   * @return A new image with the same pixels as this view.
+   * @throws NullPointerException If the storage is null.
+   */
+  public IImage materialize(ImageStorage storage) {
+    int width = getWidth();
+    int height = getHeight();
+    IImage image = storage.create(width, height);
+
+    Parallelism.getDefault().forEachBand(width, height, (fromRow, toRow) -> {
+      int[] pixels = new int[width];
+      for (int row = fromRow; row < toRow; row++) {
+        getRGB(0, row, width, 1, pixels, 0, width);
+        image.setRGB(0, row, width, 1, pixels, 0, width);
+      }
+    });
+    return image;
+  }
+
+  /**
+   * Computes the packed value of the pixel at the specified coordinates.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @return The packed pixel.
+   */
+  private int get(int x, int y) {
+    int rgb = (this.source.getRedChannel(x, y) << 16) | (this.source.getGreenChannel(x, y) << 8)
+        | this.source.getBlueChannel(x, y);
+    return this.function.applyAsInt(rgb);
+  }
+}
@@ -0,0 +1,153 @@
+package model.image;
+
+import java.util.Objects;
+
+/**
+ * Represents the part of an image that a transformation is restricted to: either a rectangle, or
+ * the pixels selected by a mask image together with the rectangle that bounds them.
+ * A region may extend past the image it is applied to; only the part inside the image is used.
+ */
+public final class Region {
+  private final int x;
+  private final int y;
+  private final int width;
+  private final int height;
+  private final boolean[] selected;
+
+  /**
+   * Constructs a new rectangular Region.
+   *
+   * @param x      The x-coordinate of the top left pixel of the rectangle.
+   * @param y      The y-coordinate of the top left pixel of the rectangle.
+   * @param width  The width of the rectangle.
+   * @param height The height of the rectangle.
+   * @throws IllegalArgumentException If the width or height is negative.
+   */
+  public Region(int x, int y, int width, int height) {
+    this(x, y, width, height, null);
+  }
+
+  /**
+   * Constructs a new Region from its bounds and the selected pixels inside them.
+   *
+   * @param x        The x-coordinate of the top left pixel of the bounds.
+   * @param y        The y-coordinate of the top left pixel of the bounds.
+   * @param width    The width of the bounds.
+   * @param height   The height of the bounds.
+   * @param selected Whether each pixel of the bounds is selected, row by row, or null if all are.
+   * @throws IllegalArgumentException If the width or height is negative.
+   */
+  private Region(int x, int y, int width, int height, boolean[] selected) {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("region size must not be negative");
+    }
+    this.x = x;
+    this.y = y;
+    this.width = width;
+    this.height = height;
+    this.selected = selected;
+  }
+
+  /**
+   * Creates a Region that selects the pixels of a mask image that are not black.
+   *
+   * @param mask The mask, whose pixels correspond to those of the image it is applied to.
+   * @return The region of the pixels with any channel above 0.
+   * @throws NullPointerException If the mask is null.
+   */
+  public static Region ofMask(IImageState mask) {
+    Objects.requireNonNull(mask);
+    int maskWidth = mask.getWidth();
+    int maskHeight = mask.getHeight();
+    int[] pixels = new int[maskWidth];
+    boolean[] selected = new boolean[maskWidth * maskHeight];
+    int left = maskWidth;
+    int top = maskHeight;
+    int right = -1;
+    int bottom = -1;
+    for (int row = 0; row < maskHeight; row++) {
+      mask.getRGB(0, row, maskWidth, 1, pixels, 0, maskWidth);
+      for (int col = 0; col < maskWidth; col++) {
+        if ((pixels[col] & 0xFFFFFF) != 0) {
+          selected[row * maskWidth + col] = true;
+          left = Math.min(left, col);
+          right = Math.max(right, col);
+          top = Math.min(top, row);
+          bottom = row;
+        }
+      }
+    }
+    if (right < 0) {
+      return new Region(0, 0, 0, 0);
+    }
+
+    int width = right - left + 1;
+    int height = bottom - top + 1;
+    boolean[] bounded = new boolean[width * height];
+    for (int row = 0; row < height; row++) {
+      System.arraycopy(selected, (top + row) * maskWidth + left, bounded, row * width, width);
+    }
+    return new Region(left, top, width, height, bounded);
+  }
+
+  /**
+   * Gets the x-coordinate of the top left pixel of the bounds of this region.
+   *
+   * @return The x-coordinate, which may lie outside the image.
+   */
+  public int getX() {
+    return this.x;
+  }
+
+  /**
+   * Gets the y-coordinate of the top left pixel of the bounds of this region.
+   *
+   * @return The y-coordinate, which may lie outside the image.
+   */
+  public int getY() {
+    return this.y;
+  }
+
+  /**
+   * Gets the width of the bounds of this region.
+   *
+   * @return The width in pixels.
+   */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * Gets the height of the bounds of this region.
+   *
+   * @return The height in pixels.
+   */
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Checks whether this region selects every pixel of its bounds.
+   *
+   * @return True for a rectangle, false for a mask.
+   */
+  public boolean isRectangle() {
+    return this.selected == null;
+  }
+
+  /**
+   * Checks whether this region selects a pixel.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @return True if the pixel is inside the bounds and selected, false otherwise.
+   */
+  public boolean contains(int x, int y) {
+    long col = (long) x - this.x;
+    long row = (long) y - this.y;
+    if (col < 0 || row < 0 || col >= this.width || row >= this.height) {
+      return false;
+    }
+    return this.selected == null || this.selected[(int) (row * this.width + col)];
+  }
+}
@@ -0,0 +1,27 @@
+package model.image;
+
+/**
+ * Provides the bounds check shared by the bulk pixel accessors.
+ */
+final class Regions {
+
+  private Regions() {
+  }
+
+  /**
+   * Checks that a rectangle lies inside the image.
+   *
+   * @param image  The image.
+   * @param x      The x-coordinate of the top left pixel of the rectangle.
+   * @param y      The y-coordinate of the top left pixel of the rectangle.
+   * @param width  The width of the rectangle.
+   * @param height The height of the rectangle.
+   * @throws IllegalArgumentException If the rectangle is not inside the image dimensions.
+   */
+  static void checkRegion(IImageState image, int x, int y, int width, int height) {
+    if (x < 0 || y < 0 || width < 0 || height < 0 || x > image.getWidth() - width
+        || y > image.getHeight() - height) {
+      throw new IllegalArgumentException("region outside of bounds");
+    }
+  }
+}
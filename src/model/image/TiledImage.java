@@ -0,0 +1,288 @@
+package model.image;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents an image implementation that splits the pixels into fixed-size square tiles.
+ * It implements the IImage and ITiledImageState interfaces and stores each tile as its own
+ * packed int array. A tile is only allocated, or computed by the tile source of the image, the
+ * first time it is accessed; tiles that are never read or written cost no memory.
+ */
+public class TiledImage implements IImage, ITiledImageState {
+  /**
+   * The tile size used when none is specified.
+   */
+  public static final int DEFAULT_TILE_SIZE = 256;
+
+  private final int width;
+  private final int height;
+  private final int tileSize;
+  private final int tilesAcross;
+  private final int tilesDown;
+  private final ITileSource source;
+  private final AtomicReferenceArray<int[]> tiles;
+
+  /**
+   * Constructs a new TiledImage object with the specified width and height and the default tile
+   * size. Every pixel is black until it is set.
+   *
+   * @param width  The width of the image, representing the number of columns (pixels) in the image.
+   * @param height The height of the image, representing the number of rows (pixels) in the image.
+   * @throws IllegalArgumentException If the width or height is negative.
+   */
+  public TiledImage(int width, int height) {
+    this(width, height, DEFAULT_TILE_SIZE, null);
+  }
+
+  /**
+   * Constructs a new TiledImage object with the specified width, height and tile size. Every
+   * pixel is black until it is set.
+   *
+   * @param width    The width of the image, representing the number of columns (pixels) in the
+   *                 image.
+   * @param height   The height of the image, representing the number of rows (pixels) in the
+   *                 image.
+   * @param tileSize The width and height of every tile.
+   * @throws IllegalArgumentException If the width or height is negative, or the tile size is not
+   *                                  positive.
+   */
+  public TiledImage(int width, int height, int tileSize) {
+    this(width, height, tileSize, null);
+  }
+
+  /**
+   * Constructs a new TiledImage object whose tiles are computed by the given source the first
+   * time they are accessed.
+   *
+   * @param width    The width of the image, representing the number of columns (pixels) in the
+   *                 image.
+   * @param height   The height of the image, representing the number of rows (pixels) in the
+   *                 image.
+   * @param tileSize The width and height of every tile.
+   * @param source   The source that computes each tile, or null for black tiles.
+   * @throws IllegalArgumentException If the width or height is negative, or the tile size is not
+   *                                  positive.
+   */
+  public TiledImage(int width, int height, int tileSize, ITileSource source) {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("width or height is negative");
+    }
+    if (tileSize <= 0) {
+      throw new IllegalArgumentException("tile size must be positive");
+    }
+    this.width = width;
+    this.height = height;
+    this.tileSize = tileSize;
+    this.tilesAcross = (width + tileSize - 1) / tileSize;
+    this.tilesDown = (height + tileSize - 1) / tileSize;
+    this.source = source;
+    this.tiles = new AtomicReferenceArray<int[]>(Math.multiplyExact(this.tilesAcross,
+        this.tilesDown));
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getRedChannel(int x, int y) {
+    return (get(x, y) >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreenChannel(int x, int y) {
+    return (get(x, y) >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlueChannel(int x, int y) {
+    return get(x, y) & 0xFF;
+  }
+
+  @Override
+  public void setPixel(int x, int y, int r, int g, int b) {
+    checkBounds(x, y);
+    if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255) {
+      throw new IllegalArgumentException("Pixel values out of bounds.");
+    }
+    int[] tile = tile(x / this.tileSize, y / this.tileSize);
+    tile[(y % this.tileSize) * this.tileSize + x % this.tileSize] =
+        0xFF000000 | (r << 16) | (g << 8) | b;
+  }
+
+  @Override
+  public int getTileWidth() {
+    return this.tileSize;
+  }
+
+  @Override
+  public int getTileHeight() {
+    return this.tileSize;
+  }
+
+  @Override
+  public int getTilesAcross() {
+    return this.tilesAcross;
+  }
+
+  @Override
+  public int getTilesDown() {
+    return this.tilesDown;
+  }
+
+  @Override
+  public void readTile(int tileX, int tileY, int[] tile) {
+    if (tileX < 0 || tileX >= this.tilesAcross || tileY < 0 || tileY >= this.tilesDown) {
+      throw new IllegalArgumentException("tile outside of bounds");
+    }
+    int[] stored = storedTile(tileX, tileY);
+    if (stored == null) {
+      Arrays.fill(tile, 0, this.tileSize * this.tileSize, 0xFF000000);
+    } else {
+      System.arraycopy(stored, 0, tile, 0, stored.length);
+    }
+  }
+
+  /**
+   * Checks whether the given tile has been allocated or computed yet.
+   *
+   * @param tileX The column of the tile.
+   * @param tileY The row of the tile.
+   * @return True if the tile holds pixels, false if it has never been accessed.
+   */
+  public boolean isTileMaterialized(int tileX, int tileY) {
+    return this.tiles.get(tileY * this.tilesAcross + tileX) != null;
+  }
+
+  @Override
+  public void getRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    for (int row = y; row < y + height; row++) {
+      int tileY = row / this.tileSize;
+      int tileRow = (row % this.tileSize) * this.tileSize;
+      int col = x;
+      while (col < x + width) {
+        int tileX = col / this.tileSize;
+        int tileCol = col % this.tileSize;
+        int columns = Math.min(this.tileSize - tileCol, x + width - col);
+        int target = offset + (row - y) * scansize + (col - x);
+        int[] tile = storedTile(tileX, tileY);
+        if (tile == null) {
+          Arrays.fill(rgb, target, target + columns, 0xFF000000);
+        } else {
+          System.arraycopy(tile, tileRow + tileCol, rgb, target, columns);
+        }
+        col += columns;
+      }
+    }
+  }
+
+  @Override
+  public void setRGB(int x, int y, int width, int height, int[] rgb, int offset, int scansize) {
+    Regions.checkRegion(this, x, y, width, height);
+    for (int row = y; row < y + height; row++) {
+      int tileY = row / this.tileSize;
+      int tileRow = (row % this.tileSize) * this.tileSize;
+      int col = x;
+      while (col < x + width) {
+        int tileX = col / this.tileSize;
+        int tileCol = col % this.tileSize;
+        int columns = Math.min(this.tileSize - tileCol, x + width - col);
+        int source = offset + (row - y) * scansize + (col - x);
+        int[] tile = tile(tileX, tileY);
+        for (int i = 0; i < columns; i++) {
+          tile[tileRow + tileCol + i] = 0xFF000000 | rgb[source + i];
+        }
+        col += columns;
+      }
+    }
+  }
+
+  /**
+   * Returns the packed value of the pixel at the specified coordinates.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @return The packed pixel.
+   */
+  private int get(int x, int y) {
+    checkBounds(x, y);
+    int[] tile = storedTile(x / this.tileSize, y / this.tileSize);
+    if (tile == null) {
+      return 0xFF000000;
+    }
+    return tile[(y % this.tileSize) * this.tileSize + x % this.tileSize];
+  }
+
+  /**
+   * Returns the stored pixels of a tile for reading, computing them first if the image has a
+   * tile source. A tile that has never been written and has no source is not allocated.
+   *
+   * @param tileX The column of the tile.
+   * @param tileY The row of the tile.
+   * @return The pixels of the tile, or null if the tile is black and not allocated.
+   */
+  private int[] storedTile(int tileX, int tileY) {
+    int[] tile = this.tiles.get(tileY * this.tilesAcross + tileX);
+    if (tile == null && this.source != null) {
+      tile = tile(tileX, tileY);
+    }
+    return tile;
+  }
+
+  /**
+   * Returns the pixels of a tile for writing, allocating or computing them on first access.
+   * Computed pixels are made opaque whatever alpha the source gave them. When several threads
+   * reach a missing tile at once, the first tile to be stored wins.
+   *
+   * @param tileX The column of the tile.
+   * @param tileY The row of the tile.
+   * @return The pixels of the tile.
+   */
+  private int[] tile(int tileX, int tileY) {
+    int index = tileY * this.tilesAcross + tileX;
+    int[] tile = this.tiles.get(index);
+    if (tile != null) {
+      return tile;
+    }
+
+    tile = new int[this.tileSize * this.tileSize];
+    int x0 = tileX * this.tileSize;
+    int y0 = tileY * this.tileSize;
+    if (this.source != null) {
+      this.source.computeTile(x0, y0, Math.min(this.tileSize, this.width - x0),
+          Math.min(this.tileSize, this.height - y0), tile, this.tileSize);
+      for (int i = 0; i < tile.length; i++) {
+        tile[i] |= 0xFF000000;
+      }
+    } else {
+      Arrays.fill(tile, 0xFF000000);
+    }
+
+    if (this.tiles.compareAndSet(index, null, tile)) {
+      return tile;
+    }
+    return this.tiles.get(index);
+  }
+
+  /**
+   * Checks that the specified coordinates are inside the image.
+   *
+   * @param x The x-coordinate of the pixel.
+   * @param y The y-coordinate of the pixel.
+   * @throws IllegalArgumentException If the specified coordinates (x, y) are outside the image
+   *                                  dimensions.
+   */
+  private void checkBounds(int x, int y) {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("x or y outside of bounds");
+    }
+  }
+}
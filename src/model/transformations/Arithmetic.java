@@ -0,0 +1,37 @@
+package model.transformations;
+
+/**
+ * Represents the arithmetic used by the weighted sums of color matrices and convolutions.
+ */
+public enum Arithmetic {
+  /**
+   * Weights and sums are doubles, and every sum is truncated to an integer at the end.
+   */
+  DOUBLE,
+
+  /**
+   * Weights are rounded to 16.16 fixed-point integers once, and every sum is an integer
+   * multiply-accumulate followed by a shift, which is cheaper than the double path.
+   * Rounding a weight changes it by at most 2^-17, so a sum of n channel values differs from the
+   * double sum by at most n * 255 * 2^-17. While that bound stays below 1, which holds for up to
+   * 513 weights per sum, each channel of the result differs from the double path by at most 1.
+   * Weights that are multiples of 2^-16, such as those of blur and sharpen, are represented
+   * exactly and give the same result as the double path.
+   */
+  FIXED_POINT;
+
+  /**
+   * The number of fraction bits of a fixed-point weight.
+   */
+  public static final int FRACTION_BITS = 16;
+
+  /**
+   * Rounds a weight to a fixed-point integer with FRACTION_BITS fraction bits.
+   *
+   * @param weight The weight.
+   * @return The fixed-point weight.
+   */
+  public static long toFixedPoint(double weight) {
+    return Math.round(weight * (1 << FRACTION_BITS));
+  }
+}
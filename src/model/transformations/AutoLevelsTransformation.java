@@ -0,0 +1,78 @@
+package model.transformations;
+
+import model.image.Channel;
+import model.image.Histogram;
+import model.image.IImageState;
+
+/**
+ * Extends the LookupTableTransformation class.
+ * Stretches every channel between the darkest and the brightest value it uses, as a levels
+ * transformation whose black and white points are read from the histogram of the channel. A
+ * small fraction of the pixels at each end may be clipped, so that a few outliers do not hold
+ * back the stretch. A channel with a single value left after clipping is left unchanged.
+ */
+public class AutoLevelsTransformation extends LookupTableTransformation {
+  /**
+   * The fraction of the pixels clipped at each end when none is specified.
+   */
+  public static final double DEFAULT_CLIP = 0.001;
+
+  /**
+   * Constructs a new AutoLevelsTransformation for the given image, clipping the default fraction
+   * of the pixels at each end.
+   *
+   * @param image The image whose histograms the tables are built from.
+   * @throws NullPointerException If the image is null.
+   */
+  public AutoLevelsTransformation(IImageState image) {
+    this(new Histogram(image), DEFAULT_CLIP);
+  }
+
+  /**
+   * Constructs a new AutoLevelsTransformation from the histograms of an image.
+   *
+   * @param histogram The histograms of the image to stretch.
+   * @param clip      The fraction of the pixels clipped at each end of every channel.
+   * @throws IllegalArgumentException If the clip is not in [0, 0.5).
+   * @throws NullPointerException     If the histogram is null.
+   */
+  public AutoLevelsTransformation(Histogram histogram, double clip) {
+    super(stretched(histogram.getCounts(Channel.RED), histogram.getPixelCount(), clip),
+        stretched(histogram.getCounts(Channel.GREEN), histogram.getPixelCount(), clip),
+        stretched(histogram.getCounts(Channel.BLUE), histogram.getPixelCount(), clip));
+  }
+
+  /**
+   * Builds the table that stretches one channel.
+   *
+   * @param counts The histogram of the channel.
+   * @param total  The number of pixels counted.
+   * @param clip   The fraction of the pixels clipped at each end.
+   * @return The table of the channel.
+   * @throws IllegalArgumentException If the clip is not in [0, 0.5).
+   */
+  private static int[] stretched(long[] counts, long total, double clip) {
+    if (!(clip >= 0 && clip < 0.5)) {
+      throw new IllegalArgumentException("clip must be in [0, 0.5)");
+    }
+    long clipped = (long) (clip * total);
+
+    int black = 0;
+    long below = counts[0];
+    while (black < counts.length - 1 && below <= clipped) {
+      black++;
+      below += counts[black];
+    }
+    int white = counts.length - 1;
+    long above = counts[white];
+    while (white > 0 && above <= clipped) {
+      white--;
+      above += counts[white];
+    }
+
+    if (black >= white) {
+      return tableOf(value -> value);
+    }
+    return new LevelsTransformation(black, white).getTable(Channel.RED);
+  }
+}
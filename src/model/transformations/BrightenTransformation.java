@@ -1,13 +1,15 @@
 package model.transformations;
 
+import model.image.CopyOnWriteImage;
 import model.image.IImage;
 import model.image.IImageState;
-import model.image.ImageImpl;
+import model.image.Parallelism;
 
 /**
- * Implements the ITransformation interface.
+ * Extends the LookupTableTransformation class.
+ * Every channel is increased by the same value and clamped to [0, 255].
  */
-public class BrightenTransformation implements ITransformation {
+public class BrightenTransformation extends LookupTableTransformation {
   private final int brightenValue;
 
   /**
@@ -16,37 +18,27 @@ public class BrightenTransformation implements ITransformation {
    * @param brightenValue The value by which to increase the intensity of each color component.
    */
   public BrightenTransformation(int brightenValue) {
+    super(tableOf(value -> value + brightenValue));
     this.brightenValue = brightenValue;
   }
 
-  /**
-   * Clamps the given value to the range of [0, 255].
-   *
-   * @param value The value to be clamped.
-   * @return The clamped value, ensuring it lies within the range [0, 255].
-   */
-  private int clamp(int value) {
-    if (value < 0) {
-      return 0;
-    }
-    if (value > 255) {
-      return 255;
+  @Override
+  public IImageState run(IImageState sourceImage, Parallelism parallelism) {
+    if (brightenValue == 0) {
+      return new CopyOnWriteImage(sourceImage);
     }
-    return value;
+    return super.run(sourceImage, parallelism);
   }
 
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col++) {
-        int newR = clamp(sourceImage.getRedChannel(col, row) + brightenValue);
-        int newG = clamp(sourceImage.getGreenChannel(col, row) + brightenValue);
-        int newB = clamp(sourceImage.getBlueChannel(col, row) + brightenValue);
-        newImage.setPixel(col, row, newR, newG, newB);
-      }
+  public void runInPlace(IImage image, Parallelism parallelism) {
+    if (brightenValue != 0) {
+      super.runInPlace(image, parallelism);
     }
-    return newImage;
+  }
+
+  @Override
+  protected int applyVectorized(int[] pixels, int length) {
+    return VectorKernels.brighten(pixels, length, brightenValue);
   }
 }
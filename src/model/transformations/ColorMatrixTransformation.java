@@ -0,0 +1,224 @@
+package model.transformations;
+
+import java.util.Objects;
+
+/**
+ * Represents a transformation that maps the red, green and blue channels of every pixel through a
+ * 3x3 matrix followed by an offset vector.
+ * Each new channel is the sum of the old channels weighted by one row of the matrix, plus the
+ * offset of that channel, truncated to an integer and clamped to [0, 255]. Sepia, greyscale, the
+ * single channel components and brighten are all presets of this transformation. Two color
+ * matrices can be combined with then into a single matrix, so a chain of color operations costs
+ * one multiplication per channel and pixel. The sums use double or fixed-point arithmetic.
+ */
+public class ColorMatrixTransformation extends PointwiseTransformation {
+  private final double[][] matrix;
+  private final double[] offset;
+  private final Arithmetic arithmetic;
+  private final int[] fixedMatrix;
+  private final int[] fixedOffset;
+
+  /**
+   * Constructs a new ColorMatrixTransformation with the specified matrix and no offset.
+   *
+   * @param matrix The 3x3 matrix, one row for each of the new red, green and blue channels.
+   * @throws IllegalArgumentException If the matrix is not 3x3.
+   */
+  public ColorMatrixTransformation(double[][] matrix) {
+    this(matrix, new double[3]);
+  }
+
+  /**
+   * Constructs a new ColorMatrixTransformation with the specified matrix and offset vector.
+   *
+   * @param matrix The 3x3 matrix, one row for each of the new red, green and blue channels.
+   * @param offset The values added to the new red, green and blue channels.
+   * @throws IllegalArgumentException If the matrix is not 3x3 or the offset does not have three
+   *                                  values.
+   */
+  public ColorMatrixTransformation(double[][] matrix, double[] offset) {
+    this(matrix, offset, Arithmetic.DOUBLE);
+  }
+
+  /**
+   * Constructs a new ColorMatrixTransformation with the specified matrix, offset vector and
+   * arithmetic.
+   *
+   * @param matrix     The 3x3 matrix, one row for each of the new red, green and blue channels.
+   * @param offset     The values added to the new red, green and blue channels.
+   * @param arithmetic The arithmetic of the sums.
+   * @throws IllegalArgumentException If the matrix is not 3x3 or the offset does not have three
+   *                                  values, or if a fixed-point sum could overflow.
+   * @throws NullPointerException     If the arithmetic is null.
+   */
+  public ColorMatrixTransformation(double[][] matrix, double[] offset, Arithmetic arithmetic) {
+    this.arithmetic = Objects.requireNonNull(arithmetic);
+    if (matrix == null || matrix.length != 3 || offset == null || offset.length != 3) {
+      throw new IllegalArgumentException("color matrix must be 3x3 with 3 offsets");
+    }
+    this.matrix = new double[3][];
+    for (int row = 0; row < 3; row++) {
+      if (matrix[row] == null || matrix[row].length != 3) {
+        throw new IllegalArgumentException("color matrix must be 3x3 with 3 offsets");
+      }
+      this.matrix[row] = matrix[row].clone();
+    }
+    this.offset = offset.clone();
+
+    if (arithmetic == Arithmetic.FIXED_POINT) {
+      this.fixedMatrix = new int[9];
+      this.fixedOffset = new int[3];
+      for (int row = 0; row < 3; row++) {
+        long bound = Math.abs(Arithmetic.toFixedPoint(this.offset[row]));
+        this.fixedOffset[row] = (int) Arithmetic.toFixedPoint(this.offset[row]);
+        for (int col = 0; col < 3; col++) {
+          long weight = Arithmetic.toFixedPoint(this.matrix[row][col]);
+          bound += Math.abs(weight) * 255;
+          this.fixedMatrix[3 * row + col] = (int) weight;
+        }
+        if (bound > Integer.MAX_VALUE) {
+          throw new IllegalArgumentException("color matrix too large for fixed-point arithmetic");
+        }
+      }
+    } else {
+      this.fixedMatrix = null;
+      this.fixedOffset = null;
+    }
+  }
+
+  /**
+   * Clamps the given value to the range of [0, 255].
+   *
+   * @param value The value to be clamped.
+   * @return The clamped value, ensuring it lies within the range [0, 255].
+   */
+  private int clamp(int value) {
+    if (value < 0) {
+      return 0;
+    }
+    if (value > 255) {
+      return 255;
+    }
+    return value;
+  }
+
+  @Override
+  public int apply(int rgb) {
+    int red = (rgb >> 16) & 0xFF;
+    int green = (rgb >> 8) & 0xFF;
+    int blue = rgb & 0xFF;
+    if (this.fixedMatrix != null) {
+      int[] fixed = this.fixedMatrix;
+      int redSum = fixed[0] * red + fixed[1] * green + fixed[2] * blue + fixedOffset[0];
+      int greenSum = fixed[3] * red + fixed[4] * green + fixed[5] * blue + fixedOffset[1];
+      int blueSum = fixed[6] * red + fixed[7] * green + fixed[8] * blue + fixedOffset[2];
+      int newR = clamp(redSum >> Arithmetic.FRACTION_BITS);
+      int newG = clamp(greenSum >> Arithmetic.FRACTION_BITS);
+      int newB = clamp(blueSum >> Arithmetic.FRACTION_BITS);
+      return (newR << 16) | (newG << 8) | newB;
+    }
+    double redSum = (matrix[0][0] * red) + (matrix[0][1] * green) + (matrix[0][2] * blue)
+        + offset[0];
+    double greenSum = (matrix[1][0] * red) + (matrix[1][1] * green) + (matrix[1][2] * blue)
+        + offset[1];
+    double blueSum = (matrix[2][0] * red) + (matrix[2][1] * green) + (matrix[2][2] * blue)
+        + offset[2];
+    int newR = clamp((int) redSum);
+    int newG = clamp((int) greenSum);
+    int newB = clamp((int) blueSum);
+    return (newR << 16) | (newG << 8) | newB;
+  }
+
+  /**
+   * Only fixed-point sums are vectorized: converting the channels to doubles and back costs more
+   * than the scalar loop saves.
+   */
+  @Override
+  protected int applyVectorized(int[] pixels, int length) {
+    if (this.fixedMatrix == null) {
+      return 0;
+    }
+    return VectorKernels.colorMatrixFixed(pixels, length, this.fixedMatrix, this.fixedOffset);
+  }
+
+  /**
+   * Combines this transformation and the next one into a single color matrix that applies this
+   * transformation first. The combined matrix skips the truncation between the two steps, so
+   * its result may differ from running both steps by up to the largest absolute row sum of the
+   * next matrix, rounded up. As long as this transformation stays in range, the intermediate
+   * value is never clamped and that bound holds for every pixel.
+   *
+   * @param next The transformation to apply after this one.
+   * @return A transformation with the product of both matrices and the arithmetic of this one.
+   * @throws NullPointerException If next is null.
+   */
+  public ColorMatrixTransformation then(ColorMatrixTransformation next) {
+    double[][] product = new double[3][3];
+    double[] shifted = new double[3];
+    for (int row = 0; row < 3; row++) {
+      for (int col = 0; col < 3; col++) {
+        for (int k = 0; k < 3; k++) {
+          product[row][col] += next.matrix[row][k] * this.matrix[k][col];
+        }
+      }
+      for (int k = 0; k < 3; k++) {
+        shifted[row] += next.matrix[row][k] * this.offset[k];
+      }
+      shifted[row] += next.offset[row];
+    }
+    return new ColorMatrixTransformation(product, shifted, this.arithmetic);
+  }
+
+  /**
+   * Checks whether every channel produced by this transformation lies in [0, 255] before
+   * clamping, for every possible pixel. If it does, combining it with another transformation
+   * using then only changes the result by the truncation of the intermediate value.
+   *
+   * @return True if no channel is ever clamped, false otherwise.
+   */
+  public boolean staysInRange() {
+    for (int row = 0; row < 3; row++) {
+      double lowest = this.offset[row];
+      double highest = this.offset[row];
+      for (int col = 0; col < 3; col++) {
+        lowest += Math.min(0, this.matrix[row][col] * 255);
+        highest += Math.max(0, this.matrix[row][col] * 255);
+      }
+      if (lowest <= -1 || highest >= 256) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the arithmetic of the sums of this transformation.
+   *
+   * @return The arithmetic.
+   */
+  public Arithmetic getArithmetic() {
+    return this.arithmetic;
+  }
+
+  /**
+   * Gets a copy of the matrix of this transformation.
+   *
+   * @return The 3x3 matrix, one row for each of the new red, green and blue channels.
+   */
+  public double[][] getMatrix() {
+    double[][] copy = new double[3][];
+    for (int row = 0; row < 3; row++) {
+      copy[row] = this.matrix[row].clone();
+    }
+    return copy;
+  }
+
+  /**
+   * Gets a copy of the offset vector of this transformation.
+   *
+   * @return The values added to the new red, green and blue channels.
+   */
+  public double[] getOffset() {
+    return this.offset.clone();
+  }
+}
@@ -0,0 +1,34 @@
+package model.transformations;
+
+/**
+ * Extends the LookupTableTransformation class.
+ * Every channel is moved away from or towards the middle grey by a constant factor and clamped
+ * to [0, 255].
+ */
+public class ContrastTransformation extends LookupTableTransformation {
+
+  /**
+   * Constructs a new ContrastTransformation with the specified factor.
+   *
+   * @param factor The contrast factor, where 1 leaves the image unchanged, values above 1 add
+   *               contrast and values between 0 and 1 remove it.
+   * @throws IllegalArgumentException If the factor is negative or not a number.
+   */
+  public ContrastTransformation(double factor) {
+    super(tableOf(value -> (value - 127.5) * checkFactor(factor) + 127.5));
+  }
+
+  /**
+   * Checks that a contrast factor is a non-negative number.
+   *
+   * @param factor The contrast factor.
+   * @return The contrast factor.
+   * @throws IllegalArgumentException If the factor is negative or not a number.
+   */
+  private static double checkFactor(double factor) {
+    if (!(factor >= 0) || Double.isInfinite(factor)) {
+      throw new IllegalArgumentException("contrast factor must be a non-negative number");
+    }
+    return factor;
+  }
+}
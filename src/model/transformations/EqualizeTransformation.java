@@ -0,0 +1,74 @@
+package model.transformations;
+
+import model.image.Channel;
+import model.image.Histogram;
+import model.image.IImageState;
+
+/**
+ * Extends the LookupTableTransformation class.
+ * Spreads the values of every channel so that they are as evenly used as possible: each value
+ * maps to the fraction of pixels at or below it, according to the histogram of its channel.
+ * The lowest value in use becomes 0 and the highest becomes 255. A channel with a single value
+ * in use is left unchanged.
+ */
+public class EqualizeTransformation extends LookupTableTransformation {
+
+  /**
+   * Constructs a new EqualizeTransformation that equalizes the given image.
+   *
+   * @param image The image whose histograms the tables are built from.
+   * @throws NullPointerException If the image is null.
+   */
+  public EqualizeTransformation(IImageState image) {
+    this(new Histogram(image));
+  }
+
+  /**
+   * Constructs a new EqualizeTransformation from the histograms of an image.
+   *
+   * @param histogram The histograms of the image to equalize.
+   * @throws NullPointerException If the histogram is null.
+   */
+  public EqualizeTransformation(Histogram histogram) {
+    super(equalized(histogram.getCounts(Channel.RED), histogram.getPixelCount()),
+        equalized(histogram.getCounts(Channel.GREEN), histogram.getPixelCount()),
+        equalized(histogram.getCounts(Channel.BLUE), histogram.getPixelCount()));
+  }
+
+  /**
+   * Builds the table that equalizes one channel.
+   *
+   * @param counts The histogram of the channel.
+   * @param total  The number of pixels counted.
+   * @return The table of the channel.
+   */
+  private static int[] equalized(long[] counts, long total) {
+    long lowest = lowestCount(counts);
+    if (total == lowest) {
+      return tableOf(value -> value);
+    }
+
+    long[] cumulative = new long[counts.length];
+    long sum = 0;
+    for (int value = 0; value < counts.length; value++) {
+      sum += counts[value];
+      cumulative[value] = sum;
+    }
+    return tableOf(value -> 255.0 * Math.max(0, cumulative[value] - lowest) / (total - lowest));
+  }
+
+  /**
+   * Finds the number of pixels with the lowest value in use.
+   *
+   * @param counts The histogram of a channel.
+   * @return The first count that is not zero, or 0 if there is none.
+   */
+  private static long lowestCount(long[] counts) {
+    for (long count : counts) {
+      if (count != 0) {
+        return count;
+      }
+    }
+    return 0;
+  }
+}
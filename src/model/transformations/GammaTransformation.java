@@ -0,0 +1,33 @@
+package model.transformations;
+
+/**
+ * Extends the LookupTableTransformation class.
+ * Every channel is raised to the power of one over gamma on the [0, 1] scale, so a gamma above 1
+ * brightens the mid-tones and a gamma below 1 darkens them, while black and white stay the same.
+ */
+public class GammaTransformation extends LookupTableTransformation {
+
+  /**
+   * Constructs a new GammaTransformation with the specified gamma.
+   *
+   * @param gamma The gamma, where 1 leaves the image unchanged.
+   * @throws IllegalArgumentException If gamma is not a positive number.
+   */
+  public GammaTransformation(double gamma) {
+    super(tableOf(value -> 255 * Math.pow(value / 255.0, 1 / checkGamma(gamma))));
+  }
+
+  /**
+   * Checks that a gamma is a positive number.
+   *
+   * @param gamma The gamma.
+   * @return The gamma.
+   * @throws IllegalArgumentException If gamma is not a positive number.
+   */
+  static double checkGamma(double gamma) {
+    if (!(gamma > 0) || Double.isInfinite(gamma)) {
+      throw new IllegalArgumentException("gamma must be a positive number");
+    }
+    return gamma;
+  }
+}
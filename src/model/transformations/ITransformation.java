@@ -1,6 +1,13 @@
 package model.transformations;
 
+import model.image.CopyOnWriteImage;
+import model.image.CroppedImage;
 import model.image.IImageState;
+import model.image.IReleasableImage;
+import model.image.Parallelism;
+import model.image.Region;
+
+import java.util.Objects;
 
 /**
  * Represents an image transformation operation.
@@ -16,4 +23,110 @@ public interface ITransformation {
    * @throws NullPointerException If the sourceImage is null.
    */
   IImageState run(IImageState sourceImage);
+
+  /**
+   * Transforms the source image, splitting the work across threads as the given parallelism
+   * allows. Transformations that cannot split their work run on the calling thread.
+   *
+   * @param sourceImage The IImageState representing the source image to be transformed.
+   * @param parallelism The way the rows of the image are split across threads.
+   * @return The IImageState representing the transformed image after applying the operation.
+   * @throws NullPointerException If the sourceImage or parallelism is null.
+   */
+  default IImageState run(IImageState sourceImage, Parallelism parallelism) {
+    Objects.requireNonNull(parallelism);
+    return run(sourceImage);
+  }
+
+  /**
+   * Gets the largest distance, in rows or columns, between a pixel of the result and the source
+   * pixels it is computed from. Transformations that read neighbouring pixels must override this
+   * so that running them on a region reads the halo of pixels around it.
+   *
+   * @return The distance in pixels, 0 if every pixel only depends on the source pixel at the
+   *         same position.
+   */
+  default int getHalo() {
+    return 0;
+  }
+
+  /**
+   * Transforms only the pixels of the source image inside a region, using the default
+   * parallelism.
+   *
+   * @param sourceImage The IImageState representing the source image to be transformed.
+   * @param region      The pixels to transform.
+   * @return The image with the pixels inside the region transformed and the others unchanged.
+   * @throws IllegalArgumentException If the transformation changes the size of the image.
+   * @throws NullPointerException     If the sourceImage or region is null.
+   */
+  default IImageState run(IImageState sourceImage, Region region) {
+    return run(sourceImage, region, Parallelism.getDefault());
+  }
+
+  /**
+   * Transforms only the pixels of the source image inside a region. The transformation runs on
+   * the rectangle that bounds the region, widened by the halo and cut to the image, so the pixels
+   * inside the region are the same as when the whole image is transformed. The result shares
+   * the rows outside the region with the source image, and copies the rows it writes.
+   *
+   * @param sourceImage The IImageState representing the source image to be transformed.
+   * @param region      The pixels to transform.
+   * @param parallelism The way the rows of the image are split across threads.
+   * @return The image with the pixels inside the region transformed and the others unchanged.
+   * @throws IllegalArgumentException If the transformation changes the size of the image.
+   * @throws NullPointerException     If the sourceImage, region or parallelism is null.
+   */
+  default IImageState run(IImageState sourceImage, Region region, Parallelism parallelism) {
+    Objects.requireNonNull(region);
+    Objects.requireNonNull(parallelism);
+    CopyOnWriteImage result = new CopyOnWriteImage(sourceImage);
+    int left = Math.max(0, region.getX());
+    int top = Math.max(0, region.getY());
+    int right = (int) Math.min(sourceImage.getWidth(), (long) region.getX() + region.getWidth());
+    int bottom = (int) Math.min(sourceImage.getHeight(),
+        (long) region.getY() + region.getHeight());
+    if (left >= right || top >= bottom) {
+      return result;
+    }
+
+    int halo = getHalo();
+    int cropLeft = (int) Math.max(0, (long) left - halo);
+    int cropTop = (int) Math.max(0, (long) top - halo);
+    int cropRight = (int) Math.min(sourceImage.getWidth(), (long) right + halo);
+    int cropBottom = (int) Math.min(sourceImage.getHeight(), (long) bottom + halo);
+    IImageState crop = new CroppedImage(sourceImage, cropLeft, cropTop, cropRight - cropLeft,
+        cropBottom - cropTop);
+    IImageState transformed = run(crop, parallelism);
+    if (transformed.getWidth() != crop.getWidth()
+        || transformed.getHeight() != crop.getHeight()) {
+      throw new IllegalArgumentException("transformation changes the size of the image");
+    }
+
+    int width = right - left;
+    int[] pixels = new int[width];
+    int[] original = new int[width];
+    for (int row = top; row < bottom; row++) {
+      transformed.getRGB(left - cropLeft, row - cropTop, width, 1, pixels, 0, width);
+      if (!region.isRectangle()) {
+        sourceImage.getRGB(left, row, width, 1, original, 0, width);
+        boolean any = false;
+        for (int col = 0; col < width; col++) {
+          if (region.contains(left + col, row)) {
+            any = true;
+          } else {
+            pixels[col] = original[col];
+          }
+        }
+        if (!any) {
+          continue;
+        }
+      }
+      result.setRGB(left, row, width, 1, pixels, 0, width);
+    }
+    if (transformed instanceof IReleasableImage) {
+      ((IReleasableImage) transformed).release();
+    }
+    return result;
+  }
 }
@@ -1,13 +1,9 @@
 package model.transformations;
 
-import model.image.IImage;
-import model.image.IImageState;
-import model.image.ImageImpl;
-
 /**
- * Implements the ITransformation interface.
+ * Extends the PointwiseTransformation class.
  */
-public class IntensityTransformation implements ITransformation {
+public class IntensityTransformation extends PointwiseTransformation {
 
   /**
    * Clamps the given value to the range of [0, 255].
@@ -26,19 +22,14 @@ public class IntensityTransformation implements ITransformation {
   }
 
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col++) {
-        int averageValue = (sourceImage.getRedChannel(col, row)
-            + sourceImage.getGreenChannel(col, row) + sourceImage.getBlueChannel(col, row)) / 3;
-        int newR = clamp(averageValue);
-        int newG = clamp(averageValue);
-        int newB = clamp(averageValue);
-        newImage.setPixel(col, row, newR, newG, newB);
-      }
-    }
-    return newImage;
+  public int apply(int rgb) {
+    int red = (rgb >> 16) & 0xFF;
+    int green = (rgb >> 8) & 0xFF;
+    int blue = rgb & 0xFF;
+    int averageValue = (red + green + blue) / 3;
+    int newR = clamp(averageValue);
+    int newG = clamp(averageValue);
+    int newB = clamp(averageValue);
+    return (newR << 16) | (newG << 8) | newB;
   }
 }
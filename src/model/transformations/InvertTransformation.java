@@ -0,0 +1,15 @@
+package model.transformations;
+
+/**
+ * Extends the LookupTableTransformation class.
+ * Every channel is replaced by 255 minus its value, giving the negative of the image.
+ */
+public class InvertTransformation extends LookupTableTransformation {
+
+  /**
+   * Constructs a new InvertTransformation.
+   */
+  public InvertTransformation() {
+    super(tableOf(value -> 255 - value));
+  }
+}
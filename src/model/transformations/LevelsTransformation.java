@@ -0,0 +1,51 @@
+package model.transformations;
+
+/**
+ * Extends the LookupTableTransformation class.
+ * Every channel value at or below the black point becomes 0, every value at or above the white
+ * point becomes 255, and the values in between are stretched over the full range, optionally
+ * with a gamma for the mid-tones.
+ */
+public class LevelsTransformation extends LookupTableTransformation {
+
+  /**
+   * Constructs a new LevelsTransformation with the specified black and white points.
+   *
+   * @param black The channel value that becomes 0.
+   * @param white The channel value that becomes 255.
+   * @throws IllegalArgumentException If the points are not 0 &lt;= black &lt; white &lt;= 255.
+   */
+  public LevelsTransformation(int black, int white) {
+    this(black, white, 1);
+  }
+
+  /**
+   * Constructs a new LevelsTransformation with the specified black and white points and gamma.
+   *
+   * @param black The channel value that becomes 0.
+   * @param white The channel value that becomes 255.
+   * @param gamma The gamma of the mid-tones, where 1 stretches them linearly.
+   * @throws IllegalArgumentException If the points are not 0 &lt;= black &lt; white &lt;= 255, or
+   *                                  if gamma is not a positive number.
+   */
+  public LevelsTransformation(int black, int white, double gamma) {
+    super(tableOf(value -> 255 * Math.pow(
+        Math.max(0, Math.min(1, (value - black) / (double) checkRange(black, white))),
+        1 / GammaTransformation.checkGamma(gamma))));
+  }
+
+  /**
+   * Checks that the black and white points are valid channel values in order.
+   *
+   * @param black The black point.
+   * @param white The white point.
+   * @return The distance between the points.
+   * @throws IllegalArgumentException If the points are not 0 &lt;= black &lt; white &lt;= 255.
+   */
+  private static int checkRange(int black, int white) {
+    if (black < 0 || white > 255 || black >= white) {
+      throw new IllegalArgumentException("levels must satisfy 0 <= black < white <= 255");
+    }
+    return white - black;
+  }
+}
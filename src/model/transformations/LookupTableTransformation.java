@@ -0,0 +1,137 @@
+package model.transformations;
+
+import model.image.Channel;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Represents a transformation that maps every channel value through a precomputed table of 256
+ * entries, one table for each of the red, green and blue channels.
+ * Any per-channel curve, such as brighten, gamma, contrast, levels or invert, is computed once
+ * for each of the 256 possible values, so transforming a pixel costs three table loads. Two
+ * lookup tables can be combined with then into a single table that gives exactly the same result
+ * as applying both.
+ */
+public class LookupTableTransformation extends PointwiseTransformation {
+  private final int[] redTable;
+  private final int[] greenTable;
+  private final int[] blueTable;
+
+  /**
+   * Constructs a new LookupTableTransformation that maps all three channels through the same
+   * table.
+   *
+   * @param table The new value for each of the 256 channel values.
+   * @throws IllegalArgumentException If the table does not have 256 entries in the range
+   *                                  [0, 255].
+   */
+  public LookupTableTransformation(int[] table) {
+    this(table, table, table);
+  }
+
+  /**
+   * Constructs a new LookupTableTransformation with a separate table for each channel.
+   *
+   * @param redTable   The new red value for each of the 256 red values.
+   * @param greenTable The new green value for each of the 256 green values.
+   * @param blueTable  The new blue value for each of the 256 blue values.
+   * @throws IllegalArgumentException If a table does not have 256 entries in the range [0, 255].
+   */
+  public LookupTableTransformation(int[] redTable, int[] greenTable, int[] blueTable) {
+    this.redTable = checkTable(redTable);
+    this.greenTable = checkTable(greenTable);
+    this.blueTable = checkTable(blueTable);
+  }
+
+  /**
+   * Checks that a table maps every channel value to a channel value and copies it.
+   *
+   * @param table The table to check.
+   * @return A copy of the table.
+   * @throws IllegalArgumentException If the table does not have 256 entries in the range
+   *                                  [0, 255].
+   */
+  private static int[] checkTable(int[] table) {
+    if (table == null || table.length != 256) {
+      throw new IllegalArgumentException("lookup table must have 256 entries");
+    }
+    for (int value : table) {
+      if (value < 0 || value > 255) {
+        throw new IllegalArgumentException("lookup table entry out of bounds");
+      }
+    }
+    return table.clone();
+  }
+
+  @Override
+  public int apply(int rgb) {
+    return (redTable[(rgb >> 16) & 0xFF] << 16) | (greenTable[(rgb >> 8) & 0xFF] << 8)
+        | blueTable[rgb & 0xFF];
+  }
+
+  @Override
+  protected void applyRow(int[] pixels, int length) {
+    int[] red = this.redTable;
+    int[] green = this.greenTable;
+    int[] blue = this.blueTable;
+    int col = VectorSupport.isEnabled() ? applyVectorized(pixels, length) : 0;
+    for (; col < length; col++) {
+      int rgb = pixels[col];
+      pixels[col] = (red[(rgb >> 16) & 0xFF] << 16) | (green[(rgb >> 8) & 0xFF] << 8)
+          | blue[rgb & 0xFF];
+    }
+  }
+
+  /**
+   * Combines this transformation and the next one into a single lookup table that applies this
+   * transformation first. The combined table gives exactly the same result as applying both.
+   *
+   * @param next The transformation to apply after this one.
+   * @return A transformation with the composed tables.
+   * @throws NullPointerException If next is null.
+   */
+  public LookupTableTransformation then(LookupTableTransformation next) {
+    int[] red = new int[256];
+    int[] green = new int[256];
+    int[] blue = new int[256];
+    for (int value = 0; value < 256; value++) {
+      red[value] = next.redTable[this.redTable[value]];
+      green[value] = next.greenTable[this.greenTable[value]];
+      blue[value] = next.blueTable[this.blueTable[value]];
+    }
+    return new LookupTableTransformation(red, green, blue);
+  }
+
+  /**
+   * Gets a copy of the table of the given channel.
+   *
+   * @param channel The channel.
+   * @return The new value for each of the 256 values of the channel.
+   * @throws NullPointerException If the channel is null.
+   */
+  public int[] getTable(Channel channel) {
+    switch (channel) {
+      case RED:
+        return this.redTable.clone();
+      case GREEN:
+        return this.greenTable.clone();
+      default:
+        return this.blueTable.clone();
+    }
+  }
+
+  /**
+   * Builds a table by rounding and clamping a curve at each of the 256 channel values.
+   *
+   * @param curve The curve, from a channel value to its new value before rounding.
+   * @return The table of the curve.
+   */
+  protected static int[] tableOf(IntToDoubleFunction curve) {
+    int[] table = new int[256];
+    for (int value = 0; value < 256; value++) {
+      long rounded = Math.round(curve.applyAsDouble(value));
+      table[value] = (int) Math.max(0, Math.min(255, rounded));
+    }
+    return table;
+  }
+}
@@ -1,45 +1,28 @@
 package model.transformations;
 
-import model.image.IImage;
-import model.image.IImageState;
-import model.image.ImageImpl;
-
 /**
- * Implements the ITransformation interface.
+ * Extends the ColorMatrixTransformation class.
+ * Every channel becomes the luma of the pixel.
  */
-public class LumaTransformation implements ITransformation {
-
+public class LumaTransformation extends ColorMatrixTransformation {
   /**
-   * Clamps the given value to the range of [0, 255].
-   *
-   * @param value The value to be clamped.
-   * @return The clamped value, ensuring it lies within the range [0, 255].
+   * Constructs a new LumaTransformation.
    */
-  private int clamp(int value) {
-    if (value < 0) {
-      return 0;
-    }
-    if (value > 255) {
-      return 255;
-    }
-    return value;
+  public LumaTransformation() {
+    this(Arithmetic.DOUBLE);
   }
 
-  @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col++) {
-        double lumaValue = (0.2126 * sourceImage.getRedChannel(col, row))
-            + (0.7152 * sourceImage.getGreenChannel(col, row))
-            + (0.0722 * sourceImage.getBlueChannel(col, row));
-        int newR = clamp((int) lumaValue);
-        int newG = clamp((int) lumaValue);
-        int newB = clamp((int) lumaValue);
-        newImage.setPixel(col, row, newR, newG, newB);
-      }
-    }
-    return newImage;
+  /**
+   * Constructs a new LumaTransformation with the specified arithmetic.
+   *
+   * @param arithmetic The arithmetic of the sums.
+   * @throws NullPointerException If the arithmetic is null.
+   */
+  public LumaTransformation(Arithmetic arithmetic) {
+    super(new double[][] {
+        {0.2126, 0.7152, 0.0722},
+        {0.2126, 0.7152, 0.0722},
+        {0.2126, 0.7152, 0.0722}
+    }, new double[3], arithmetic);
   }
 }
@@ -0,0 +1,132 @@
+package model.transformations;
+
+import model.image.IImage;
+import model.image.IImageState;
+import model.image.ImageStorage;
+import model.image.Parallelism;
+import model.image.PointwiseView;
+
+import java.util.Objects;
+
+/**
+ * Represents a transformation in which every pixel of the result only depends on the pixel at
+ * the same position in the source image.
+ * Such a transformation can either compute a new image right away with run, or return a
+ * PointwiseView with view that computes each pixel when it is read and stores none of them.
+ * Viewing a PointwiseView fuses both functions into a single view of the original source, so a
+ * chain of pointwise transformations is computed in one pass when its pixels are finally read.
+ */
+public abstract class PointwiseTransformation implements ITransformation {
+
+  /**
+   * Computes the transformed value of a single pixel.
+   *
+   * @param rgb The source pixel, packed as 0xAARRGGBB.
+   * @return The transformed pixel, packed as 0xRRGGBB.
+   */
+  public abstract int apply(int rgb);
+
+  @Override
+  public IImageState run(IImageState sourceImage) {
+    return run(sourceImage, Parallelism.getDefault());
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage, Parallelism parallelism) {
+    IImage newImage = ImageStorage.getDefault().create(sourceImage.getWidth(),
+        sourceImage.getHeight());
+    transformRows(sourceImage, newImage, parallelism);
+    return newImage;
+  }
+
+  /**
+   * Transforms the pixels of a mutable image in place, using the default parallelism.
+   *
+   * @param image The image, whose pixels are replaced by the transformed pixels.
+   * @throws NullPointerException If the image is null.
+   */
+  public void runInPlace(IImage image) {
+    runInPlace(image, Parallelism.getDefault());
+  }
+
+  /**
+   * Transforms the pixels of a mutable image in place, without allocating a second image. Each
+   * row is read, transformed and written back, so the image must not be read by anything else
+   * while it runs, and every image that reads from it sees the transformed pixels afterwards.
+   *
+   * @param image       The image, whose pixels are replaced by the transformed pixels.
+   * @param parallelism The way the rows of the image are split across threads.
+   * @throws NullPointerException If the image or parallelism is null.
+   */
+  public void runInPlace(IImage image, Parallelism parallelism) {
+    Objects.requireNonNull(image);
+    Objects.requireNonNull(parallelism);
+    transformRows(image, image, parallelism);
+  }
+
+  /**
+   * Transforms every row of the source image into the same row of the target image. The source
+   * and target may be the same image, since each row is read completely before it is written.
+   *
+   * @param sourceImage The image to read.
+   * @param target      The image to write, of the same size.
+   * @param parallelism The way the rows are split across threads.
+   */
+  private void transformRows(IImageState sourceImage, IImage target, Parallelism parallelism) {
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+    parallelism.forEachBand(width, height, (fromRow, toRow) -> {
+      int[] pixels = new int[width];
+      for (int row = fromRow; row < toRow; row++) {
+        sourceImage.getRGB(0, row, width, 1, pixels, 0, width);
+        applyRow(pixels, width);
+        target.setRGB(0, row, width, 1, pixels, 0, width);
+      }
+    });
+  }
+
+  /**
+   * Applies this transformation to a row of pixels, using the loops of VectorKernels when
+   * VectorSupport is enabled. Subclasses may override this with a faster loop that gives the
+   * same results as apply.
+   *
+   * @param pixels The pixels, packed as 0xAARRGGBB, replaced by the results packed as 0xRRGGBB.
+   * @param length The number of pixels.
+   */
+  protected void applyRow(int[] pixels, int length) {
+    int col = VectorSupport.isEnabled() ? applyVectorized(pixels, length) : 0;
+    for (; col < length; col++) {
+      pixels[col] = apply(pixels[col]);
+    }
+  }
+
+  /**
+   * Applies this transformation to the leading pixels of a row with the loops of VectorKernels.
+   * Only called when VectorSupport is enabled; the pixels it does not transform are transformed
+   * by apply. By default no pixel is transformed.
+   *
+   * @param pixels The pixels, packed as 0xAARRGGBB, replaced by the results packed as 0xRRGGBB.
+   * @param length The number of pixels.
+   * @return The number of leading pixels transformed.
+   */
+  protected int applyVectorized(int[] pixels, int length) {
+    return 0;
+  }
+
+  /**
+   * Returns a read-only view of the source image with this transformation applied, without
+   * computing or storing any pixels. If the source image is itself a PointwiseView, the returned
+   * view reads the source of that view and applies both functions in turn.
+   *
+   * @param sourceImage The IImageState representing the source image to be transformed.
+   * @return A PointwiseView that computes the transformed pixels when they are read.
+   * @throws NullPointerException If the sourceImage is null.
+   */
+  public PointwiseView view(IImageState sourceImage) {
+    if (sourceImage instanceof PointwiseView) {
+      PointwiseView lazyImage = (PointwiseView) sourceImage;
+      return new PointwiseView(lazyImage.getSource(), lazyImage.getFunction().andThen(this::apply));
+    }
+    return new PointwiseView(sourceImage, this::apply);
+  }
+}
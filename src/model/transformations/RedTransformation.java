@@ -1,42 +1,40 @@
 package model.transformations;
 
-import model.image.IImage;
+import model.image.Channel;
 import model.image.IImageState;
-import model.image.ImageImpl;
+import model.image.Parallelism;
+import model.image.PlanarImage;
 
 /**
- * Implements the ITransformation interface.
+ * Extends the ColorMatrixTransformation class.
+ * Every channel becomes the red channel of the pixel.
  */
-public class RedTransformation implements ITransformation {
-
+public class RedTransformation extends ColorMatrixTransformation {
   /**
-   * Clamps the given value to the range of [0, 255].
-   *
-   * @param value The value to be clamped.
-   * @return The clamped value, ensuring it lies within the range [0, 255].
+   * Constructs a new RedTransformation.
    */
-  private int clamp(int value) {
-    if (value < 0) {
-      return 0;
-    }
-    if (value > 255) {
-      return 255;
-    }
-    return value;
+  public RedTransformation() {
+    super(new double[][] {
+        {1, 0, 0},
+        {1, 0, 0},
+        {1, 0, 0}
+    });
   }
 
+  /**
+   * Only the red channel is read, since the matrix copies it to every channel.
+   */
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
+  public int apply(int rgb) {
+    int red = (rgb >> 16) & 0xFF;
+    return (red << 16) | (red << 8) | red;
+  }
 
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col++) {
-        int newR = clamp(sourceImage.getRedChannel(col, row));
-        int newG = clamp(sourceImage.getRedChannel(col, row));
-        int newB = clamp(sourceImage.getRedChannel(col, row));
-        newImage.setPixel(col, row, newR, newG, newB);
-      }
+  @Override
+  public IImageState run(IImageState sourceImage, Parallelism parallelism) {
+    if (sourceImage instanceof PlanarImage) {
+      return ((PlanarImage) sourceImage).channelAsGreyscale(Channel.RED);
     }
-    return newImage;
+    return super.run(sourceImage, parallelism);
   }
 }
@@ -1,13 +1,9 @@
 package model.transformations;
 
-import model.image.IImage;
-import model.image.IImageState;
-import model.image.ImageImpl;
-
 /**
- * Implements the ITransformation interface.
+ * Extends the PointwiseTransformation class.
  */
-public class ValueTransformation implements ITransformation {
+public class ValueTransformation extends PointwiseTransformation {
 
   /**
    * Clamps the given value to the range of [0, 255].
@@ -26,20 +22,15 @@ public class ValueTransformation implements ITransformation {
   }
 
   @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col++) {
-        int maxValue = Math.max(sourceImage.getRedChannel(col, row),
-            sourceImage.getGreenChannel(col, row));
-        maxValue = Math.max(maxValue, sourceImage.getBlueChannel(col, row));
-        int newR = clamp(maxValue);
-        int newG = clamp(maxValue);
-        int newB = clamp(maxValue);
-        newImage.setPixel(col, row, newR, newG, newB);
-      }
-    }
-    return newImage;
+  public int apply(int rgb) {
+    int red = (rgb >> 16) & 0xFF;
+    int green = (rgb >> 8) & 0xFF;
+    int blue = rgb & 0xFF;
+    int maxValue = Math.max(red, green);
+    maxValue = Math.max(maxValue, blue);
+    int newR = clamp(maxValue);
+    int newG = clamp(maxValue);
+    int newB = clamp(maxValue);
+    return (newR << 16) | (newG << 8) | newB;
   }
 }
@@ -0,0 +1,324 @@
+package model.transformations;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Contains the vectorized loops of the pointwise color transformations and of convolutions,
+ * written with the incubating Vector API.
+ * Every loop performs the same operations in the same order as the scalar loop it replaces, one
+ * pixel per lane, so the results are identical. Each method handles as many whole vectors as fit
+ * in its range and returns where it stopped; the caller finishes the rest with the scalar loop.
+ * All vectors have the preferred shape of the machine, and int lanes are converted to doubles or
+ * longs in two halves of that same shape, because mixing shapes makes the compiler fall back to
+ * much slower code. This class must only be used when VectorSupport is enabled.
+ */
+public final class VectorKernels {
+  private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+  /**
+   * Prevents instantiation, as this class only has static members.
+   */
+  private VectorKernels() {
+  }
+
+  /**
+   * Maps pixels through a color matrix with fixed-point sums.
+   *
+   * @param pixels The pixels, packed as 0xAARRGGBB, replaced by the results packed as 0xRRGGBB.
+   * @param length The number of pixels.
+   * @param matrix The 3x3 fixed-point matrix, row by row.
+   * @param offset The fixed-point values added to the new red, green and blue channels.
+   * @return The number of leading pixels transformed.
+   */
+  public static int colorMatrixFixed(int[] pixels, int length, int[] matrix, int[] offset) {
+    int lanes = INTS.length();
+    int i = 0;
+    for (; i <= length - lanes; i += lanes) {
+      IntVector pixel = IntVector.fromArray(INTS, pixels, i);
+      IntVector red = pixel.lanewise(VectorOperators.LSHR, 16).and(0xFF);
+      IntVector green = pixel.lanewise(VectorOperators.LSHR, 8).and(0xFF);
+      IntVector blue = pixel.and(0xFF);
+      IntVector result = IntVector.zero(INTS);
+      for (int row = 0; row < 3; row++) {
+        IntVector sum = red.mul(matrix[3 * row]).add(green.mul(matrix[3 * row + 1]))
+            .add(blue.mul(matrix[3 * row + 2])).add(offset[row]);
+        result = result.lanewise(VectorOperators.LSHL, 8)
+            .or(sum.lanewise(VectorOperators.ASHR, Arithmetic.FRACTION_BITS).max(0).min(255));
+      }
+      result.intoArray(pixels, i);
+    }
+    return i;
+  }
+
+  /**
+   * Adds the same value to every channel of pixels, clamping the results to [0, 255].
+   *
+   * @param pixels The pixels, packed as 0xAARRGGBB, replaced by the results packed as 0xRRGGBB.
+   * @param length The number of pixels.
+   * @param value  The value to add.
+   * @return The number of leading pixels transformed.
+   */
+  public static int brighten(int[] pixels, int length, int value) {
+    int lanes = INTS.length();
+    int i = 0;
+    for (; i <= length - lanes; i += lanes) {
+      IntVector pixel = IntVector.fromArray(INTS, pixels, i);
+      IntVector red = pixel.lanewise(VectorOperators.LSHR, 16).and(0xFF).add(value);
+      IntVector green = pixel.lanewise(VectorOperators.LSHR, 8).and(0xFF).add(value);
+      IntVector blue = pixel.and(0xFF).add(value);
+      red.max(0).min(255).lanewise(VectorOperators.LSHL, 16)
+          .or(green.max(0).min(255).lanewise(VectorOperators.LSHL, 8))
+          .or(blue.max(0).min(255)).intoArray(pixels, i);
+    }
+    return i;
+  }
+
+  /**
+   * Computes the convolution of a range of columns with double sums. Every kernel position of
+   * those columns must lie inside the row.
+   *
+   * @param lines   The source row read by each kernel row, or null for a row that adds nothing.
+   * @param from    The first column to compute.
+   * @param to      The column after the last one to compute.
+   * @param weights The weights of the kernel, row by row.
+   * @param pixels  The array that receives the pixels of the columns, packed as 0xRRGGBB.
+   * @return The column after the last one computed.
+   */
+  public static int convolveRow(int[][] lines, int from, int to, double[][] weights,
+                                int[] pixels) {
+    int lanes = INTS.length();
+    int radius = weights[0].length / 2;
+    int col = from;
+    for (; col <= to - lanes; col += lanes) {
+      DoubleVector redLow = DoubleVector.zero(DOUBLES);
+      DoubleVector redHigh = DoubleVector.zero(DOUBLES);
+      DoubleVector greenLow = DoubleVector.zero(DOUBLES);
+      DoubleVector greenHigh = DoubleVector.zero(DOUBLES);
+      DoubleVector blueLow = DoubleVector.zero(DOUBLES);
+      DoubleVector blueHigh = DoubleVector.zero(DOUBLES);
+      for (int kernelRow = 0; kernelRow < weights.length; kernelRow++) {
+        int[] line = lines[kernelRow];
+        if (line == null) {
+          continue;
+        }
+        for (int kernelCol = 0; kernelCol < weights[kernelRow].length; kernelCol++) {
+          IntVector pixel = IntVector.fromArray(INTS, line, col + kernelCol - radius);
+          IntVector red = pixel.lanewise(VectorOperators.LSHR, 16).and(0xFF);
+          IntVector green = pixel.lanewise(VectorOperators.LSHR, 8).and(0xFF);
+          IntVector blue = pixel.and(0xFF);
+          double weight = weights[kernelRow][kernelCol];
+          redLow = redLow.add(toDouble(red, 0).mul(weight));
+          redHigh = redHigh.add(toDouble(red, 1).mul(weight));
+          greenLow = greenLow.add(toDouble(green, 0).mul(weight));
+          greenHigh = greenHigh.add(toDouble(green, 1).mul(weight));
+          blueLow = blueLow.add(toDouble(blue, 0).mul(weight));
+          blueHigh = blueHigh.add(toDouble(blue, 1).mul(weight));
+        }
+      }
+      IntVector red = toInt(redLow, 0).or(toInt(redHigh, -1));
+      IntVector green = toInt(greenLow, 0).or(toInt(greenHigh, -1));
+      IntVector blue = toInt(blueLow, 0).or(toInt(blueHigh, -1));
+      red.max(0).min(255).lanewise(VectorOperators.LSHL, 16)
+          .or(green.max(0).min(255).lanewise(VectorOperators.LSHL, 8))
+          .or(blue.max(0).min(255)).intoArray(pixels, col);
+    }
+    return col;
+  }
+
+  /**
+   * Computes the convolution of a range of columns with fixed-point sums. Every kernel position
+   * of those columns must lie inside the row.
+   *
+   * @param lines   The source row read by each kernel row, or null for a row that adds nothing.
+   * @param from    The first column to compute.
+   * @param to      The column after the last one to compute.
+   * @param weights The fixed-point weights of the kernel, row by row.
+   * @param pixels  The array that receives the pixels of the columns, packed as 0xRRGGBB.
+   * @return The column after the last one computed.
+   */
+  public static int convolveRowFixed(int[][] lines, int from, int to, int[][] weights,
+                                     int[] pixels) {
+    int lanes = INTS.length();
+    int radius = weights[0].length / 2;
+    int col = from;
+    for (; col <= to - lanes; col += lanes) {
+      IntVector redSum = IntVector.zero(INTS);
+      IntVector greenSum = IntVector.zero(INTS);
+      IntVector blueSum = IntVector.zero(INTS);
+      for (int kernelRow = 0; kernelRow < weights.length; kernelRow++) {
+        int[] line = lines[kernelRow];
+        if (line == null) {
+          continue;
+        }
+        for (int kernelCol = 0; kernelCol < weights[kernelRow].length; kernelCol++) {
+          IntVector pixel = IntVector.fromArray(INTS, line, col + kernelCol - radius);
+          int weight = weights[kernelRow][kernelCol];
+          redSum = redSum.add(pixel.lanewise(VectorOperators.LSHR, 16).and(0xFF).mul(weight));
+          greenSum = greenSum.add(pixel.lanewise(VectorOperators.LSHR, 8).and(0xFF).mul(weight));
+          blueSum = blueSum.add(pixel.and(0xFF).mul(weight));
+        }
+      }
+      IntVector red = redSum.lanewise(VectorOperators.ASHR, Arithmetic.FRACTION_BITS);
+      IntVector green = greenSum.lanewise(VectorOperators.ASHR, Arithmetic.FRACTION_BITS);
+      IntVector blue = blueSum.lanewise(VectorOperators.ASHR, Arithmetic.FRACTION_BITS);
+      red.max(0).min(255).lanewise(VectorOperators.LSHL, 16)
+          .or(green.max(0).min(255).lanewise(VectorOperators.LSHL, 8))
+          .or(blue.max(0).min(255)).intoArray(pixels, col);
+    }
+    return col;
+  }
+
+  /**
+   * Filters a range of columns of a row with the horizontal weights of a separable kernel and
+   * double sums. Every kernel position of those columns must lie inside the row.
+   *
+   * @param line       The pixels of the source row.
+   * @param from       The first column to filter.
+   * @param to         The column after the last one to filter.
+   * @param horizontal The horizontal weights.
+   * @param filtered   The array that receives the red, green and blue sums as three planes of
+   *                   the row length.
+   * @return The column after the last one filtered.
+   */
+  public static int filterRow(int[] line, int from, int to, double[] horizontal,
+                              double[] filtered) {
+    int lanes = INTS.length();
+    int half = DOUBLES.length();
+    int radius = horizontal.length / 2;
+    int width = line.length;
+    int col = from;
+    for (; col <= to - lanes; col += lanes) {
+      DoubleVector redLow = DoubleVector.zero(DOUBLES);
+      DoubleVector redHigh = DoubleVector.zero(DOUBLES);
+      DoubleVector greenLow = DoubleVector.zero(DOUBLES);
+      DoubleVector greenHigh = DoubleVector.zero(DOUBLES);
+      DoubleVector blueLow = DoubleVector.zero(DOUBLES);
+      DoubleVector blueHigh = DoubleVector.zero(DOUBLES);
+      for (int kernelCol = 0; kernelCol < horizontal.length; kernelCol++) {
+        IntVector pixel = IntVector.fromArray(INTS, line, col + kernelCol - radius);
+        IntVector red = pixel.lanewise(VectorOperators.LSHR, 16).and(0xFF);
+        IntVector green = pixel.lanewise(VectorOperators.LSHR, 8).and(0xFF);
+        IntVector blue = pixel.and(0xFF);
+        double weight = horizontal[kernelCol];
+        redLow = redLow.add(toDouble(red, 0).mul(weight));
+        redHigh = redHigh.add(toDouble(red, 1).mul(weight));
+        greenLow = greenLow.add(toDouble(green, 0).mul(weight));
+        greenHigh = greenHigh.add(toDouble(green, 1).mul(weight));
+        blueLow = blueLow.add(toDouble(blue, 0).mul(weight));
+        blueHigh = blueHigh.add(toDouble(blue, 1).mul(weight));
+      }
+      redLow.intoArray(filtered, col);
+      redHigh.intoArray(filtered, col + half);
+      greenLow.intoArray(filtered, width + col);
+      greenHigh.intoArray(filtered, width + col + half);
+      blueLow.intoArray(filtered, 2 * width + col);
+      blueHigh.intoArray(filtered, 2 * width + col + half);
+    }
+    return col;
+  }
+
+  /**
+   * Filters a range of columns of a row with the fixed-point horizontal weights of a separable
+   * kernel. Every kernel position of those columns must lie inside the row.
+   *
+   * @param line       The pixels of the source row.
+   * @param from       The first column to filter.
+   * @param to         The column after the last one to filter.
+   * @param horizontal The fixed-point horizontal weights.
+   * @param filtered   The array that receives the red, green and blue sums as three planes of
+   *                   the row length.
+   * @return The column after the last one filtered.
+   */
+  public static int filterRowFixed(int[] line, int from, int to, int[] horizontal,
+                                   int[] filtered) {
+    int lanes = INTS.length();
+    int radius = horizontal.length / 2;
+    int width = line.length;
+    int col = from;
+    for (; col <= to - lanes; col += lanes) {
+      IntVector redSum = IntVector.zero(INTS);
+      IntVector greenSum = IntVector.zero(INTS);
+      IntVector blueSum = IntVector.zero(INTS);
+      for (int kernelCol = 0; kernelCol < horizontal.length; kernelCol++) {
+        IntVector pixel = IntVector.fromArray(INTS, line, col + kernelCol - radius);
+        int weight = horizontal[kernelCol];
+        redSum = redSum.add(pixel.lanewise(VectorOperators.LSHR, 16).and(0xFF).mul(weight));
+        greenSum = greenSum.add(pixel.lanewise(VectorOperators.LSHR, 8).and(0xFF).mul(weight));
+        blueSum = blueSum.add(pixel.and(0xFF).mul(weight));
+      }
+      redSum.intoArray(filtered, col);
+      greenSum.intoArray(filtered, width + col);
+      blueSum.intoArray(filtered, 2 * width + col);
+    }
+    return col;
+  }
+
+  /**
+   * Adds weighted values to sums, as the vertical pass of a separable kernel does.
+   *
+   * @param sums   The sums.
+   * @param values The values, at least as many as the sums.
+   * @param weight The weight of the values.
+   * @return The number of leading sums updated.
+   */
+  public static int accumulate(double[] sums, double[] values, double weight) {
+    int lanes = DOUBLES.length();
+    int i = 0;
+    for (; i <= sums.length - lanes; i += lanes) {
+      DoubleVector.fromArray(DOUBLES, sums, i)
+          .add(DoubleVector.fromArray(DOUBLES, values, i).mul(weight)).intoArray(sums, i);
+    }
+    return i;
+  }
+
+  /**
+   * Adds weighted fixed-point values to sums, as the vertical pass of a separable kernel does.
+   *
+   * @param sums   The sums.
+   * @param values The values, at least as many as the sums.
+   * @param weight The fixed-point weight of the values.
+   * @return The number of leading sums updated.
+   */
+  public static int accumulate(long[] sums, int[] values, long weight) {
+    int lanes = INTS.length();
+    int half = LONGS.length();
+    int i = 0;
+    for (; i <= sums.length - lanes; i += lanes) {
+      IntVector value = IntVector.fromArray(INTS, values, i);
+      LongVector low = (LongVector) value.convert(VectorOperators.I2L, 0);
+      LongVector high = (LongVector) value.convert(VectorOperators.I2L, 1);
+      LongVector.fromArray(LONGS, sums, i).add(low.mul(weight)).intoArray(sums, i);
+      LongVector.fromArray(LONGS, sums, i + half).add(high.mul(weight))
+          .intoArray(sums, i + half);
+    }
+    return i;
+  }
+
+  /**
+   * Converts one half of the lanes of an int vector to doubles, as a cast does.
+   *
+   * @param values The ints.
+   * @param part   0 for the lower half of the lanes, 1 for the upper half.
+   * @return The doubles.
+   */
+  private static DoubleVector toDouble(IntVector values, int part) {
+    return (DoubleVector) values.convert(VectorOperators.I2D, part);
+  }
+
+  /**
+   * Truncates doubles to ints, as a cast does, into one half of the lanes of an int vector.
+   *
+   * @param values The doubles.
+   * @param part   0 for the lower half of the lanes, -1 for the upper half.
+   * @return The ints, with the other half of the lanes zero.
+   */
+  private static IntVector toInt(DoubleVector values, int part) {
+    return (IntVector) values.convert(VectorOperators.D2I, part);
+  }
+}
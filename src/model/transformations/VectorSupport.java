@@ -0,0 +1,48 @@
+package model.transformations;
+
+/**
+ * Represents the choice between the vectorized and the scalar loops of the transformations.
+ * The vectorized loops in VectorKernels use the incubating Vector API, which is only present
+ * when the program runs with --add-modules jdk.incubator.vector. Without it the scalar loops are
+ * always used, and VectorKernels is never loaded.
+ */
+public final class VectorSupport {
+  private static final boolean AVAILABLE = ModuleLayer.boot()
+      .findModule("jdk.incubator.vector").isPresent();
+
+  private static volatile boolean enabled = AVAILABLE;
+
+  /**
+   * Prevents instantiation, as this class only has static members.
+   */
+  private VectorSupport() {
+  }
+
+  /**
+   * Checks whether the Vector API is present in this run of the program.
+   *
+   * @return True if the vectorized loops can be used, false otherwise.
+   */
+  public static boolean isAvailable() {
+    return AVAILABLE;
+  }
+
+  /**
+   * Checks whether transformations use the vectorized loops.
+   *
+   * @return True if the vectorized loops are used, false if the scalar loops are used.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Sets whether transformations use the vectorized loops. Enabling them has no effect when the
+   * Vector API is not available.
+   *
+   * @param enabled True to use the vectorized loops, false to use the scalar loops.
+   */
+  public static void setEnabled(boolean enabled) {
+    VectorSupport.enabled = enabled && AVAILABLE;
+  }
+}
@@ -1,71 +1,31 @@
 package model.transformations.filter;
 
-import model.image.IImage;
-import model.image.IImageState;
-import model.image.ImageImpl;
-import model.transformations.ITransformation;
+import model.transformations.Arithmetic;
 
 /**
- * Implements the ITransformation interface.
+ * Extends the ConvolutionTransformation class.
+ * Blurs the image with a 3x3 Gaussian kernel, treating pixels outside the image as black. The
+ * kernel is separable, so it runs as two passes of three weights.
  */
-public class BlurTransformation implements ITransformation {
-
+public class BlurTransformation extends ConvolutionTransformation {
   /**
-   * Clamps the given value to the range of [0, 255].
-   *
-   * @param value The value to be clamped.
-   * @return The clamped value, ensuring it lies within the range [0, 255].
+   * Constructs a new BlurTransformation.
    */
-  private int clamp(int value) {
-    if (value < 0) {
-      return 0;
-    }
-    if (value > 255) {
-      return 255;
-    }
-    return value;
+  public BlurTransformation() {
+    this(Arithmetic.DOUBLE);
   }
 
-  @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    double[][] kernel = {
+  /**
+   * Constructs a new BlurTransformation with the specified arithmetic.
+   *
+   * @param arithmetic The arithmetic of the sums.
+   * @throws NullPointerException If the arithmetic is null.
+   */
+  public BlurTransformation(Arithmetic arithmetic) {
+    super(new Kernel(new double[][] {
         {1.0 / 16, 1.0 / 8, 1.0 / 16},
         {1.0 / 8, 1.0 / 4, 1.0 / 8},
         {1.0 / 16, 1.0 / 8, 1.0 / 16}
-    };
-
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col++) {
-
-        double redSum = 0;
-        double greenSum = 0;
-        double blueSum = 0;
-
-        for (int kernelRow = 0; kernelRow < kernel.length; kernelRow++) {
-          for (int kernelCol = 0; kernelCol < kernel[kernelRow].length; kernelCol++) {
-
-            int sumRow = row + kernelRow - 1;
-            int sumCol = col + kernelCol - 1;
-
-            if (sumRow >= 0 && sumRow < sourceImage.getHeight() && sumCol >= 0
-                    && sumCol < sourceImage.getWidth()) {
-              redSum += kernel[kernelRow][kernelCol]
-                      * sourceImage.getRedChannel(sumCol, sumRow);
-              greenSum += kernel[kernelRow][kernelCol]
-                      * sourceImage.getGreenChannel(sumCol, sumRow);
-              blueSum += kernel[kernelRow][kernelCol]
-                      * sourceImage.getBlueChannel(sumCol, sumRow);
-            }
-          }
-        }
-        int newR = clamp((int) redSum);
-        int newG = clamp((int) greenSum);
-        int newB = clamp((int) blueSum);
-        newImage.setPixel(col, row, newR, newG, newB);
-      }
-    }
-    return newImage;
+    }), BorderMode.ZERO, arithmetic);
   }
 }
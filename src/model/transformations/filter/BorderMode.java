@@ -0,0 +1,50 @@
+package model.transformations.filter;
+
+/**
+ * Represents the ways a convolution reads pixels that lie outside the image.
+ */
+public enum BorderMode {
+  /**
+   * Pixels outside the image are black, so they add nothing to the weighted sum.
+   */
+  ZERO {
+    @Override
+    public int map(int index, int length) {
+      return index >= 0 && index < length ? index : -1;
+    }
+  },
+
+  /**
+   * Pixels outside the image repeat the nearest edge pixel.
+   */
+  CLAMP {
+    @Override
+    public int map(int index, int length) {
+      return Math.max(0, Math.min(length - 1, index));
+    }
+  },
+
+  /**
+   * Pixels outside the image mirror the pixels inside it, without repeating the edge pixel.
+   */
+  MIRROR {
+    @Override
+    public int map(int index, int length) {
+      if (length == 1) {
+        return 0;
+      }
+      int period = 2 * (length - 1);
+      int folded = Math.floorMod(index, period);
+      return folded < length ? folded : period - folded;
+    }
+  };
+
+  /**
+   * Maps a row or column index that may lie outside the image to the index that is read instead.
+   *
+   * @param index  The row or column index, which may be negative or too large.
+   * @param length The number of rows or columns of the image, which must be positive.
+   * @return The index to read, or -1 if nothing is read.
+   */
+  public abstract int map(int index, int length);
+}
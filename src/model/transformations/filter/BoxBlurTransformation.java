@@ -0,0 +1,296 @@
+package model.transformations.filter;
+
+import model.image.IImage;
+import model.image.IImageState;
+import model.image.ImageStorage;
+import model.image.Parallelism;
+import model.image.PixelBufferPool;
+import model.transformations.ITransformation;
+
+import java.util.Objects;
+
+/**
+ * Implements the ITransformation interface.
+ * Every channel of the result is the average of the channels of the source pixels in a square
+ * window centered on the pixel, rounded to the nearest integer. Each pass runs as a horizontal
+ * and a vertical sliding sum, which adds the pixel entering the window and subtracts the pixel
+ * leaving it, so the cost per pixel does not depend on the radius. Several passes of different
+ * radii can be chained, each rounding its result. Pixels outside the image are read according to
+ * the border mode, and every window is divided by its full size. The rows are split into bands as
+ * the parallelism allows. The helper tables of a pass grow with its radius, so radii are bounded
+ * by MAX_RADIUS.
+ */
+public class BoxBlurTransformation implements ITransformation {
+  /**
+   * The largest radius of a pass, which keeps the table of rounded averages of a pass at a few
+   * megabytes.
+   */
+  public static final int MAX_RADIUS = 4096;
+
+  private final int[] radii;
+  private final BorderMode borderMode;
+
+  /**
+   * Constructs a new BoxBlurTransformation of one pass with the specified radius, repeating the
+   * nearest edge pixel outside the image.
+   *
+   * @param radius The radius of the window in pixels.
+   * @throws IllegalArgumentException If the radius is negative or larger than MAX_RADIUS.
+   */
+  public BoxBlurTransformation(int radius) {
+    this(new int[] {radius}, BorderMode.CLAMP);
+  }
+
+  /**
+   * Constructs a new BoxBlurTransformation that runs one pass for each of the specified radii.
+   *
+   * @param radii      The radius of the window of each pass in pixels.
+   * @param borderMode The way pixels outside the image are read.
+   * @throws IllegalArgumentException If there are no radii, or a radius is negative or larger
+   *                                  than MAX_RADIUS.
+   * @throws NullPointerException     If the radii or border mode are null.
+   */
+  public BoxBlurTransformation(int[] radii, BorderMode borderMode) {
+    Objects.requireNonNull(radii);
+    if (radii.length == 0) {
+      throw new IllegalArgumentException("there must be at least one pass");
+    }
+    for (int radius : radii) {
+      if (radius < 0) {
+        throw new IllegalArgumentException("radius must not be negative");
+      }
+      if (radius > MAX_RADIUS) {
+        throw new IllegalArgumentException("radius must be at most " + MAX_RADIUS);
+      }
+    }
+    this.radii = radii.clone();
+    this.borderMode = Objects.requireNonNull(borderMode);
+  }
+
+  /**
+   * Gets the radii of the passes of this blur.
+   *
+   * @return A copy of the radius of each pass in pixels.
+   */
+  public int[] getRadii() {
+    return this.radii.clone();
+  }
+
+  /**
+   * Gets the border mode of this blur.
+   *
+   * @return The way pixels outside the image are read.
+   */
+  public BorderMode getBorderMode() {
+    return this.borderMode;
+  }
+
+  @Override
+  public int getHalo() {
+    int halo = 0;
+    for (int radius : this.radii) {
+      halo += radius;
+    }
+    return halo;
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage) {
+    return run(sourceImage, Parallelism.getDefault());
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage, Parallelism parallelism) {
+    Objects.requireNonNull(parallelism);
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+    if (width == 0 || height == 0) {
+      return ImageStorage.getDefault().create(width, height);
+    }
+
+    int length = Math.multiplyExact(width, height);
+    int[] pixels = PixelBufferPool.getShared().acquire(length);
+    int[] filtered = PixelBufferPool.getShared().acquire(length);
+    parallelism.forEachBand(width, height, (fromRow, toRow) -> sourceImage.getRGB(0, fromRow,
+        width, toRow - fromRow, pixels, fromRow * width, width));
+
+    for (int radius : this.radii) {
+      if (radius == 0) {
+        continue;
+      }
+      int[] quotients = quotients(2 * radius + 1);
+      int[] columns = mapPositions(width, radius);
+      int[] rows = mapPositions(height, radius);
+      parallelism.forEachBand(width, height, (fromRow, toRow) ->
+          filterRows(pixels, filtered, width, columns, quotients, radius, fromRow, toRow));
+      parallelism.forEachBand(width, height, (fromRow, toRow) ->
+          filterColumns(filtered, pixels, width, rows, quotients, radius, fromRow, toRow));
+    }
+
+    PixelBufferPool.getShared().release(filtered);
+    return ImageStorage.getDefault().create(width, height, pixels);
+  }
+
+  /**
+   * Maps every position a sliding window of the given radius visits to the position read.
+   * Entry i holds the position i - radius - 1, so the window of position p adds entry
+   * p + 2 * radius + 1 and subtracts entry p.
+   *
+   * @param length The number of rows or columns of the image.
+   * @param radius The radius of the window.
+   * @return The position read for each visited position, or -1 for none.
+   */
+  private int[] mapPositions(int length, int radius) {
+    int[] positions = new int[length + 2 * radius + 1];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = this.borderMode.map(i - radius - 1, length);
+    }
+    return positions;
+  }
+
+  /**
+   * Computes the rounded quotient of every channel sum of a window by the size of the window.
+   *
+   * @param size The number of pixels in the window.
+   * @return The rounded average for each sum from 0 to 255 * size.
+   */
+  private static int[] quotients(int size) {
+    int[] quotients = new int[255 * size + 1];
+    for (int sum = 0; sum < quotients.length; sum++) {
+      quotients[sum] = (2 * sum + size) / (2 * size);
+    }
+    return quotients;
+  }
+
+  /**
+   * Averages a band of rows over a horizontal window.
+   *
+   * @param source    The packed pixels to read.
+   * @param target    The packed pixels to write.
+   * @param width     The width of the image.
+   * @param columns   The column read for each visited column, as made by mapPositions.
+   * @param quotients The rounded average for each channel sum.
+   * @param radius    The radius of the window.
+   * @param fromRow   The first row to compute.
+   * @param toRow     The row after the last row to compute.
+   */
+  private static void filterRows(int[] source, int[] target, int width, int[] columns,
+                                 int[] quotients, int radius, int fromRow, int toRow) {
+    int span = 2 * radius + 1;
+    for (int row = fromRow; row < toRow; row++) {
+      int offset = row * width;
+      int redSum = 0;
+      int greenSum = 0;
+      int blueSum = 0;
+      for (int i = 0; i < span; i++) {
+        int col = columns[i];
+        if (col >= 0) {
+          int pixel = source[offset + col];
+          redSum += (pixel >> 16) & 0xFF;
+          greenSum += (pixel >> 8) & 0xFF;
+          blueSum += pixel & 0xFF;
+        }
+      }
+
+      for (int col = 0; col < width; col++) {
+        int entering = columns[col + span];
+        if (entering >= 0) {
+          int pixel = source[offset + entering];
+          redSum += (pixel >> 16) & 0xFF;
+          greenSum += (pixel >> 8) & 0xFF;
+          blueSum += pixel & 0xFF;
+        }
+        int leaving = columns[col];
+        if (leaving >= 0) {
+          int pixel = source[offset + leaving];
+          redSum -= (pixel >> 16) & 0xFF;
+          greenSum -= (pixel >> 8) & 0xFF;
+          blueSum -= pixel & 0xFF;
+        }
+        target[offset + col] = 0xFF000000 | (quotients[redSum] << 16)
+            | (quotients[greenSum] << 8) | quotients[blueSum];
+      }
+    }
+  }
+
+  /**
+   * Averages a band of rows over a vertical window, keeping a running sum for every column.
+   * The sums start from the window of the row above the band, so each band reads the halo rows
+   * it needs.
+   *
+   * @param source    The packed pixels to read.
+   * @param target    The packed pixels to write.
+   * @param width     The width of the image.
+   * @param rows      The row read for each visited row, as made by mapPositions.
+   * @param quotients The rounded average for each channel sum.
+   * @param radius    The radius of the window.
+   * @param fromRow   The first row to compute.
+   * @param toRow     The row after the last row to compute.
+   */
+  private static void filterColumns(int[] source, int[] target, int width, int[] rows,
+                                    int[] quotients, int radius, int fromRow, int toRow) {
+    int span = 2 * radius + 1;
+    int[] sums = new int[3 * width];
+    for (int i = fromRow; i < fromRow + span; i++) {
+      if (rows[i] >= 0) {
+        addRow(source, rows[i] * width, sums, width, 1);
+      }
+    }
+
+    for (int row = fromRow; row < toRow; row++) {
+      int entering = rows[row + span];
+      int leaving = rows[row];
+      if (entering >= 0 && leaving >= 0) {
+        slideRow(source, entering * width, leaving * width, sums, width);
+      } else if (entering >= 0) {
+        addRow(source, entering * width, sums, width, 1);
+      } else if (leaving >= 0) {
+        addRow(source, leaving * width, sums, width, -1);
+      }
+
+      int offset = row * width;
+      for (int col = 0; col < width; col++) {
+        target[offset + col] = 0xFF000000 | (quotients[sums[col]] << 16)
+            | (quotients[sums[width + col]] << 8) | quotients[sums[2 * width + col]];
+      }
+    }
+  }
+
+  /**
+   * Adds or subtracts the channels of one row to the running sums of every column.
+   *
+   * @param source The packed pixels to read.
+   * @param offset The index of the first pixel of the row.
+   * @param sums   The red, green and blue sums of every column, one plane after another.
+   * @param width  The width of the image.
+   * @param sign   1 to add the row, -1 to subtract it.
+   */
+  private static void addRow(int[] source, int offset, int[] sums, int width, int sign) {
+    for (int col = 0; col < width; col++) {
+      int pixel = source[offset + col];
+      sums[col] += sign * ((pixel >> 16) & 0xFF);
+      sums[width + col] += sign * ((pixel >> 8) & 0xFF);
+      sums[2 * width + col] += sign * (pixel & 0xFF);
+    }
+  }
+
+  /**
+   * Adds the channels of the row entering the window and subtracts those of the row leaving it
+   * from the running sums of every column.
+   *
+   * @param source   The packed pixels to read.
+   * @param entering The index of the first pixel of the row entering the window.
+   * @param leaving  The index of the first pixel of the row leaving the window.
+   * @param sums     The red, green and blue sums of every column, one plane after another.
+   * @param width    The width of the image.
+   */
+  private static void slideRow(int[] source, int entering, int leaving, int[] sums, int width) {
+    for (int col = 0; col < width; col++) {
+      int added = source[entering + col];
+      int removed = source[leaving + col];
+      sums[col] += ((added >> 16) & 0xFF) - ((removed >> 16) & 0xFF);
+      sums[width + col] += ((added >> 8) & 0xFF) - ((removed >> 8) & 0xFF);
+      sums[2 * width + col] += (added & 0xFF) - (removed & 0xFF);
+    }
+  }
+}
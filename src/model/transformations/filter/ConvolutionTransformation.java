@@ -0,0 +1,807 @@
+package model.transformations.filter;
+
+import model.image.IImage;
+import model.image.IImageState;
+import model.image.IReleasableImage;
+import model.image.ImageStorage;
+import model.image.Parallelism;
+import model.image.PointwiseView;
+import model.transformations.Arithmetic;
+import model.transformations.ITransformation;
+import model.transformations.VectorKernels;
+import model.transformations.VectorSupport;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implements the ITransformation interface.
+ * Every channel of the result is the sum of the channels of the neighbouring source pixels,
+ * weighted by a kernel centered on the pixel, truncated to an integer and clamped to [0, 255].
+ * Separable kernels run as a horizontal pass followed by a vertical pass over a small ring of
+ * rows; other kernels visit every weight for every pixel, or, from FOURIER_MIN_WEIGHTS weights
+ * in double arithmetic, are computed through the fast Fourier transform by FourierConvolution.
+ * Pixels outside the image are read according to the border mode. Only the columns within the
+ * kernel radius of an edge can reach outside the image, so the other columns are computed by a
+ * separate loop without border checks. The sums use double or fixed-point arithmetic; a
+ * separable kernel in fixed-point arithmetic counts the weights of both passes towards the error
+ * bound. The rows are split into bands as the parallelism allows, and each band reads the halo
+ * rows it needs.
+ */
+public class ConvolutionTransformation implements ITransformation {
+  /**
+   * The fewest weights of a kernel that is not separable for which the double sums are computed
+   * through the fast Fourier transform instead of directly. On a 1080p image the transform
+   * overtakes the direct loop at 5x5 weights, and the vectorized direct loop at 7x7.
+   */
+  public static final int FOURIER_MIN_WEIGHTS = 7 * 7;
+
+  private final Kernel kernel;
+  private final BorderMode borderMode;
+  private final Arithmetic arithmetic;
+  private final int[][] fixedWeights;
+  private final int[] fixedHorizontal;
+  private final int[] fixedVertical;
+  private final FourierConvolution fourier;
+
+  /**
+   * Constructs a new ConvolutionTransformation that treats pixels outside the image as black.
+   *
+   * @param kernel The weights of the convolution.
+   * @throws NullPointerException If the kernel is null.
+   */
+  public ConvolutionTransformation(Kernel kernel) {
+    this(kernel, BorderMode.ZERO);
+  }
+
+  /**
+   * Constructs a new ConvolutionTransformation with the specified kernel and border mode.
+   *
+   * @param kernel     The weights of the convolution.
+   * @param borderMode The way pixels outside the image are read.
+   * @throws NullPointerException If the kernel or border mode is null.
+   */
+  public ConvolutionTransformation(Kernel kernel, BorderMode borderMode) {
+    this(kernel, borderMode, Arithmetic.DOUBLE);
+  }
+
+  /**
+   * Constructs a new ConvolutionTransformation with the specified kernel, border mode and
+   * arithmetic.
+   *
+   * @param kernel     The weights of the convolution.
+   * @param borderMode The way pixels outside the image are read.
+   * @param arithmetic The arithmetic of the sums.
+   * @throws IllegalArgumentException If a fixed-point sum could overflow.
+   * @throws NullPointerException     If the kernel, border mode or arithmetic is null.
+   */
+  public ConvolutionTransformation(Kernel kernel, BorderMode borderMode, Arithmetic arithmetic) {
+    this.kernel = Objects.requireNonNull(kernel);
+    this.borderMode = Objects.requireNonNull(borderMode);
+    this.arithmetic = Objects.requireNonNull(arithmetic);
+
+    if (arithmetic != Arithmetic.FIXED_POINT) {
+      this.fixedWeights = null;
+      this.fixedHorizontal = null;
+      this.fixedVertical = null;
+    } else if (kernel.isSeparable()) {
+      this.fixedWeights = null;
+      this.fixedHorizontal = toFixedPoint(kernel.horizontal(), 255);
+      this.fixedVertical = toFixedPoint(kernel.vertical(), 1);
+    } else {
+      this.fixedHorizontal = null;
+      this.fixedVertical = null;
+      double[][] weights = kernel.weights();
+      this.fixedWeights = new int[weights.length][];
+      long bound = 0;
+      for (int row = 0; row < weights.length; row++) {
+        this.fixedWeights[row] = toFixedPoint(weights[row], 255);
+        for (int weight : this.fixedWeights[row]) {
+          bound += Math.abs((long) weight) * 255;
+        }
+      }
+      checkBound(bound);
+    }
+
+    boolean large = (long) kernel.getWidth() * kernel.getHeight() >= FOURIER_MIN_WEIGHTS;
+    this.fourier = arithmetic == Arithmetic.DOUBLE && !kernel.isSeparable() && large
+        ? new FourierConvolution(kernel, borderMode) : null;
+  }
+
+  /**
+   * Rounds weights to fixed point, checking that a sum of them multiplied by values up to the
+   * given maximum fits in an int.
+   *
+   * @param weights The weights.
+   * @param maximum The largest value a weight is multiplied by.
+   * @return The fixed-point weights.
+   * @throws IllegalArgumentException If the sum could overflow.
+   */
+  private static int[] toFixedPoint(double[] weights, long maximum) {
+    int[] fixed = new int[weights.length];
+    long bound = 0;
+    for (int i = 0; i < weights.length; i++) {
+      long weight = Arithmetic.toFixedPoint(weights[i]);
+      bound += Math.abs(weight) * maximum;
+      checkBound(bound);
+      fixed[i] = (int) weight;
+    }
+    return fixed;
+  }
+
+  /**
+   * Checks that a bound on a fixed-point sum fits in an int.
+   *
+   * @param bound The bound.
+   * @throws IllegalArgumentException If the bound does not fit in an int.
+   */
+  private static void checkBound(long bound) {
+    if (bound > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("kernel too large for fixed-point arithmetic");
+    }
+  }
+
+  /**
+   * Gets the kernel of this convolution.
+   *
+   * @return The kernel.
+   */
+  public Kernel getKernel() {
+    return this.kernel;
+  }
+
+  /**
+   * Gets the border mode of this convolution.
+   *
+   * @return The way pixels outside the image are read.
+   */
+  public BorderMode getBorderMode() {
+    return this.borderMode;
+  }
+
+  /**
+   * Gets the arithmetic of the sums of this convolution.
+   *
+   * @return The arithmetic.
+   */
+  public Arithmetic getArithmetic() {
+    return this.arithmetic;
+  }
+
+  /**
+   * Clamps the given value to the range of [0, 255].
+   *
+   * @param value The value to be clamped.
+   * @return The clamped value, ensuring it lies within the range [0, 255].
+   */
+  private int clamp(int value) {
+    if (value < 0) {
+      return 0;
+    }
+    if (value > 255) {
+      return 255;
+    }
+    return value;
+  }
+
+  @Override
+  public int getHalo() {
+    return Math.max(this.kernel.getWidth(), this.kernel.getHeight()) / 2;
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage) {
+    return run(sourceImage, Parallelism.getDefault());
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage, Parallelism parallelism) {
+    if (sourceImage instanceof PointwiseView) {
+      IImage materialized = ((PointwiseView) sourceImage).materialize();
+      IImageState convolvedImage = run(materialized, parallelism);
+      if (materialized instanceof IReleasableImage) {
+        ((IReleasableImage) materialized).release();
+      }
+      return convolvedImage;
+    }
+
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+    IImage newImage = ImageStorage.getDefault().create(width, height);
+    if (width == 0 || height == 0) {
+      return newImage;
+    }
+    if (this.fourier != null) {
+      this.fourier.convolve(sourceImage, newImage, parallelism);
+      return newImage;
+    }
+    parallelism.forEachBand(width, height, (fromRow, toRow) -> {
+      if (this.fixedHorizontal != null) {
+        convolveSeparableFixed(sourceImage, newImage, fromRow, toRow);
+      } else if (this.fixedWeights != null) {
+        convolveFixed(sourceImage, newImage, fromRow, toRow);
+      } else if (this.kernel.isSeparable()) {
+        convolveSeparable(sourceImage, newImage, fromRow, toRow);
+      } else {
+        convolve(sourceImage, newImage, fromRow, toRow);
+      }
+    });
+    return newImage;
+  }
+
+  /**
+   * Applies a kernel that is not separable, visiting every weight for every pixel.
+   *
+   * @param sourceImage The image to read.
+   * @param newImage    The image to write, of the same size.
+   * @param fromRow     The first row to compute.
+   * @param toRow       The row after the last row to compute.
+   */
+  private void convolve(IImageState sourceImage, IImage newImage, int fromRow, int toRow) {
+    int width = sourceImage.getWidth();
+    double[][] weights = this.kernel.weights();
+    int radiusX = this.kernel.getWidth() / 2;
+
+    int[] columns = mapColumns(width, radiusX);
+    int[][] band = new int[this.kernel.getHeight()][];
+    int[] bandRows = new int[band.length];
+    int[][] lines = new int[band.length][];
+    int[] pixels = new int[width];
+    boolean vectorized = VectorSupport.isEnabled();
+
+    for (int row = fromRow; row < toRow; row++) {
+      loadLines(sourceImage, row, band, bandRows, lines);
+      int col = Math.min(radiusX, width);
+      int interiorEnd = Math.max(col, width - radiusX);
+      convolveColumns(lines, columns, weights, pixels, 0, col);
+      if (vectorized) {
+        col = VectorKernels.convolveRow(lines, col, width - radiusX, weights, pixels);
+      }
+      if (isComplete(lines)) {
+        convolveInterior(lines, radiusX, weights, pixels, col, interiorEnd);
+        col = interiorEnd;
+      }
+      convolveColumns(lines, columns, weights, pixels, col, width);
+      newImage.setRGB(0, row, width, 1, pixels, 0, width);
+    }
+  }
+
+  /**
+   * Computes a range of columns of one row of a kernel that is not separable.
+   *
+   * @param lines   The source row read by each kernel row, or null for a row that adds nothing.
+   * @param columns The source column read by each kernel position, or -1 for none.
+   * @param weights The weights of the kernel.
+   * @param pixels  The array that receives the pixels of the row.
+   * @param from    The first column to compute.
+   * @param to      The column after the last one to compute.
+   */
+  private void convolveColumns(int[][] lines, int[] columns, double[][] weights, int[] pixels,
+                               int from, int to) {
+    for (int col = from; col < to; col++) {
+      double redSum = 0;
+      double greenSum = 0;
+      double blueSum = 0;
+
+      for (int kernelRow = 0; kernelRow < weights.length; kernelRow++) {
+        int[] line = lines[kernelRow];
+        if (line == null) {
+          continue;
+        }
+        for (int kernelCol = 0; kernelCol < weights[kernelRow].length; kernelCol++) {
+          int sourceCol = columns[col + kernelCol];
+          if (sourceCol >= 0) {
+            int pixel = line[sourceCol];
+            double weight = weights[kernelRow][kernelCol];
+            redSum += weight * ((pixel >> 16) & 0xFF);
+            greenSum += weight * ((pixel >> 8) & 0xFF);
+            blueSum += weight * (pixel & 0xFF);
+          }
+        }
+      }
+      pixels[col] = (clamp((int) redSum) << 16) | (clamp((int) greenSum) << 8)
+          | clamp((int) blueSum);
+    }
+  }
+
+  /**
+   * Computes a range of interior columns of one row of a kernel that is not separable, where
+   * every kernel row reads a source row and every kernel column lies inside the image. The
+   * columns are read directly, so the loop has no border checks and gives the same sums as
+   * convolveColumns.
+   *
+   * @param lines   The source row read by each kernel row, none of them null.
+   * @param radiusX The horizontal radius of the kernel.
+   * @param weights The weights of the kernel.
+   * @param pixels  The array that receives the pixels of the row.
+   * @param from    The first column to compute, at least radiusX.
+   * @param to      The column after the last one to compute, at most the width minus radiusX.
+   */
+  private void convolveInterior(int[][] lines, int radiusX, double[][] weights, int[] pixels,
+                                int from, int to) {
+    for (int col = from; col < to; col++) {
+      double redSum = 0;
+      double greenSum = 0;
+      double blueSum = 0;
+      int first = col - radiusX;
+
+      for (int kernelRow = 0; kernelRow < weights.length; kernelRow++) {
+        int[] line = lines[kernelRow];
+        double[] rowWeights = weights[kernelRow];
+        for (int kernelCol = 0; kernelCol < rowWeights.length; kernelCol++) {
+          int pixel = line[first + kernelCol];
+          double weight = rowWeights[kernelCol];
+          redSum += weight * ((pixel >> 16) & 0xFF);
+          greenSum += weight * ((pixel >> 8) & 0xFF);
+          blueSum += weight * (pixel & 0xFF);
+        }
+      }
+      pixels[col] = (clamp((int) redSum) << 16) | (clamp((int) greenSum) << 8)
+          | clamp((int) blueSum);
+    }
+  }
+
+  /**
+   * Applies a separable kernel as a horizontal pass into a ring of rows, followed by a vertical
+   * pass over that ring. Each source row is filtered horizontally once.
+   *
+   * @param sourceImage The image to read.
+   * @param newImage    The image to write, of the same size.
+   * @param fromRow     The first row to compute.
+   * @param toRow       The row after the last row to compute.
+   */
+  private void convolveSeparable(IImageState sourceImage, IImage newImage, int fromRow, int toRow) {
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+    double[] horizontal = this.kernel.horizontal();
+    double[] vertical = this.kernel.vertical();
+    int radiusX = horizontal.length / 2;
+    int radiusY = vertical.length / 2;
+
+    int[] columns = mapColumns(width, radiusX);
+    int[] line = new int[width];
+    double[][] ring = new double[vertical.length][];
+    int[] ringRows = new int[vertical.length];
+    Arrays.fill(ringRows, -1);
+    double[] sums = new double[3 * width];
+    int[] pixels = new int[width];
+    boolean vectorized = VectorSupport.isEnabled();
+
+    for (int row = fromRow; row < toRow; row++) {
+      Arrays.fill(sums, 0);
+
+      for (int kernelRow = 0; kernelRow < vertical.length; kernelRow++) {
+        int sourceRow = this.borderMode.map(row + kernelRow - radiusY, height);
+        if (sourceRow < 0) {
+          continue;
+        }
+        int slot = sourceRow % ring.length;
+        if (ringRows[slot] != sourceRow) {
+          if (ring[slot] == null) {
+            ring[slot] = new double[3 * width];
+          }
+          sourceImage.getRGB(0, sourceRow, width, 1, line, 0, width);
+          int col = Math.min(radiusX, width);
+          int interiorEnd = Math.max(col, width - radiusX);
+          filterColumns(line, columns, horizontal, ring[slot], 0, col);
+          if (vectorized) {
+            col = VectorKernels.filterRow(line, col, width - radiusX, horizontal, ring[slot]);
+          }
+          filterInterior(line, horizontal, ring[slot], col, interiorEnd);
+          filterColumns(line, columns, horizontal, ring[slot], interiorEnd, width);
+          ringRows[slot] = sourceRow;
+        }
+
+        double weight = vertical[kernelRow];
+        double[] filtered = ring[slot];
+        int i = vectorized ? VectorKernels.accumulate(sums, filtered, weight) : 0;
+        for (; i < sums.length; i++) {
+          sums[i] += weight * filtered[i];
+        }
+      }
+
+      for (int col = 0; col < width; col++) {
+        pixels[col] = (clamp((int) sums[col]) << 16) | (clamp((int) sums[width + col]) << 8)
+            | clamp((int) sums[2 * width + col]);
+      }
+      newImage.setRGB(0, row, width, 1, pixels, 0, width);
+    }
+  }
+
+  /**
+   * Applies a kernel that is not separable with fixed-point weights, visiting every weight for
+   * every pixel.
+   *
+   * @param sourceImage The image to read.
+   * @param newImage    The image to write, of the same size.
+   * @param fromRow     The first row to compute.
+   * @param toRow       The row after the last row to compute.
+   */
+  private void convolveFixed(IImageState sourceImage, IImage newImage, int fromRow, int toRow) {
+    int width = sourceImage.getWidth();
+    int[][] weights = this.fixedWeights;
+    int radiusX = this.kernel.getWidth() / 2;
+
+    int[] columns = mapColumns(width, radiusX);
+    int[][] band = new int[this.kernel.getHeight()][];
+    int[] bandRows = new int[band.length];
+    int[][] lines = new int[band.length][];
+    int[] pixels = new int[width];
+    boolean vectorized = VectorSupport.isEnabled();
+
+    for (int row = fromRow; row < toRow; row++) {
+      loadLines(sourceImage, row, band, bandRows, lines);
+      int col = Math.min(radiusX, width);
+      int interiorEnd = Math.max(col, width - radiusX);
+      convolveColumnsFixed(lines, columns, weights, pixels, 0, col);
+      if (vectorized) {
+        col = VectorKernels.convolveRowFixed(lines, col, width - radiusX, weights, pixels);
+      }
+      if (isComplete(lines)) {
+        convolveInteriorFixed(lines, radiusX, weights, pixels, col, interiorEnd);
+        col = interiorEnd;
+      }
+      convolveColumnsFixed(lines, columns, weights, pixels, col, width);
+      newImage.setRGB(0, row, width, 1, pixels, 0, width);
+    }
+  }
+
+  /**
+   * Computes a range of columns of one row of a kernel that is not separable with fixed-point
+   * weights.
+   *
+   * @param lines   The source row read by each kernel row, or null for a row that adds nothing.
+   * @param columns The source column read by each kernel position, or -1 for none.
+   * @param weights The fixed-point weights of the kernel.
+   * @param pixels  The array that receives the pixels of the row.
+   * @param from    The first column to compute.
+   * @param to      The column after the last one to compute.
+   */
+  private void convolveColumnsFixed(int[][] lines, int[] columns, int[][] weights, int[] pixels,
+                                    int from, int to) {
+    for (int col = from; col < to; col++) {
+      int redSum = 0;
+      int greenSum = 0;
+      int blueSum = 0;
+
+      for (int kernelRow = 0; kernelRow < weights.length; kernelRow++) {
+        int[] line = lines[kernelRow];
+        if (line == null) {
+          continue;
+        }
+        for (int kernelCol = 0; kernelCol < weights[kernelRow].length; kernelCol++) {
+          int sourceCol = columns[col + kernelCol];
+          if (sourceCol >= 0) {
+            int pixel = line[sourceCol];
+            int weight = weights[kernelRow][kernelCol];
+            redSum += weight * ((pixel >> 16) & 0xFF);
+            greenSum += weight * ((pixel >> 8) & 0xFF);
+            blueSum += weight * (pixel & 0xFF);
+          }
+        }
+      }
+      pixels[col] = (clamp(redSum >> Arithmetic.FRACTION_BITS) << 16)
+          | (clamp(greenSum >> Arithmetic.FRACTION_BITS) << 8)
+          | clamp(blueSum >> Arithmetic.FRACTION_BITS);
+    }
+  }
+
+  /**
+   * Computes a range of interior columns of one row of a kernel that is not separable with
+   * fixed-point weights, without border checks, as convolveInterior does.
+   *
+   * @param lines   The source row read by each kernel row, none of them null.
+   * @param radiusX The horizontal radius of the kernel.
+   * @param weights The fixed-point weights of the kernel.
+   * @param pixels  The array that receives the pixels of the row.
+   * @param from    The first column to compute, at least radiusX.
+   * @param to      The column after the last one to compute, at most the width minus radiusX.
+   */
+  private void convolveInteriorFixed(int[][] lines, int radiusX, int[][] weights, int[] pixels,
+                                     int from, int to) {
+    for (int col = from; col < to; col++) {
+      int redSum = 0;
+      int greenSum = 0;
+      int blueSum = 0;
+      int first = col - radiusX;
+
+      for (int kernelRow = 0; kernelRow < weights.length; kernelRow++) {
+        int[] line = lines[kernelRow];
+        int[] rowWeights = weights[kernelRow];
+        for (int kernelCol = 0; kernelCol < rowWeights.length; kernelCol++) {
+          int pixel = line[first + kernelCol];
+          int weight = rowWeights[kernelCol];
+          redSum += weight * ((pixel >> 16) & 0xFF);
+          greenSum += weight * ((pixel >> 8) & 0xFF);
+          blueSum += weight * (pixel & 0xFF);
+        }
+      }
+      pixels[col] = (clamp(redSum >> Arithmetic.FRACTION_BITS) << 16)
+          | (clamp(greenSum >> Arithmetic.FRACTION_BITS) << 8)
+          | clamp(blueSum >> Arithmetic.FRACTION_BITS);
+    }
+  }
+
+  /**
+   * Applies a separable kernel with fixed-point weights. The horizontal pass keeps its sums with
+   * all their fraction bits, and the vertical pass accumulates them in longs, so the result is
+   * rounded only once.
+   *
+   * @param sourceImage The image to read.
+   * @param newImage    The image to write, of the same size.
+   * @param fromRow     The first row to compute.
+   * @param toRow       The row after the last row to compute.
+   */
+  private void convolveSeparableFixed(IImageState sourceImage, IImage newImage, int fromRow,
+                                      int toRow) {
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+    int[] horizontal = this.fixedHorizontal;
+    int[] vertical = this.fixedVertical;
+    int radiusX = horizontal.length / 2;
+    int radiusY = vertical.length / 2;
+    int shift = 2 * Arithmetic.FRACTION_BITS;
+
+    int[] columns = mapColumns(width, radiusX);
+    int[] line = new int[width];
+    int[][] ring = new int[vertical.length][];
+    int[] ringRows = new int[vertical.length];
+    Arrays.fill(ringRows, -1);
+    long[] sums = new long[3 * width];
+    int[] pixels = new int[width];
+    boolean vectorized = VectorSupport.isEnabled();
+
+    for (int row = fromRow; row < toRow; row++) {
+      Arrays.fill(sums, 0);
+
+      for (int kernelRow = 0; kernelRow < vertical.length; kernelRow++) {
+        int sourceRow = this.borderMode.map(row + kernelRow - radiusY, height);
+        if (sourceRow < 0) {
+          continue;
+        }
+        int slot = sourceRow % ring.length;
+        if (ringRows[slot] != sourceRow) {
+          if (ring[slot] == null) {
+            ring[slot] = new int[3 * width];
+          }
+          sourceImage.getRGB(0, sourceRow, width, 1, line, 0, width);
+          int col = Math.min(radiusX, width);
+          int interiorEnd = Math.max(col, width - radiusX);
+          filterColumnsFixed(line, columns, horizontal, ring[slot], 0, col);
+          if (vectorized) {
+            col = VectorKernels.filterRowFixed(line, col, width - radiusX, horizontal,
+                ring[slot]);
+          }
+          filterInteriorFixed(line, horizontal, ring[slot], col, interiorEnd);
+          filterColumnsFixed(line, columns, horizontal, ring[slot], interiorEnd, width);
+          ringRows[slot] = sourceRow;
+        }
+
+        long weight = vertical[kernelRow];
+        int[] filtered = ring[slot];
+        int i = vectorized ? VectorKernels.accumulate(sums, filtered, weight) : 0;
+        for (; i < sums.length; i++) {
+          sums[i] += weight * filtered[i];
+        }
+      }
+
+      for (int col = 0; col < width; col++) {
+        pixels[col] = (clamp((int) (sums[col] >> shift)) << 16)
+            | (clamp((int) (sums[width + col] >> shift)) << 8)
+            | clamp((int) (sums[2 * width + col] >> shift));
+      }
+      newImage.setRGB(0, row, width, 1, pixels, 0, width);
+    }
+  }
+
+  /**
+   * Filters a range of columns of one row with the horizontal weights of a separable kernel.
+   *
+   * @param line       The pixels of the source row.
+   * @param columns    The source column read by each kernel position, or -1 for none.
+   * @param horizontal The horizontal weights.
+   * @param filtered   The array that receives the red, green and blue sums of the row as three
+   *                   planes of the row length.
+   * @param from       The first column to filter.
+   * @param to         The column after the last one to filter.
+   */
+  private static void filterColumns(int[] line, int[] columns, double[] horizontal,
+                                    double[] filtered, int from, int to) {
+    int width = line.length;
+    for (int col = from; col < to; col++) {
+      double redSum = 0;
+      double greenSum = 0;
+      double blueSum = 0;
+      for (int kernelCol = 0; kernelCol < horizontal.length; kernelCol++) {
+        int sourceCol = columns[col + kernelCol];
+        if (sourceCol >= 0) {
+          int pixel = line[sourceCol];
+          redSum += horizontal[kernelCol] * ((pixel >> 16) & 0xFF);
+          greenSum += horizontal[kernelCol] * ((pixel >> 8) & 0xFF);
+          blueSum += horizontal[kernelCol] * (pixel & 0xFF);
+        }
+      }
+      filtered[col] = redSum;
+      filtered[width + col] = greenSum;
+      filtered[2 * width + col] = blueSum;
+    }
+  }
+
+  /**
+   * Filters a range of columns of one row with the fixed-point horizontal weights of a separable
+   * kernel.
+   *
+   * @param line       The pixels of the source row.
+   * @param columns    The source column read by each kernel position, or -1 for none.
+   * @param horizontal The fixed-point horizontal weights.
+   * @param filtered   The array that receives the red, green and blue sums of the row as three
+   *                   planes of the row length.
+   * @param from       The first column to filter.
+   * @param to         The column after the last one to filter.
+   */
+  private static void filterColumnsFixed(int[] line, int[] columns, int[] horizontal,
+                                         int[] filtered, int from, int to) {
+    int width = line.length;
+    for (int col = from; col < to; col++) {
+      int redSum = 0;
+      int greenSum = 0;
+      int blueSum = 0;
+      for (int kernelCol = 0; kernelCol < horizontal.length; kernelCol++) {
+        int sourceCol = columns[col + kernelCol];
+        if (sourceCol >= 0) {
+          int pixel = line[sourceCol];
+          redSum += horizontal[kernelCol] * ((pixel >> 16) & 0xFF);
+          greenSum += horizontal[kernelCol] * ((pixel >> 8) & 0xFF);
+          blueSum += horizontal[kernelCol] * (pixel & 0xFF);
+        }
+      }
+      filtered[col] = redSum;
+      filtered[width + col] = greenSum;
+      filtered[2 * width + col] = blueSum;
+    }
+  }
+
+  /**
+   * Filters a range of interior columns of one row with the horizontal weights of a separable
+   * kernel, where every kernel column lies inside the image. The columns are read directly, so
+   * the loop has no border checks and gives the same sums as filterColumns.
+   *
+   * @param line       The pixels of the source row.
+   * @param horizontal The horizontal weights.
+   * @param filtered   The array that receives the red, green and blue sums of the row as three
+   *                   planes of the row length.
+   * @param from       The first column to filter, at least the radius of the weights.
+   * @param to         The column after the last one to filter, at most the row length minus the
+   *                   radius of the weights.
+   */
+  private static void filterInterior(int[] line, double[] horizontal, double[] filtered,
+                                     int from, int to) {
+    int width = line.length;
+    int radius = horizontal.length / 2;
+    for (int col = from; col < to; col++) {
+      double redSum = 0;
+      double greenSum = 0;
+      double blueSum = 0;
+      int first = col - radius;
+      for (int kernelCol = 0; kernelCol < horizontal.length; kernelCol++) {
+        int pixel = line[first + kernelCol];
+        redSum += horizontal[kernelCol] * ((pixel >> 16) & 0xFF);
+        greenSum += horizontal[kernelCol] * ((pixel >> 8) & 0xFF);
+        blueSum += horizontal[kernelCol] * (pixel & 0xFF);
+      }
+      filtered[col] = redSum;
+      filtered[width + col] = greenSum;
+      filtered[2 * width + col] = blueSum;
+    }
+  }
+
+  /**
+   * Filters a range of interior columns of one row with the fixed-point horizontal weights of a
+   * separable kernel, without border checks, as filterInterior does.
+   *
+   * @param line       The pixels of the source row.
+   * @param horizontal The fixed-point horizontal weights.
+   * @param filtered   The array that receives the red, green and blue sums of the row as three
+   *                   planes of the row length.
+   * @param from       The first column to filter, at least the radius of the weights.
+   * @param to         The column after the last one to filter, at most the row length minus the
+   *                   radius of the weights.
+   */
+  private static void filterInteriorFixed(int[] line, int[] horizontal, int[] filtered,
+                                          int from, int to) {
+    int width = line.length;
+    int radius = horizontal.length / 2;
+    for (int col = from; col < to; col++) {
+      int redSum = 0;
+      int greenSum = 0;
+      int blueSum = 0;
+      int first = col - radius;
+      for (int kernelCol = 0; kernelCol < horizontal.length; kernelCol++) {
+        int pixel = line[first + kernelCol];
+        redSum += horizontal[kernelCol] * ((pixel >> 16) & 0xFF);
+        greenSum += horizontal[kernelCol] * ((pixel >> 8) & 0xFF);
+        blueSum += horizontal[kernelCol] * (pixel & 0xFF);
+      }
+      filtered[col] = redSum;
+      filtered[width + col] = greenSum;
+      filtered[2 * width + col] = blueSum;
+    }
+  }
+
+  /**
+   * Maps every column a kernel of the given radius can reach to the source column it reads.
+   * Entry col + k is the column read for output column col and kernel column k.
+   *
+   * @param width  The width of the image.
+   * @param radius The horizontal radius of the kernel.
+   * @return The source column of each position, or -1 where nothing is read.
+   */
+  private int[] mapColumns(int width, int radius) {
+    int[] columns = new int[width + 2 * radius];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = this.borderMode.map(i - radius, width);
+    }
+    return columns;
+  }
+
+  /**
+   * Loads the source rows read by the kernel rows of one output row into the band of rows.
+   *
+   * @param sourceImage The image to read.
+   * @param row         The output row.
+   * @param band        The loaded rows.
+   * @param bandRows    The source row held by each slot of the band.
+   * @param lines       The array that receives the source row read by each kernel row, or null
+   *                    for a kernel row that lies outside the image and adds nothing.
+   */
+  private void loadLines(IImageState sourceImage, int row, int[][] band, int[] bandRows,
+                         int[][] lines) {
+    int radiusY = lines.length / 2;
+    for (int kernelRow = 0; kernelRow < lines.length; kernelRow++) {
+      int sourceRow = this.borderMode.map(row + kernelRow - radiusY, sourceImage.getHeight());
+      lines[kernelRow] = sourceRow < 0 ? null
+          : band[loadRow(sourceImage, sourceRow, band, bandRows)];
+    }
+  }
+
+  /**
+   * Checks whether every kernel row of an output row reads a source row, which is the case for
+   * every row unless pixels outside the image are black.
+   *
+   * @param lines The source row read by each kernel row, or null for a row that adds nothing.
+   * @return True if no line is null.
+   */
+  private static boolean isComplete(int[][] lines) {
+    for (int[] line : lines) {
+      if (line == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Makes sure a source row is in the band of rows, reading it if needed.
+   * Rows are kept in the slot of their index modulo the band size, so the rows of one kernel
+   * window never evict each other.
+   *
+   * @param sourceImage The image to read.
+   * @param sourceRow   The row to load.
+   * @param band        The loaded rows.
+   * @param bandRows    The source row held by each slot of the band.
+   * @return The slot holding the row.
+   */
+  private static int loadRow(IImageState sourceImage, int sourceRow, int[][] band,
+                             int[] bandRows) {
+    int width = sourceImage.getWidth();
+    int slot = sourceRow % band.length;
+    if (band[slot] == null) {
+      band[slot] = new int[width];
+    } else if (bandRows[slot] == sourceRow) {
+      return slot;
+    }
+    sourceImage.getRGB(0, sourceRow, width, 1, band[slot], 0, width);
+    bandRows[slot] = sourceRow;
+    return slot;
+  }
+}
@@ -0,0 +1,87 @@
+package model.transformations.filter;
+
+/**
+ * Extends the BoxBlurTransformation class.
+ * Approximates a Gaussian blur with three box blurs whose combined variance matches that of the
+ * Gaussian, so the cost per pixel does not depend on the radius. From a radius of about 6 the
+ * result is on average within one level of GaussianBlurTransformation with the same radius,
+ * which is much slower for large radii; below that the boxes are too coarse to follow the
+ * Gaussian closely. Pixels outside the image repeat the nearest edge pixel, so the edges do not
+ * darken.
+ */
+public class FastGaussianBlurTransformation extends BoxBlurTransformation {
+  /**
+   * The number of box blurs that approximate the Gaussian.
+   */
+  private static final int PASSES = 3;
+
+  /**
+   * Constructs a new FastGaussianBlurTransformation with the specified radius and a standard
+   * deviation of a third of the radius, as GaussianBlurTransformation does.
+   *
+   * @param radius The radius of the blur in pixels.
+   * @throws IllegalArgumentException If the radius is not positive, or so large that a box pass
+   *                                  would exceed BoxBlurTransformation.MAX_RADIUS.
+   */
+  public FastGaussianBlurTransformation(int radius) {
+    this(checkRadius(radius) / 3.0, BorderMode.CLAMP);
+  }
+
+  /**
+   * Constructs a new FastGaussianBlurTransformation with the specified standard deviation and
+   * border mode.
+   *
+   * @param sigma      The standard deviation of the Gaussian in pixels.
+   * @param borderMode The way pixels outside the image are read.
+   * @throws IllegalArgumentException If sigma is not positive, or so large that a box pass would
+   *                                  exceed BoxBlurTransformation.MAX_RADIUS.
+   * @throws NullPointerException     If the border mode is null.
+   */
+  public FastGaussianBlurTransformation(double sigma, BorderMode borderMode) {
+    super(boxRadii(sigma), borderMode);
+  }
+
+  /**
+   * Computes the radii of box blurs whose combined variance is closest to that of a Gaussian.
+   * A box of odd width w has a variance of (w * w - 1) / 12, so the passes use the odd width
+   * just below the ideal one or the next odd width, in the proportion that matches best.
+   *
+   * @param sigma The standard deviation of the Gaussian in pixels.
+   * @return The radius of each pass.
+   * @throws IllegalArgumentException If sigma is not positive.
+   */
+  private static int[] boxRadii(double sigma) {
+    if (!(sigma > 0)) {
+      throw new IllegalArgumentException("sigma must be positive");
+    }
+    double variance = 12 * sigma * sigma;
+    int lower = (int) Math.floor(Math.sqrt(variance / PASSES + 1));
+    if (lower % 2 == 0) {
+      lower--;
+    }
+    long lowerPasses = Math.round((variance - PASSES * (lower * lower + 4.0 * lower + 3))
+        / (-4.0 * lower - 4));
+    lowerPasses = Math.max(0, Math.min(PASSES, lowerPasses));
+
+    int[] radii = new int[PASSES];
+    for (int pass = 0; pass < PASSES; pass++) {
+      int boxWidth = pass < lowerPasses ? lower : lower + 2;
+      radii[pass] = boxWidth / 2;
+    }
+    return radii;
+  }
+
+  /**
+   * Checks that a blur radius is positive.
+   *
+   * @param radius The radius.
+   * @return The radius.
+   * @throws IllegalArgumentException If the radius is not positive.
+   */
+  private static int checkRadius(int radius) {
+    if (radius <= 0) {
+      throw new IllegalArgumentException("radius must be positive");
+    }
+    return radius;
+  }
+}
@@ -0,0 +1,322 @@
+package model.transformations.filter;
+
+import model.image.IImage;
+import model.image.IImageState;
+import model.image.Parallelism;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the convolution of images with one kernel computed through the fast Fourier
+ * transform, which ConvolutionTransformation uses for large kernels.
+ * The image is split into tiles that are convolved one block at a time by overlap-save: each
+ * block holds a tile and the halo of source pixels around it, read according to the border
+ * mode, so the circular convolution of the block gives exactly the sums of the tile. The red and
+ * green channels are transformed together as the real and imaginary parts of one complex block,
+ * and the blue channel as a second block. The block size is the power of two that needs the
+ * least work for the image, and the spectrum of the kernel is computed once per block size and
+ * kept for later calls. The sums are the same as the direct ones up to rounding, so a channel
+ * can differ by 1 where a sum falls next to an integer. Tile rows are split into bands as the
+ * parallelism allows.
+ */
+final class FourierConvolution {
+  /**
+   * The amount added to every sum before it is truncated, so that sums which should be exact
+   * integers do not fall just below them through rounding.
+   */
+  private static final double ROUNDING_SLACK = 1e-7;
+
+  /**
+   * The largest block size chosen when a smaller one can hold the kernel.
+   */
+  private static final int MAX_BLOCK_SIZE = 1024;
+
+  private final Kernel kernel;
+  private final BorderMode borderMode;
+  private final Map<Integer, double[][]> spectra;
+
+  /**
+   * Constructs a new FourierConvolution with the specified kernel and border mode.
+   *
+   * @param kernel     The weights of the convolution.
+   * @param borderMode The way pixels outside the image are read.
+   */
+  FourierConvolution(Kernel kernel, BorderMode borderMode) {
+    this.kernel = kernel;
+    this.borderMode = borderMode;
+    this.spectra = new ConcurrentHashMap<Integer, double[][]>();
+  }
+
+  /**
+   * Clamps the given value to the range of [0, 255].
+   *
+   * @param value The value to be clamped.
+   * @return The clamped value, ensuring it lies within the range [0, 255].
+   */
+  private int clamp(int value) {
+    if (value < 0) {
+      return 0;
+    }
+    if (value > 255) {
+      return 255;
+    }
+    return value;
+  }
+
+  /**
+   * Chooses the block size that needs the least work for an image: the number of blocks times
+   * the cost of the transforms of one block.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @return The block size, a power of two at least as large as the kernel.
+   */
+  int blockSize(int width, int height) {
+    int kernelWidth = this.kernel.getWidth();
+    int kernelHeight = this.kernel.getHeight();
+    int smallest = Integer.highestOneBit(Math.max(kernelWidth, kernelHeight) * 2 - 1);
+    int largest = Math.max(smallest, MAX_BLOCK_SIZE);
+    int best = smallest;
+    double bestCost = Double.MAX_VALUE;
+    for (int size = smallest; size <= largest; size *= 2) {
+      long tiles = (long) ceilDiv(width, size - kernelWidth + 1)
+          * ceilDiv(height, size - kernelHeight + 1);
+      double cost = (double) tiles * size * size * Integer.numberOfTrailingZeros(size);
+      if (cost < bestCost) {
+        best = size;
+        bestCost = cost;
+      }
+      if (size - kernelWidth + 1 >= width && size - kernelHeight + 1 >= height) {
+        break;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Divides and rounds up.
+   *
+   * @param dividend The dividend, not negative.
+   * @param divisor  The divisor, positive.
+   * @return The rounded up quotient.
+   */
+  private static int ceilDiv(int dividend, int divisor) {
+    return (int) (((long) dividend + divisor - 1) / divisor);
+  }
+
+  /**
+   * Convolves an image into another image of the same size.
+   *
+   * @param sourceImage The image to read, not empty.
+   * @param newImage    The image to write.
+   * @param parallelism The way the tile rows are split across threads.
+   */
+  void convolve(IImageState sourceImage, IImage newImage, Parallelism parallelism) {
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+    int size = blockSize(width, height);
+    int tileWidth = size - this.kernel.getWidth() + 1;
+    int tileHeight = size - this.kernel.getHeight() + 1;
+    double[][] spectrum = spectrum(size);
+    int[] columns = new int[width + size];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = this.borderMode.map(i - this.kernel.getWidth() / 2, width);
+    }
+
+    int tileRows = ceilDiv(height, tileHeight);
+    parallelism.forEachBand(width * tileHeight, tileRows, (fromTile, toTile) -> {
+      Block block = new Block(size, width);
+      for (int tile = fromTile; tile < toTile; tile++) {
+        int top = tile * tileHeight;
+        int rows = Math.min(tileHeight, height - top);
+        block.loadLines(sourceImage, top, rows);
+        for (int left = 0; left < width; left += tileWidth) {
+          int cols = Math.min(tileWidth, width - left);
+          block.fill(columns, left, cols, rows);
+          block.convolve(spectrum, rows);
+          block.store(newImage, left, top, cols, rows);
+        }
+      }
+    });
+  }
+
+  /**
+   * Gets the spectrum of the kernel for a block size, computing it on first use. The kernel is
+   * placed so that the circular convolution of a block at (x + radius, y + radius) is the sum of
+   * the kernel over the block pixels from (x, y), and it is divided by the square of the size so
+   * that the inverse transform needs no scaling.
+   *
+   * @param size The block size.
+   * @return The real and imaginary parts of the spectrum.
+   */
+  private double[][] spectrum(int size) {
+    return this.spectra.computeIfAbsent(size, key -> {
+      int radiusX = this.kernel.getWidth() / 2;
+      int radiusY = this.kernel.getHeight() / 2;
+      double scale = 1.0 / ((double) size * size);
+      double[] re = new double[size * size];
+      double[] im = new double[size * size];
+      for (int row = 0; row < this.kernel.getHeight(); row++) {
+        for (int col = 0; col < this.kernel.getWidth(); col++) {
+          int y = Math.floorMod(radiusY - row, size);
+          int x = Math.floorMod(radiusX - col, size);
+          re[y * size + x] = this.kernel.getWeight(row, col) * scale;
+        }
+      }
+      FourierTransform transform = FourierTransform.forSize(size);
+      transform.transformRows(re, im, 0, size, false);
+      transform.transformColumns(re, im, new double[size], new double[size], false);
+      return new double[][] {re, im};
+    });
+  }
+
+  /**
+   * Represents the buffers one band uses to convolve its tiles.
+   */
+  private final class Block {
+    private final int size;
+    private final int width;
+    private final FourierTransform transform;
+    private final int[][] lines;
+    private final double[] redGreenRe;
+    private final double[] redGreenIm;
+    private final double[] blueRe;
+    private final double[] blueIm;
+    private final double[] columnRe;
+    private final double[] columnIm;
+    private final int[] pixels;
+
+    /**
+     * Allocates the buffers of a band.
+     *
+     * @param size  The block size.
+     * @param width The width of the image.
+     */
+    private Block(int size, int width) {
+      this.size = size;
+      this.width = width;
+      this.transform = FourierTransform.forSize(size);
+      this.lines = new int[size][];
+      this.redGreenRe = new double[size * size];
+      this.redGreenIm = new double[size * size];
+      this.blueRe = new double[size * size];
+      this.blueIm = new double[size * size];
+      this.columnRe = new double[size];
+      this.columnIm = new double[size];
+      this.pixels = new int[size];
+    }
+
+    /**
+     * Reads the source rows of a tile row and its halo.
+     *
+     * @param sourceImage The image to read.
+     * @param top         The first row of the tile row.
+     * @param rows        The number of rows of the tile row.
+     */
+    private void loadLines(IImageState sourceImage, int top, int rows) {
+      int height = sourceImage.getHeight();
+      int radiusY = FourierConvolution.this.kernel.getHeight() / 2;
+      int lineCount = rows + FourierConvolution.this.kernel.getHeight() - 1;
+      for (int i = 0; i < lineCount; i++) {
+        int sourceRow = FourierConvolution.this.borderMode.map(top + i - radiusY, height);
+        if (sourceRow < 0) {
+          this.lines[i] = null;
+          continue;
+        }
+        if (this.lines[i] == null) {
+          this.lines[i] = new int[this.width];
+        }
+        sourceImage.getRGB(0, sourceRow, this.width, 1, this.lines[i], 0, this.width);
+      }
+    }
+
+    /**
+     * Fills the blocks with a tile and its halo, and zeros elsewhere.
+     *
+     * @param columns The source column read for each block column from the left of the image,
+     *                or -1 for none.
+     * @param left    The first column of the tile.
+     * @param cols    The number of columns of the tile.
+     * @param rows    The number of rows of the tile.
+     */
+    private void fill(int[] columns, int left, int cols, int rows) {
+      Arrays.fill(this.redGreenRe, 0);
+      Arrays.fill(this.redGreenIm, 0);
+      Arrays.fill(this.blueRe, 0);
+      Arrays.fill(this.blueIm, 0);
+      int lineCount = rows + FourierConvolution.this.kernel.getHeight() - 1;
+      int colCount = cols + FourierConvolution.this.kernel.getWidth() - 1;
+      for (int i = 0; i < lineCount; i++) {
+        int[] line = this.lines[i];
+        if (line == null) {
+          continue;
+        }
+        int offset = i * this.size;
+        for (int j = 0; j < colCount; j++) {
+          int sourceCol = columns[left + j];
+          if (sourceCol >= 0) {
+            int pixel = line[sourceCol];
+            this.redGreenRe[offset + j] = (pixel >> 16) & 0xFF;
+            this.redGreenIm[offset + j] = (pixel >> 8) & 0xFF;
+            this.blueRe[offset + j] = pixel & 0xFF;
+          }
+        }
+      }
+    }
+
+    /**
+     * Convolves the blocks with the kernel. Rows past the filled lines are zero and stay zero
+     * through the forward row transforms, and only the rows of the tile are transformed back.
+     *
+     * @param spectrum The spectrum of the kernel for the block size.
+     * @param rows     The number of rows of the tile.
+     */
+    private void convolve(double[][] spectrum, int rows) {
+      int lineCount = rows + FourierConvolution.this.kernel.getHeight() - 1;
+      int radiusY = FourierConvolution.this.kernel.getHeight() / 2;
+      double[] kernelRe = spectrum[0];
+      double[] kernelIm = spectrum[1];
+      for (double[][] parts : new double[][][] {{this.redGreenRe, this.redGreenIm},
+          {this.blueRe, this.blueIm}}) {
+        double[] re = parts[0];
+        double[] im = parts[1];
+        this.transform.transformRows(re, im, 0, lineCount, false);
+        this.transform.transformColumns(re, im, this.columnRe, this.columnIm, false);
+        for (int i = 0; i < re.length; i++) {
+          double a = re[i];
+          double b = im[i];
+          re[i] = a * kernelRe[i] - b * kernelIm[i];
+          im[i] = a * kernelIm[i] + b * kernelRe[i];
+        }
+        this.transform.transformColumns(re, im, this.columnRe, this.columnIm, true);
+        this.transform.transformRows(re, im, radiusY, radiusY + rows, true);
+      }
+    }
+
+    /**
+     * Writes the convolved tile into the image.
+     *
+     * @param newImage The image to write.
+     * @param left     The first column of the tile.
+     * @param top      The first row of the tile.
+     * @param cols     The number of columns of the tile.
+     * @param rows     The number of rows of the tile.
+     */
+    private void store(IImage newImage, int left, int top, int cols, int rows) {
+      int radiusX = FourierConvolution.this.kernel.getWidth() / 2;
+      int radiusY = FourierConvolution.this.kernel.getHeight() / 2;
+      for (int row = 0; row < rows; row++) {
+        int offset = (row + radiusY) * this.size + radiusX;
+        for (int col = 0; col < cols; col++) {
+          int red = clamp((int) (this.redGreenRe[offset + col] + ROUNDING_SLACK));
+          int green = clamp((int) (this.redGreenIm[offset + col] + ROUNDING_SLACK));
+          int blue = clamp((int) (this.blueRe[offset + col] + ROUNDING_SLACK));
+          this.pixels[col] = (red << 16) | (green << 8) | blue;
+        }
+        newImage.setRGB(left, top + row, cols, 1, this.pixels, 0, cols);
+      }
+    }
+  }
+}
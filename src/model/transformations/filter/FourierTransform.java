@@ -0,0 +1,149 @@
+package model.transformations.filter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents a planned fast Fourier transform of one power-of-two size: an in-place iterative
+ * radix-2 transform whose bit-reversal permutation and twiddle factors are computed once.
+ * Plans are shared through forSize, so every channel, thread and call that transforms rows of
+ * the same size reuses the same tables. A plan holds no state that changes, so it is safe to use
+ * from several threads at once.
+ */
+final class FourierTransform {
+  private static final Map<Integer, FourierTransform> PLANS =
+      new ConcurrentHashMap<Integer, FourierTransform>();
+
+  private final int size;
+  private final int[] reversed;
+  private final double[] cos;
+  private final double[] sin;
+
+  /**
+   * Constructs a new FourierTransform of the given size, computing its tables.
+   *
+   * @param size The number of points, a power of two.
+   */
+  private FourierTransform(int size) {
+    this.size = size;
+    this.reversed = new int[size];
+    int bits = Integer.numberOfTrailingZeros(size);
+    for (int i = 0; i < size; i++) {
+      this.reversed[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+    }
+    this.cos = new double[size / 2];
+    this.sin = new double[size / 2];
+    for (int i = 0; i < size / 2; i++) {
+      double angle = 2 * Math.PI * i / size;
+      this.cos[i] = Math.cos(angle);
+      this.sin[i] = Math.sin(angle);
+    }
+  }
+
+  /**
+   * Gets the shared plan of the given size, computing it on first use.
+   *
+   * @param size The number of points.
+   * @return The plan.
+   * @throws IllegalArgumentException If the size is not a positive power of two.
+   */
+  static FourierTransform forSize(int size) {
+    if (size <= 0 || Integer.bitCount(size) != 1) {
+      throw new IllegalArgumentException("size must be a power of two");
+    }
+    return PLANS.computeIfAbsent(size, FourierTransform::new);
+  }
+
+  /**
+   * Gets the number of points of this transform.
+   *
+   * @return The size.
+   */
+  int getSize() {
+    return this.size;
+  }
+
+  /**
+   * Transforms a range of consecutive rows of a square array in place. The inverse transform is
+   * not divided by the size.
+   *
+   * @param re      The real parts, size by size, row by row.
+   * @param im      The imaginary parts, laid out as the real parts.
+   * @param fromRow The first row to transform.
+   * @param toRow   The row after the last row to transform.
+   * @param inverse True for the inverse transform.
+   */
+  void transformRows(double[] re, double[] im, int fromRow, int toRow, boolean inverse) {
+    for (int row = fromRow; row < toRow; row++) {
+      transform(re, im, row * this.size, inverse);
+    }
+  }
+
+  /**
+   * Transforms every column of a square array in place, copying each column into contiguous
+   * scratch arrays so the butterflies read consecutive memory. The inverse transform is not
+   * divided by the size.
+   *
+   * @param re       The real parts, size by size, row by row.
+   * @param im       The imaginary parts, laid out as the real parts.
+   * @param columnRe Scratch space for the real parts of one column, of at least the size.
+   * @param columnIm Scratch space for the imaginary parts of one column, of at least the size.
+   * @param inverse  True for the inverse transform.
+   */
+  void transformColumns(double[] re, double[] im, double[] columnRe, double[] columnIm,
+                        boolean inverse) {
+    int size = this.size;
+    for (int col = 0; col < size; col++) {
+      for (int row = 0; row < size; row++) {
+        columnRe[row] = re[row * size + col];
+        columnIm[row] = im[row * size + col];
+      }
+      transform(columnRe, columnIm, 0, inverse);
+      for (int row = 0; row < size; row++) {
+        re[row * size + col] = columnRe[row];
+        im[row * size + col] = columnIm[row];
+      }
+    }
+  }
+
+  /**
+   * Transforms size consecutive complex values in place.
+   *
+   * @param re      The real parts.
+   * @param im      The imaginary parts.
+   * @param offset  The index of the first value.
+   * @param inverse True for the inverse transform, which is not divided by the size.
+   */
+  void transform(double[] re, double[] im, int offset, boolean inverse) {
+    int size = this.size;
+    for (int i = 0; i < size; i++) {
+      int j = this.reversed[i];
+      if (j > i) {
+        double swap = re[offset + i];
+        re[offset + i] = re[offset + j];
+        re[offset + j] = swap;
+        swap = im[offset + i];
+        im[offset + i] = im[offset + j];
+        im[offset + j] = swap;
+      }
+    }
+
+    double sign = inverse ? 1 : -1;
+    for (int half = 1; half < size; half *= 2) {
+      int step = size / (2 * half);
+      for (int k = 0; k < half; k++) {
+        double wr = this.cos[k * step];
+        double wi = sign * this.sin[k * step];
+        for (int start = offset + k; start < offset + size; start += 2 * half) {
+          int other = start + half;
+          double tr = wr * re[other] - wi * im[other];
+          double ti = wr * im[other] + wi * re[other];
+          re[other] = re[start] - tr;
+          im[other] = im[start] - ti;
+          re[start] += tr;
+          im[start] += ti;
+        }
+      }
+    }
+  }
+}
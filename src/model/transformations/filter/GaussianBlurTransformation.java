@@ -0,0 +1,48 @@
+package model.transformations.filter;
+
+/**
+ * Extends the ConvolutionTransformation class.
+ * Blurs the image with a Gaussian kernel of any radius, run as two one-dimensional passes so the
+ * cost per pixel grows with the radius instead of its square. Pixels outside the image repeat
+ * the nearest edge pixel, so the edges do not darken.
+ */
+public class GaussianBlurTransformation extends ConvolutionTransformation {
+  /**
+   * Constructs a new GaussianBlurTransformation with the specified radius and a standard
+   * deviation of a third of the radius.
+   *
+   * @param radius The radius of the blur in pixels.
+   * @throws IllegalArgumentException If the radius is not positive.
+   */
+  public GaussianBlurTransformation(int radius) {
+    this(radius, radius / 3.0, BorderMode.CLAMP);
+  }
+
+  /**
+   * Constructs a new GaussianBlurTransformation with the specified radius, standard deviation
+   * and border mode.
+   *
+   * @param radius     The radius of the kernel in pixels.
+   * @param sigma      The standard deviation of the Gaussian in pixels.
+   * @param borderMode The way pixels outside the image are read.
+   * @throws IllegalArgumentException If the radius is not positive or sigma is not positive.
+   * @throws NullPointerException     If the border mode is null.
+   */
+  public GaussianBlurTransformation(int radius, double sigma, BorderMode borderMode) {
+    super(Kernel.gaussian(checkRadius(radius), sigma), borderMode);
+  }
+
+  /**
+   * Checks that a blur radius is positive.
+   *
+   * @param radius The radius.
+   * @return The radius.
+   * @throws IllegalArgumentException If the radius is not positive.
+   */
+  private static int checkRadius(int radius) {
+    if (radius <= 0) {
+      throw new IllegalArgumentException("radius must be positive");
+    }
+    return radius;
+  }
+}
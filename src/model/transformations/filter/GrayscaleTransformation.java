@@ -1,59 +1,31 @@
 package model.transformations.filter;
 
-import model.image.IImage;
-import model.image.IImageState;
-import model.image.ImageImpl;
-import model.transformations.ITransformation;
+import model.transformations.Arithmetic;
+import model.transformations.ColorMatrixTransformation;
 
 /**
- * Implements the ITransformation interface.
+ * Extends the ColorMatrixTransformation class.
+ * Every channel becomes the luma of the pixel.
  */
-public class GrayscaleTransformation implements ITransformation {
-
+public class GrayscaleTransformation extends ColorMatrixTransformation {
   /**
-   * Clamps the given value to the range of [0, 255].
-   *
-   * @param value The value to be clamped.
-   * @return The clamped value, ensuring it lies within the range [0, 255].
+   * Constructs a new GrayscaleTransformation.
    */
-  private int clamp(int value) {
-    if (value < 0) {
-      return 0;
-    }
-    if (value > 255) {
-      return 255;
-    }
-    return value;
+  public GrayscaleTransformation() {
+    this(Arithmetic.DOUBLE);
   }
 
-  @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    double[][] kernel = {
+  /**
+   * Constructs a new GrayscaleTransformation with the specified arithmetic.
+   *
+   * @param arithmetic The arithmetic of the sums.
+   * @throws NullPointerException If the arithmetic is null.
+   */
+  public GrayscaleTransformation(Arithmetic arithmetic) {
+    super(new double[][] {
         {0.2126, 0.7152, 0.0722},
         {0.2126, 0.7152, 0.0722},
         {0.2126, 0.7152, 0.0722}
-    };
-
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col++) {
-
-        int red = sourceImage.getRedChannel(col, row);
-        int green = sourceImage.getGreenChannel(col, row);
-        int blue = sourceImage.getBlueChannel(col, row);
-
-        double redSum = (kernel[0][0] * red) + (kernel[0][1] * green) + (kernel[0][2] * blue);
-        double greenSum = (kernel[1][0] * red) + (kernel[1][1] * green) + (kernel[1][2] * blue);
-        double blueSum = (kernel[2][0] * red) + (kernel[2][1] * green) + (kernel[2][2] * blue);
-
-        int newR = clamp((int) redSum);
-        int newG = clamp((int) greenSum);
-        int newB = clamp((int) blueSum);
-
-        newImage.setPixel(col, row, newR, newG, newB);
-      }
-    }
-    return newImage;
+    }, new double[3], arithmetic);
   }
 }
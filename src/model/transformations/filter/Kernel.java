@@ -0,0 +1,222 @@
+package model.transformations.filter;
+
+/**
+ * Represents the weights of a convolution, a rectangle of odd width and height centered on the
+ * pixel being computed.
+ * A kernel that is the product of a column and a row of weights is separable; a convolution then
+ * runs it as a horizontal and a vertical pass, which costs the width plus the height of the
+ * kernel per pixel instead of their product. Separability is detected when the kernel is
+ * created.
+ */
+public final class Kernel {
+  private static final double SEPARABLE_TOLERANCE = 1e-12;
+
+  private final double[][] weights;
+  private final double[] horizontal;
+  private final double[] vertical;
+
+  /**
+   * Constructs a new Kernel with the specified weights.
+   *
+   * @param weights The weights, row by row, with an odd number of rows and of columns.
+   * @throws IllegalArgumentException If the weights are empty, not rectangular or have an even
+   *                                  number of rows or columns.
+   */
+  public Kernel(double[][] weights) {
+    this.weights = copyWeights(weights);
+
+    double[][] factors = factor(this.weights);
+    this.vertical = factors == null ? null : factors[0];
+    this.horizontal = factors == null ? null : factors[1];
+  }
+
+  /**
+   * Constructs a new separable Kernel from its two factors.
+   *
+   * @param horizontal The weights of the horizontal pass.
+   * @param vertical   The weights of the vertical pass.
+   */
+  private Kernel(double[] horizontal, double[] vertical) {
+    this.horizontal = horizontal.clone();
+    this.vertical = vertical.clone();
+    this.weights = new double[vertical.length][horizontal.length];
+    for (int row = 0; row < vertical.length; row++) {
+      for (int col = 0; col < horizontal.length; col++) {
+        this.weights[row][col] = vertical[row] * horizontal[col];
+      }
+    }
+  }
+
+  /**
+   * Creates a separable kernel whose weights are the products of a column and a row of weights.
+   *
+   * @param horizontal The weights of the horizontal pass, an odd number of them.
+   * @param vertical   The weights of the vertical pass, an odd number of them.
+   * @return The separable kernel.
+   * @throws IllegalArgumentException If either array is null, empty or of even length.
+   */
+  public static Kernel separable(double[] horizontal, double[] vertical) {
+    if (horizontal == null || vertical == null || horizontal.length % 2 == 0
+        || vertical.length % 2 == 0) {
+      throw new IllegalArgumentException("kernel must have an odd number of weights");
+    }
+    return new Kernel(horizontal, vertical);
+  }
+
+  /**
+   * Creates a normalized Gaussian kernel of the given radius.
+   *
+   * @param radius The radius of the kernel, so it is 2 * radius + 1 pixels wide and high.
+   * @param sigma  The standard deviation of the Gaussian in pixels.
+   * @return The separable Gaussian kernel, whose weights sum to 1.
+   * @throws IllegalArgumentException If the radius is negative or sigma is not positive.
+   */
+  public static Kernel gaussian(int radius, double sigma) {
+    if (radius < 0 || !(sigma > 0)) {
+      throw new IllegalArgumentException("radius must be non-negative and sigma positive");
+    }
+    double[] weights = new double[2 * radius + 1];
+    double sum = 0;
+    for (int i = 0; i < weights.length; i++) {
+      double distance = i - radius;
+      weights[i] = Math.exp(-(distance * distance) / (2 * sigma * sigma));
+      sum += weights[i];
+    }
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] /= sum;
+    }
+    return new Kernel(weights, weights);
+  }
+
+  /**
+   * Gets the number of columns of this kernel.
+   *
+   * @return The width of the kernel, an odd number.
+   */
+  public int getWidth() {
+    return this.weights[0].length;
+  }
+
+  /**
+   * Gets the number of rows of this kernel.
+   *
+   * @return The height of the kernel, an odd number.
+   */
+  public int getHeight() {
+    return this.weights.length;
+  }
+
+  /**
+   * Gets the weight at the given position of this kernel.
+   *
+   * @param row The row of the weight, 0 being the top row.
+   * @param col The column of the weight, 0 being the left column.
+   * @return The weight.
+   * @throws ArrayIndexOutOfBoundsException If the position is outside the kernel.
+   */
+  public double getWeight(int row, int col) {
+    return this.weights[row][col];
+  }
+
+  /**
+   * Checks whether this kernel is the product of a column and a row of weights.
+   *
+   * @return True if the kernel can be applied as two one-dimensional passes, false otherwise.
+   */
+  public boolean isSeparable() {
+    return this.horizontal != null;
+  }
+
+  /**
+   * Returns the weights of the horizontal pass of a separable kernel.
+   *
+   * @return The weights, not copied, or null if the kernel is not separable.
+   */
+  double[] horizontal() {
+    return this.horizontal;
+  }
+
+  /**
+   * Returns the weights of the vertical pass of a separable kernel.
+   *
+   * @return The weights, not copied, or null if the kernel is not separable.
+   */
+  double[] vertical() {
+    return this.vertical;
+  }
+
+  /**
+   * Returns the weights of this kernel.
+   *
+   * @return The weights, row by row, not copied.
+   */
+  double[][] weights() {
+    return this.weights;
+  }
+
+  /**
+   * Checks the shape of the given weights and copies them.
+   *
+   * @param weights The weights.
+   * @return A copy of the weights.
+   * @throws IllegalArgumentException If the weights are empty, not rectangular or have an even
+   *                                  number of rows or columns.
+   */
+  private static double[][] copyWeights(double[][] weights) {
+    if (weights == null || weights.length % 2 == 0 || weights[0] == null
+        || weights[0].length % 2 == 0) {
+      throw new IllegalArgumentException("kernel must have an odd number of rows and columns");
+    }
+    double[][] copy = new double[weights.length][];
+    for (int row = 0; row < weights.length; row++) {
+      if (weights[row] == null || weights[row].length != weights[0].length) {
+        throw new IllegalArgumentException("kernel must be rectangular");
+      }
+      copy[row] = weights[row].clone();
+    }
+    return copy;
+  }
+
+  /**
+   * Splits the given weights into a column and a row whose products are the weights, using the
+   * row and column of the largest weight.
+   *
+   * @param weights The weights.
+   * @return The column and the row, or null if the weights are not such a product.
+   */
+  private static double[][] factor(double[][] weights) {
+    int pivotRow = 0;
+    int pivotCol = 0;
+    double largest = 0;
+    for (int row = 0; row < weights.length; row++) {
+      for (int col = 0; col < weights[row].length; col++) {
+        if (Math.abs(weights[row][col]) > largest) {
+          largest = Math.abs(weights[row][col]);
+          pivotRow = row;
+          pivotCol = col;
+        }
+      }
+    }
+    if (largest == 0) {
+      return null;
+    }
+
+    double[] column = new double[weights.length];
+    double[] row = new double[weights[0].length];
+    for (int i = 0; i < column.length; i++) {
+      column[i] = weights[i][pivotCol];
+    }
+    for (int j = 0; j < row.length; j++) {
+      row[j] = weights[pivotRow][j] / weights[pivotRow][pivotCol];
+    }
+
+    for (int i = 0; i < column.length; i++) {
+      for (int j = 0; j < row.length; j++) {
+        if (Math.abs(column[i] * row[j] - weights[i][j]) > SEPARABLE_TOLERANCE * largest) {
+          return null;
+        }
+      }
+    }
+    return new double[][] {column, row};
+  }
+}
@@ -0,0 +1,280 @@
+package model.transformations.filter;
+
+import model.image.IImage;
+import model.image.IImageState;
+import model.image.IReleasableImage;
+import model.image.ImageStorage;
+import model.image.PackedImage;
+import model.image.Parallelism;
+import model.image.PixelBufferPool;
+import model.transformations.ITransformation;
+
+import java.util.Arrays;
+
+/**
+ * Implements the ITransformation interface.
+ * Resizes the image by area averaging: every pixel of the result is the average of the part of
+ * the source image it covers, weighted by the covered area of each source pixel, and rounded to
+ * the nearest integer. When enlarging, this blends neighbouring pixels only at their boundaries.
+ * The averaging runs as a horizontal and a vertical pass. Large reductions first halve the image
+ * as long as a dimension is even and the halved dimension still spans at least
+ * MIN_FINAL_RATIO pixels per result pixel, averaging each pair of pixels with integer arithmetic
+ * on all channels at once. Halving averages the same areas as a single pass, except where a
+ * boundary between result pixels falls inside a halved block: the block is then split between
+ * them by area, as if its source pixels were equal. Keeping several blocks per result pixel
+ * keeps that error small. The rows are split into bands as the parallelism allows.
+ */
+public class ResizeTransformation implements ITransformation {
+  /**
+   * The fewest halved pixels that a result pixel spans along a dimension that was halved.
+   */
+  private static final int MIN_FINAL_RATIO = 4;
+
+  private final int width;
+  private final int height;
+
+  /**
+   * Constructs a new ResizeTransformation to the specified size.
+   *
+   * @param width  The width of the result in pixels.
+   * @param height The height of the result in pixels.
+   * @throws IllegalArgumentException If the width or height is not positive, or if the result
+   *                                  has more pixels than an array can hold.
+   */
+  public ResizeTransformation(int width, int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("size must be positive");
+    }
+    if ((long) width * height > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("size is too large");
+    }
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Gets the width of the result.
+   *
+   * @return The width in pixels.
+   */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * Gets the height of the result.
+   *
+   * @return The height in pixels.
+   */
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage) {
+    return run(sourceImage, Parallelism.getDefault());
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage, Parallelism parallelism) {
+    if (sourceImage.getWidth() == 0 || sourceImage.getHeight() == 0) {
+      throw new IllegalArgumentException("cannot resize an empty image");
+    }
+
+    IImageState current = sourceImage;
+    while (true) {
+      boolean halveX = current.getWidth() % 2 == 0
+          && current.getWidth() / 2 >= MIN_FINAL_RATIO * (long) this.width;
+      boolean halveY = current.getHeight() % 2 == 0
+          && current.getHeight() / 2 >= MIN_FINAL_RATIO * (long) this.height;
+      if (!halveX && !halveY) {
+        break;
+      }
+      IImage halved = halve(current, halveX, halveY, parallelism);
+      if (current != sourceImage) {
+        ((IReleasableImage) current).release();
+      }
+      current = halved;
+    }
+
+    IImage resized = average(current, parallelism);
+    if (current != sourceImage) {
+      ((IReleasableImage) current).release();
+    }
+    return resized;
+  }
+
+  /**
+   * Halves the width, the height or both of an image by averaging pairs of pixels.
+   * The red and blue channels of a packed pixel are summed in one int and the green channel in
+   * another, with enough room between them that the sums never carry into each other.
+   *
+   * @param source      The image, whose halved dimensions must be even.
+   * @param halveX      True to halve the width.
+   * @param halveY      True to halve the height.
+   * @param parallelism The parallelism of the pass.
+   * @return The halved image, which the caller must release.
+   */
+  private static IImage halve(IImageState source, boolean halveX, boolean halveY,
+                              Parallelism parallelism) {
+    int sourceWidth = source.getWidth();
+    int width = halveX ? sourceWidth / 2 : sourceWidth;
+    int height = halveY ? source.getHeight() / 2 : source.getHeight();
+    int[] pixels = PixelBufferPool.getShared().acquire(Math.multiplyExact(width, height));
+
+    parallelism.forEachBand(width, height, (fromRow, toRow) -> {
+      int[] top = new int[sourceWidth];
+      int[] bottom = halveY ? new int[sourceWidth] : top;
+      for (int row = fromRow; row < toRow; row++) {
+        int offset = row * width;
+        if (!halveY) {
+          source.getRGB(0, row, sourceWidth, 1, top, 0, sourceWidth);
+          for (int col = 0; col < width; col++) {
+            pixels[offset + col] = average(top[2 * col], top[2 * col + 1]);
+          }
+          continue;
+        }
+
+        source.getRGB(0, 2 * row, sourceWidth, 1, top, 0, sourceWidth);
+        source.getRGB(0, 2 * row + 1, sourceWidth, 1, bottom, 0, sourceWidth);
+        if (!halveX) {
+          for (int col = 0; col < width; col++) {
+            pixels[offset + col] = average(top[col], bottom[col]);
+          }
+          continue;
+        }
+        for (int col = 0; col < width; col++) {
+          int a = top[2 * col];
+          int b = top[2 * col + 1];
+          int c = bottom[2 * col];
+          int d = bottom[2 * col + 1];
+          int redBlue = (a & 0xFF00FF) + (b & 0xFF00FF) + (c & 0xFF00FF) + (d & 0xFF00FF);
+          int green = (a & 0xFF00) + (b & 0xFF00) + (c & 0xFF00) + (d & 0xFF00);
+          pixels[offset + col] = 0xFF000000 | (((redBlue + 0x20002) >> 2) & 0xFF00FF)
+              | (((green + 0x200) >> 2) & 0xFF00);
+        }
+      }
+    });
+    return new PackedImage(width, height, pixels);
+  }
+
+  /**
+   * Averages two packed pixels, rounding every channel half up.
+   *
+   * @param a The first pixel.
+   * @param b The second pixel.
+   * @return The average pixel.
+   */
+  private static int average(int a, int b) {
+    int redBlue = (a & 0xFF00FF) + (b & 0xFF00FF);
+    int green = (a & 0xFF00) + (b & 0xFF00);
+    return 0xFF000000 | (((redBlue + 0x10001) >> 1) & 0xFF00FF)
+        | (((green + 0x100) >> 1) & 0xFF00);
+  }
+
+  /**
+   * Resizes an image to the target size by area averaging.
+   *
+   * @param source      The image.
+   * @param parallelism The parallelism of the pass.
+   * @return The resized image.
+   */
+  private IImage average(IImageState source, Parallelism parallelism) {
+    int sourceWidth = source.getWidth();
+    int width = this.width;
+    Coverage columns = new Coverage(sourceWidth, width);
+    Coverage rows = new Coverage(source.getHeight(), this.height);
+    int[] pixels = PixelBufferPool.getShared().acquire(Math.multiplyExact(width, this.height));
+
+    parallelism.forEachBand(width, this.height, (fromRow, toRow) -> {
+      int firstLine = rows.first[fromRow];
+      int lastLine = rows.first[toRow - 1] + rows.weights[toRow - 1].length;
+      int stride = 3 * width;
+      double[] lines = new double[(lastLine - firstLine) * stride];
+      int[] sourceRow = new int[sourceWidth];
+
+      for (int line = firstLine; line < lastLine; line++) {
+        source.getRGB(0, line, sourceWidth, 1, sourceRow, 0, sourceWidth);
+        int base = (line - firstLine) * stride;
+        for (int col = 0; col < width; col++) {
+          double[] weights = columns.weights[col];
+          int first = columns.first[col];
+          double red = 0;
+          double green = 0;
+          double blue = 0;
+          for (int i = 0; i < weights.length; i++) {
+            int pixel = sourceRow[first + i];
+            red += weights[i] * ((pixel >> 16) & 0xFF);
+            green += weights[i] * ((pixel >> 8) & 0xFF);
+            blue += weights[i] * (pixel & 0xFF);
+          }
+          lines[base + col] = red;
+          lines[base + width + col] = green;
+          lines[base + 2 * width + col] = blue;
+        }
+      }
+
+      double[] sums = new double[stride];
+      for (int row = fromRow; row < toRow; row++) {
+        Arrays.fill(sums, 0);
+        double[] weights = rows.weights[row];
+        for (int i = 0; i < weights.length; i++) {
+          int base = (rows.first[row] + i - firstLine) * stride;
+          for (int j = 0; j < stride; j++) {
+            sums[j] += weights[i] * lines[base + j];
+          }
+        }
+        int offset = row * width;
+        for (int col = 0; col < width; col++) {
+          pixels[offset + col] = 0xFF000000 | (round(sums[col]) << 16)
+              | (round(sums[width + col]) << 8) | round(sums[2 * width + col]);
+        }
+      }
+    });
+    return ImageStorage.getDefault().create(width, this.height, pixels);
+  }
+
+  /**
+   * Rounds an averaged channel value to the nearest integer in the range of [0, 255].
+   *
+   * @param value The averaged value.
+   * @return The rounded value.
+   */
+  private static int round(double value) {
+    int rounded = (int) (value + 0.5);
+    return Math.max(0, Math.min(255, rounded));
+  }
+
+  /**
+   * Represents the source pixels that each target pixel covers along one dimension, and the
+   * fraction of the target pixel that each of them makes up.
+   */
+  private static final class Coverage {
+    private final int[] first;
+    private final double[][] weights;
+
+    /**
+     * Computes the coverage of a resize along one dimension.
+     *
+     * @param sourceLength The number of source pixels.
+     * @param targetLength The number of target pixels.
+     */
+    private Coverage(int sourceLength, int targetLength) {
+      this.first = new int[targetLength];
+      this.weights = new double[targetLength][];
+      double scale = (double) sourceLength / targetLength;
+      for (int i = 0; i < targetLength; i++) {
+        double start = i * scale;
+        double end = Math.min(sourceLength, (i + 1) * scale);
+        int first = (int) start;
+        int last = Math.min(sourceLength, (int) Math.ceil(end));
+        this.first[i] = first;
+        this.weights[i] = new double[last - first];
+        for (int j = first; j < last; j++) {
+          double covered = Math.min(end, j + 1) - Math.max(start, j);
+          this.weights[i][j - first] = covered / scale;
+        }
+      }
+    }
+  }
+}
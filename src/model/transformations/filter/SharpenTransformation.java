@@ -1,73 +1,32 @@
 package model.transformations.filter;
 
-import model.image.IImage;
-import model.image.IImageState;
-import model.image.ImageImpl;
-import model.transformations.ITransformation;
+import model.transformations.Arithmetic;
 
 /**
- * Implements the ITransformation interface.
+ * Extends the ConvolutionTransformation class.
+ * Sharpens the image with a 5x5 kernel, treating pixels outside the image as black.
  */
-public class SharpenTransformation implements ITransformation {
-
+public class SharpenTransformation extends ConvolutionTransformation {
   /**
-   * Clamps the given value to the range of [0, 255].
-   *
-   * @param value The value to be clamped.
-   * @return The clamped value, ensuring it lies within the range [0, 255].
+   * Constructs a new SharpenTransformation.
    */
-  private int clamp(int value) {
-    if (value < 0) {
-      return 0;
-    }
-    if (value > 255) {
-      return 255;
-    }
-    return value;
+  public SharpenTransformation() {
+    this(Arithmetic.DOUBLE);
   }
 
-  @Override
-  public IImageState run(IImageState sourceImage) {
-    IImage newImage = new ImageImpl(sourceImage.getWidth(), sourceImage.getHeight());
-
-    double[][] kernel = {
+  /**
+   * Constructs a new SharpenTransformation with the specified arithmetic.
+   *
+   * @param arithmetic The arithmetic of the sums.
+   * @throws NullPointerException If the arithmetic is null.
+   */
+  public SharpenTransformation(Arithmetic arithmetic) {
+    super(new Kernel(new double[][] {
         {-1.0 / 8.0, -1.0 / 8.0, -1.0 / 8.0, -1.0 / 8.0, -1.0 / 8.0},
         {-1.0 / 8.0, 1.0 / 4.0, 1.0 / 4.0, 1.0 / 4.0, -1.0 / 8.0},
         {-1.0 / 8.0, 1.0 / 4.0, 1.0, 1.0 / 4.0, -1.0 / 8.0},
         {-1.0 / 8.0, 1.0 / 4.0, 1.0 / 4.0, 1.0 / 4.0, -1.0 / 8.0},
         {-1.0 / 8.0, -1.0 / 8.0, -1.0 / 8.0, -1.0 / 8.0, -1.0 / 8.0}
-    };
-
-    for (int row = 0; row < sourceImage.getHeight(); row++) {
-      for (int col = 0; col < sourceImage.getWidth(); col++) {
-
-        double redSum = 0;
-        double greenSum = 0;
-        double blueSum = 0;
-
-        for (int kernelRow = 0; kernelRow < kernel.length; kernelRow++) {
-          for (int kernelCol = 0; kernelCol < kernel[kernelRow].length; kernelCol++) {
-
-            int sumRow = row + kernelRow - 2;
-            int sumCol = col + kernelCol - 2;
-
-            if (sumRow >= 0 && sumRow < sourceImage.getHeight() && sumCol >= 0
-                    && sumCol < sourceImage.getWidth()) {
-              redSum += kernel[kernelRow][kernelCol]
-                      * sourceImage.getRedChannel(sumCol, sumRow);
-              greenSum += kernel[kernelRow][kernelCol]
-                      * sourceImage.getGreenChannel(sumCol, sumRow);
-              blueSum += kernel[kernelRow][kernelCol]
-                      * sourceImage.getBlueChannel(sumCol, sumRow);
-            }
-          }
-        }
-        int newR = clamp((int) redSum);
-        int newG = clamp((int) greenSum);
-        int newB = clamp((int) blueSum);
-        newImage.setPixel(col, row, newR, newG, newB);
-      }
-    }
-    return newImage;
+    }), BorderMode.ZERO, arithmetic);
   }
 }
@@ -0,0 +1,54 @@
+package model.transformations.filter;
+
+import model.image.IImageState;
+import model.image.Parallelism;
+import model.transformations.ITransformation;
+
+/**
+ * Implements the ITransformation interface.
+ * Shrinks the image to fit in a square of the given size, keeping its aspect ratio, with the area
+ * averaging of ResizeTransformation. The longer side of the result has the given size, and the
+ * shorter side is rounded to the nearest pixel, but is at least one pixel. An image that already
+ * fits is copied at its own size.
+ */
+public class ThumbnailTransformation implements ITransformation {
+  private final int size;
+
+  /**
+   * Constructs a new ThumbnailTransformation with the specified size.
+   *
+   * @param size The largest width and height of the result in pixels.
+   * @throws IllegalArgumentException If the size is not positive.
+   */
+  public ThumbnailTransformation(int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("size must be positive");
+    }
+    this.size = size;
+  }
+
+  /**
+   * Gets the largest width and height of the result.
+   *
+   * @return The size in pixels.
+   */
+  public int getSize() {
+    return this.size;
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage) {
+    return run(sourceImage, Parallelism.getDefault());
+  }
+
+  @Override
+  public IImageState run(IImageState sourceImage, Parallelism parallelism) {
+    int width = sourceImage.getWidth();
+    int height = sourceImage.getHeight();
+    double scale = Math.min(1, (double) this.size / Math.max(width, height));
+    int thumbnailWidth = (int) Math.max(1, Math.round(width * scale));
+    int thumbnailHeight = (int) Math.max(1, Math.round(height * scale));
+    return new ResizeTransformation(thumbnailWidth, thumbnailHeight).run(sourceImage,
+        parallelism);
+  }
+}
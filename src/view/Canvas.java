@@ -1,5 +1,8 @@
 package view;
 
+import model.ConvertImage;
+import model.image.ImagePyramid;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -7,10 +10,15 @@ import java.awt.image.BufferedImage;
 /**
  * The Canvas class represents a custom JPanel used for displaying images.
  * It extends JPanel and provides methods to set the image and image ID to be displayed.
+ * When the pyramid of the image is set, an image shrunk to fit the panel is drawn from the
+ * smallest level at least as large as it is drawn, rather than scaled down from full resolution
+ * on every repaint. Each level drawn is converted once and kept until the image changes.
  */
 public class Canvas extends JPanel {
   private BufferedImage image;
   private String imageID;
+  private ImagePyramid pyramid;
+  private BufferedImage[] levels;
 
   /**
    * Returns the currently set image in the Canvas.
@@ -32,15 +40,32 @@ public class Canvas extends JPanel {
 
   /**
    * Sets the image to be displayed in the Canvas.
-   * It triggers a repaint to update the display.
+   * A different image drops the pyramid of the previous one. It triggers a repaint to update the
+   * display.
    *
    * @param newImage The BufferedImage to be displayed in the Canvas.
    */
   public void setImage(BufferedImage newImage) {
+    if (newImage != this.image) {
+      this.pyramid = null;
+      this.levels = null;
+    }
     this.image = newImage;
     repaint();
   }
 
+  /**
+   * Sets the pyramid of the image displayed in the Canvas, whose level 0 must have the same
+   * pixels as the image. It triggers a repaint to update the display.
+   *
+   * @param newPyramid The pyramid of the image, or null to always scale the image itself.
+   */
+  public void setPyramid(ImagePyramid newPyramid) {
+    this.pyramid = newPyramid;
+    this.levels = newPyramid == null ? null : new BufferedImage[newPyramid.getLevelCount()];
+    repaint();
+  }
+
   /**
    * Sets the ID of the image to be displayed in the Canvas.
    *
@@ -68,8 +93,30 @@ public class Canvas extends JPanel {
         int x = (width - scaledWidth) / 2;
         int y = (height - scaledHeight) / 2;
 
-        g.drawImage(image, x, y, scaledWidth, scaledHeight, this);
+        g.drawImage(levelFor(scaledWidth, scaledHeight), x, y, scaledWidth, scaledHeight, this);
       }
     }
   }
+
+  /**
+   * Gets the image to draw at the given size: the image itself, or the level of its pyramid
+   * chosen for the size, converted on first use.
+   *
+   * @param width  The width the image will be drawn at.
+   * @param height The height the image will be drawn at.
+   * @return The BufferedImage to draw.
+   */
+  private BufferedImage levelFor(int width, int height) {
+    if (this.pyramid == null) {
+      return this.image;
+    }
+    int level = this.pyramid.levelFor(width, height);
+    if (level == 0) {
+      return this.image;
+    }
+    if (this.levels[level] == null) {
+      this.levels[level] = ConvertImage.convertToBuffered(this.pyramid.getLevel(level));
+    }
+    return this.levels[level];
+  }
 }
@@ -28,6 +28,7 @@ public class View extends JFrame implements ActionListener, KeyListener {
   private final JButton greenButton;
   private final JButton blueButton;
   private final JButton blurButton;
+  private final JButton blurRadiusButton;
   private final JButton sharpenButton;
   private final JButton grayscaleButton;
   private final JButton sepiaButton;
@@ -68,6 +69,7 @@ public class View extends JFrame implements ActionListener, KeyListener {
     this.greenButton = new JButton("Green-component");
     this.blueButton = new JButton("Blue-component");
     this.blurButton = new JButton("Blur");
+    this.blurRadiusButton = new JButton("Blur-radius");
     this.sharpenButton = new JButton("Sharpen");
     this.grayscaleButton = new JButton("Grayscale");
     this.sepiaButton = new JButton("Sepia");
@@ -79,6 +81,7 @@ public class View extends JFrame implements ActionListener, KeyListener {
     eastPanel.add(this.greenButton);
     eastPanel.add(this.blueButton);
     eastPanel.add(this.blurButton);
+    eastPanel.add(this.blurRadiusButton);
     eastPanel.add(this.sharpenButton);
     eastPanel.add(this.grayscaleButton);
     eastPanel.add(this.sepiaButton);
@@ -100,6 +103,7 @@ public class View extends JFrame implements ActionListener, KeyListener {
     this.greenButton.setActionCommand("green");
     this.blueButton.setActionCommand("blue");
     this.blurButton.setActionCommand("blur");
+    this.blurRadiusButton.setActionCommand("blur-radius");
     this.sharpenButton.setActionCommand("sharpen");
     this.grayscaleButton.setActionCommand("grayscale");
     this.sepiaButton.setActionCommand("sepia");
@@ -114,6 +118,7 @@ public class View extends JFrame implements ActionListener, KeyListener {
     this.greenButton.addActionListener(this);
     this.blueButton.addActionListener(this);
     this.blurButton.addActionListener(this);
+    this.blurRadiusButton.addActionListener(this);
     this.sharpenButton.addActionListener(this);
     this.grayscaleButton.addActionListener(this);
     this.sepiaButton.addActionListener(this);
@@ -221,6 +226,15 @@ public class View extends JFrame implements ActionListener, KeyListener {
     }
   }
 
+  /**
+   * Notifies all registered listeners of the "Blur-radius" event.
+   */
+  private void emitBlurRadiusEvent() {
+    for (ViewListener listener : listenersToNotify) {
+      listener.handleBlurRadiusEvent();
+    }
+  }
+
   /**
    * Notifies all registered listeners of the "Sharpen" event.
    */
@@ -281,6 +295,9 @@ public class View extends JFrame implements ActionListener, KeyListener {
       case "blur":
         emitBlurEvent();
         break;
+      case "blur-radius":
+        emitBlurRadiusEvent();
+        break;
       case "sharpen":
         emitSharpenEvent();
         break;
@@ -67,6 +67,12 @@ public interface ViewListener {
    */
   void handleBlurEvent();
 
+  /**
+   * Called when the "Blur-radius" button is clicked in the View.
+   * Implement this method to handle the event of applying a blur of a chosen radius to the image.
+   */
+  void handleBlurRadiusEvent();
+
   /**
    * Called when the "Sharpen" button is clicked in the View.
    * Implement this method to handle the event of applying a sharpen effect to the image.
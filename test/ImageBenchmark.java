@@ -0,0 +1,448 @@
+import model.ConvertImage;
+import model.image.Channel;
+import model.image.Histogram;
+import model.image.IImage;
+import model.image.IImageState;
+import model.image.IReleasableImage;
+import model.image.ImagePyramid;
+import model.image.IntegralImage;
+import model.image.PackedImage;
+import model.image.Parallelism;
+import model.image.PixelBufferPool;
+import model.image.Region;
+import model.transformations.Arithmetic;
+import model.transformations.AutoLevelsTransformation;
+import model.transformations.BrightenTransformation;
+import model.transformations.EqualizeTransformation;
+import model.transformations.InvertTransformation;
+import model.transformations.LumaTransformation;
+import model.transformations.VectorSupport;
+import model.transformations.filter.BlurTransformation;
+import model.transformations.filter.BoxBlurTransformation;
+import model.transformations.filter.ConvolutionTransformation;
+import model.transformations.filter.FastGaussianBlurTransformation;
+import model.transformations.filter.GaussianBlurTransformation;
+import model.transformations.filter.GrayscaleTransformation;
+import model.transformations.filter.Kernel;
+import model.transformations.filter.SepiaTransformation;
+import model.transformations.filter.SharpenTransformation;
+import model.transformations.filter.ThumbnailTransformation;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * A manual benchmark for the hot paths of the model. It is not part of the JUnit suite; run it
+ * with a large heap, for example "java -Xmx4g ImageBenchmark".
+ */
+public class ImageBenchmark {
+  private static final int WIDTH = 7680;
+  private static final int HEIGHT = 4320;
+  private static final int RUNS = 12;
+
+  /**
+   * Runs every benchmark and prints the best time of each.
+   *
+   * @param args The command-line arguments, which are ignored.
+   */
+  public static void main(String[] args) {
+    IImage image = randomImage(WIDTH, HEIGHT);
+    System.out.println("Image: " + WIDTH + "x" + HEIGHT);
+
+    time("sepia, per-pixel accessors", () -> perPixelSepia(image));
+    time("sepia, bulk row accessors", () -> new SepiaTransformation().run(image));
+    time("brighten, sepia, luma, one pass each", () -> new LumaTransformation().run(
+        new SepiaTransformation().run(new BrightenTransformation(30).run(image))));
+    time("brighten, sepia, luma, fused views", () -> new LumaTransformation().view(
+        new SepiaTransformation().view(new BrightenTransformation(30).view(image))).materialize());
+    time("grayscale, sepia, luma, one pass each", () -> new LumaTransformation().run(
+        new SepiaTransformation().run(new GrayscaleTransformation().run(image))));
+    time("grayscale, sepia, luma, one matrix", () -> new GrayscaleTransformation()
+        .then(new SepiaTransformation()).then(new LumaTransformation()).run(image));
+    time("brighten, arithmetic per channel", () -> perPixelBrighten(image, 30));
+    time("brighten, lookup table", () -> new BrightenTransformation(30).run(image));
+    time("to BufferedImage, per-pixel accessors", () -> perPixelToBuffered(image));
+    time("to BufferedImage, bulk accessors", () -> ConvertImage.convertToBuffered(image));
+
+    IImage frame = randomImage(1920, 1080);
+    long maxBytes = PixelBufferPool.getShared().getMaxBytes();
+    PixelBufferPool.getShared().setMaxBytes(0);
+    time("100 1080p brightens, no buffer pool", () -> brightenBatch(frame, 100));
+    PixelBufferPool.getShared().setMaxBytes(maxBytes);
+    time("100 1080p brightens, buffer pool", () -> brightenBatch(frame, 100));
+    Kernel gaussian = new GaussianBlurTransformation(10).getKernel();
+    double[][] weights = new double[gaussian.getHeight()][gaussian.getWidth()];
+    for (int row = 0; row < weights.length; row++) {
+      for (int col = 0; col < weights[row].length; col++) {
+        weights[row][col] = gaussian.getWeight(row, col);
+      }
+    }
+    weights[0][0] += 1e-9;
+    time("1080p Gaussian radius 10, full 2D kernel", 3,
+        () -> new ConvolutionTransformation(new Kernel(weights)).run(frame));
+    time("1080p Gaussian radius 10, separable passes",
+        () -> new ConvolutionTransformation(gaussian).run(frame));
+    time("1080p Gaussian radius 50, separable passes",
+        () -> new GaussianBlurTransformation(50).run(frame));
+    time("1080p sepia, double", () -> new SepiaTransformation().run(frame));
+    time("1080p sepia, fixed point",
+        () -> new SepiaTransformation(Arithmetic.FIXED_POINT).run(frame));
+    time("1080p luma, double", () -> new LumaTransformation().run(frame));
+    time("1080p luma, fixed point",
+        () -> new LumaTransformation(Arithmetic.FIXED_POINT).run(frame));
+    time("1080p blur, double", () -> new BlurTransformation().run(frame));
+    time("1080p blur, fixed point",
+        () -> new BlurTransformation(Arithmetic.FIXED_POINT).run(frame));
+    time("1080p sharpen, double", () -> new SharpenTransformation().run(frame));
+    time("1080p sharpen, fixed point",
+        () -> new SharpenTransformation(Arithmetic.FIXED_POINT).run(frame));
+    IImage uhd = randomImage(3840, 2160);
+    Kernel sharpen = new SharpenTransformation().getKernel();
+    time("4K sharpen, border checks on every tap", () -> borderCheckedConvolve(uhd, sharpen));
+    time("4K sharpen, interior without border checks",
+        () -> new SharpenTransformation().run(uhd));
+    time("4K blur, interior without border checks", () -> new BlurTransformation().run(uhd));
+    Kernel large = randomKernel(15);
+    time("1080p 15x15 kernel, direct", 1, () -> borderCheckedConvolve(frame, large));
+    time("1080p 15x15 kernel, Fourier transform",
+        () -> new ConvolutionTransformation(large).run(frame));
+    Kernel psf = randomKernel(31);
+    time("4K 31x31 kernel, Fourier transform", 3,
+        () -> new ConvolutionTransformation(psf).run(uhd));
+    time("4K box blur radius 1", () -> new BoxBlurTransformation(1).run(uhd));
+    time("4K box blur radius 40", () -> new BoxBlurTransformation(40).run(uhd));
+    time("4K Gaussian radius 40, separable passes", 3,
+        () -> new GaussianBlurTransformation(40).run(uhd));
+    time("4K Gaussian radius 40, three box passes",
+        () -> new FastGaussianBlurTransformation(40).run(uhd));
+    time("4K Gaussian radius 10, whole image",
+        () -> new GaussianBlurTransformation(10).run(uhd));
+    time("4K Gaussian radius 10, 400x400 region",
+        () -> new GaussianBlurTransformation(10).run(uhd, new Region(1720, 880, 400, 400)));
+    time("4K integral image, one thread",
+        () -> new IntegralImage(uhd, Parallelism.SEQUENTIAL));
+    time("4K integral image, default parallelism", () -> new IntegralImage(uhd));
+    IntegralImage integral = new IntegralImage(uhd);
+    time("1000000 integral image rectangle means", () -> integralMeans(integral, 1000000));
+    time("4K histogram, per-pixel accessors", () -> perPixelHistogram(uhd));
+    time("4K histogram, one thread", () -> new Histogram(uhd, Parallelism.SEQUENTIAL));
+    time("4K histogram, default parallelism", () -> new Histogram(uhd));
+    time("4K equalize", () -> new EqualizeTransformation(uhd).run(uhd));
+    time("4K auto-levels", () -> new AutoLevelsTransformation(uhd).run(uhd));
+    time("4K invert, new image", () -> new InvertTransformation().run(uhd));
+    time("4K invert, in place", () -> new InvertTransformation().runInPlace(uhd));
+    IImage photo = randomImage(6000, 4000);
+    time("24 MP thumbnail 256, halving and area averaging",
+        () -> new ThumbnailTransformation(256).run(photo));
+    BufferedImage bufferedPhoto = ConvertImage.convertToBuffered(photo);
+    time("24 MP thumbnail 256, BufferedImage.getScaledInstance", 3,
+        () -> scaledInstance(bufferedPhoto, 256, 171));
+    time("24 MP pyramid, every level", 3, () -> {
+      ImagePyramid pyramid = new ImagePyramid(photo);
+      pyramid.getLevel(pyramid.getLevelCount() - 1);
+    });
+    ImagePyramid photoPyramid = new ImagePyramid(photo);
+    BufferedImage previewLevel = ConvertImage.convertToBuffered(
+        photoPyramid.getLevel(photoPyramid.levelFor(1200, 800)));
+    time("24 MP preview 1200x800, drawn from full resolution", 3,
+        () -> drawScaled(bufferedPhoto, 1200, 800));
+    time("24 MP preview 1200x800, drawn from pyramid level",
+        () -> drawScaled(previewLevel, 1200, 800));
+    Parallelism parallel = Parallelism.getDefault();
+    String threads = ", " + parallel.getThreads() + " threads";
+    time("1080p sepia, one thread",
+        () -> new SepiaTransformation().run(frame, Parallelism.SEQUENTIAL));
+    time("1080p sepia" + threads, () -> new SepiaTransformation().run(frame, parallel));
+    time("1080p Gaussian radius 10, one thread",
+        () -> new ConvolutionTransformation(gaussian).run(frame, Parallelism.SEQUENTIAL));
+    time("1080p Gaussian radius 10" + threads,
+        () -> new ConvolutionTransformation(gaussian).run(frame, parallel));
+    if (VectorSupport.isAvailable()) {
+      for (boolean vectorized : new boolean[] {false, true}) {
+        VectorSupport.setEnabled(vectorized);
+        String loops = vectorized ? ", vector loops" : ", scalar loops";
+        time("1080p brighten" + loops, () -> new BrightenTransformation(30).run(frame));
+        time("1080p sepia, fixed point" + loops,
+            () -> new SepiaTransformation(Arithmetic.FIXED_POINT).run(frame));
+        time("1080p blur" + loops, () -> new BlurTransformation().run(frame));
+        time("1080p sharpen" + loops, () -> new SharpenTransformation().run(frame));
+        time("1080p Gaussian radius 10" + loops,
+            () -> new ConvolutionTransformation(gaussian).run(frame));
+      }
+    } else {
+      System.out.println("Vector API not available, run with --add-modules "
+          + "jdk.incubator.vector to compare the vector loops");
+    }
+    System.out.println("Pool hits: " + PixelBufferPool.getShared().getHits() + ", misses: "
+        + PixelBufferPool.getShared().getMisses());
+  }
+
+  /**
+   * Creates an image filled with random pixels.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @return The random image.
+   */
+  private static IImage randomImage(int width, int height) {
+    Random random = new Random(42);
+    int[] rgb = new int[width * height];
+    for (int i = 0; i < rgb.length; i++) {
+      rgb[i] = random.nextInt();
+    }
+    return new PackedImage(width, height, rgb);
+  }
+
+  /**
+   * Scales an image with the area averaging of BufferedImage.getScaledInstance and draws it.
+   *
+   * @param image  The image.
+   * @param width  The width of the result.
+   * @param height The height of the result.
+   * @return The scaled image.
+   */
+  private static BufferedImage scaledInstance(BufferedImage image, int width, int height) {
+    Image scaled = image.getScaledInstance(width, height, Image.SCALE_AREA_AVERAGING);
+    BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    result.getGraphics().drawImage(scaled, 0, 0, null);
+    return result;
+  }
+
+  /**
+   * Draws an image scaled to the given size, as the Canvas draws it to fit the panel.
+   *
+   * @param image  The image.
+   * @param width  The width to draw at.
+   * @param height The height to draw at.
+   * @return The drawn image.
+   */
+  private static BufferedImage drawScaled(BufferedImage image, int width, int height) {
+    BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    result.getGraphics().drawImage(image, 0, 0, width, height, null);
+    return result;
+  }
+
+  /**
+   * Counts the red, green and blue histograms of an image with the per-pixel accessors.
+   *
+   * @param image The image.
+   * @return The histograms, one after another.
+   */
+  private static long[] perPixelHistogram(IImageState image) {
+    long[] counts = new long[3 * Histogram.BINS];
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        counts[image.getRedChannel(x, y)]++;
+        counts[Histogram.BINS + image.getGreenChannel(x, y)]++;
+        counts[2 * Histogram.BINS + image.getBlueChannel(x, y)]++;
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Averages the red channel over many rectangles of varying size.
+   *
+   * @param integral The summed-area table to query.
+   * @param count    The number of rectangles.
+   * @return The sum of the means, so the queries are not optimized away.
+   */
+  private static double integralMeans(IntegralImage integral, int count) {
+    double total = 0;
+    for (int i = 0; i < count; i++) {
+      int size = 1 + i % 500;
+      total += integral.mean(Channel.RED, i % (integral.getWidth() - size),
+          i % (integral.getHeight() - size), size, size);
+    }
+    return total;
+  }
+
+  /**
+   * Runs the given task several times and prints the best time.
+   *
+   * @param label The name of the benchmark.
+   * @param task  The task to time.
+   */
+  private static void time(String label, Runnable task) {
+    time(label, RUNS, task);
+  }
+
+  /**
+   * Runs the given task the given number of times and prints the best time.
+   *
+   * @param label The name of the benchmark.
+   * @param runs  The number of runs.
+   * @param task  The task to time.
+   */
+  private static void time(String label, int runs, Runnable task) {
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < runs; run++) {
+      long start = System.nanoTime();
+      task.run();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("%-50s %8.1f ms%n", label, best / 1e6);
+  }
+
+  /**
+   * Brightens an image with an add and a clamp per channel, as BrightenTransformation did before
+   * it was built on a lookup table.
+   *
+   * @param source The image to brighten.
+   * @param value  The value added to every channel.
+   * @return The brightened image.
+   */
+  private static IImageState perPixelBrighten(IImageState source, int value) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    IImage result = new PackedImage(width, height);
+    int[] pixels = new int[width];
+    for (int row = 0; row < height; row++) {
+      source.getRGB(0, row, width, 1, pixels, 0, width);
+      for (int col = 0; col < width; col++) {
+        int red = clamp(((pixels[col] >> 16) & 0xFF) + value);
+        int green = clamp(((pixels[col] >> 8) & 0xFF) + value);
+        int blue = clamp((pixels[col] & 0xFF) + value);
+        pixels[col] = (red << 16) | (green << 8) | blue;
+      }
+      result.setRGB(0, row, width, 1, pixels, 0, width);
+    }
+    return result;
+  }
+
+  /**
+   * Brightens the same image several times, releasing each result as a batch job would once it
+   * has been saved.
+   *
+   * @param source The image to brighten.
+   * @param count  The number of images in the batch.
+   */
+  private static void brightenBatch(IImageState source, int count) {
+    for (int i = 0; i < count; i++) {
+      IImageState result = new BrightenTransformation(i % 50 + 1).run(source);
+      ((IReleasableImage) result).release();
+    }
+  }
+
+  /**
+   * Applies sepia through the per-pixel getters and setPixel, as every transformation did
+   * before the bulk accessors existed.
+   *
+   * @param source The image to transform.
+   * @return The transformed image.
+   */
+  private static IImageState perPixelSepia(IImageState source) {
+    IImage result = new PackedImage(source.getWidth(), source.getHeight());
+    double[][] kernel = {
+        {0.393, 0.769, 0.189},
+        {0.349, 0.686, 0.168},
+        {0.272, 0.534, 0.131}
+    };
+    for (int row = 0; row < source.getHeight(); row++) {
+      for (int col = 0; col < source.getWidth(); col++) {
+        int red = source.getRedChannel(col, row);
+        int green = source.getGreenChannel(col, row);
+        int blue = source.getBlueChannel(col, row);
+        double redSum = (kernel[0][0] * red) + (kernel[0][1] * green) + (kernel[0][2] * blue);
+        double greenSum = (kernel[1][0] * red) + (kernel[1][1] * green) + (kernel[1][2] * blue);
+        double blueSum = (kernel[2][0] * red) + (kernel[2][1] * green) + (kernel[2][2] * blue);
+        result.setPixel(col, row, clamp((int) redSum), clamp((int) greenSum),
+            clamp((int) blueSum));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Applies a kernel with bulk row reads but a border check on every tap of every pixel, as
+   * ConvolutionTransformation did for kernels that are not separable before it split off the
+   * interior columns. Pixels outside the image are black.
+   *
+   * @param source The image to transform.
+   * @param kernel The kernel.
+   * @return The transformed image.
+   */
+  private static IImageState borderCheckedConvolve(IImageState source, Kernel kernel) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    int radiusX = kernel.getWidth() / 2;
+    int radiusY = kernel.getHeight() / 2;
+    IImage result = new PackedImage(width, height);
+    int[] pixels = new int[width * height];
+    source.getRGB(0, 0, width, height, pixels, 0, width);
+    int[] row = new int[width];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        double redSum = 0;
+        double greenSum = 0;
+        double blueSum = 0;
+        for (int kernelRow = 0; kernelRow < kernel.getHeight(); kernelRow++) {
+          for (int kernelCol = 0; kernelCol < kernel.getWidth(); kernelCol++) {
+            int sumRow = y + kernelRow - radiusY;
+            int sumCol = x + kernelCol - radiusX;
+            if (sumRow >= 0 && sumRow < height && sumCol >= 0 && sumCol < width) {
+              int pixel = pixels[sumRow * width + sumCol];
+              double weight = kernel.getWeight(kernelRow, kernelCol);
+              redSum += weight * ((pixel >> 16) & 0xFF);
+              greenSum += weight * ((pixel >> 8) & 0xFF);
+              blueSum += weight * (pixel & 0xFF);
+            }
+          }
+        }
+        row[x] = (clamp((int) redSum) << 16) | (clamp((int) greenSum) << 8)
+            | clamp((int) blueSum);
+      }
+      result.setRGB(0, y, width, 1, row, 0, width);
+    }
+    return result;
+  }
+
+  /**
+   * Creates a square kernel of random positive weights that add up to about 1, which is not
+   * separable.
+   *
+   * @param size The number of rows and columns of the kernel.
+   * @return The kernel.
+   */
+  private static Kernel randomKernel(int size) {
+    Random random = new Random(size);
+    double[][] weights = new double[size][size];
+    for (double[] row : weights) {
+      for (int col = 0; col < size; col++) {
+        row[col] = 2 * random.nextDouble() / (size * size);
+      }
+    }
+    return new Kernel(weights);
+  }
+
+  /**
+   * Clamps the given value to the range of [0, 255].
+   *
+   * @param value The value to be clamped.
+   * @return The clamped value.
+   */
+  private static int clamp(int value) {
+    return Math.max(0, Math.min(255, value));
+  }
+
+  /**
+   * Converts an image to a BufferedImage one pixel at a time, as ConvertImage did before the
+   * bulk accessors existed.
+   *
+   * @param image The image to convert.
+   * @return The converted image.
+   */
+  private static BufferedImage perPixelToBuffered(IImageState image) {
+    BufferedImage bufferedImage = new BufferedImage(image.getWidth(), image.getHeight(),
+        BufferedImage.TYPE_INT_RGB);
+    for (int x = 0; x < image.getWidth(); x++) {
+      for (int y = 0; y < image.getHeight(); y++) {
+        int rgb = (image.getRedChannel(x, y) << 16) | (image.getGreenChannel(x, y) << 8)
+            | image.getBlueChannel(x, y);
+        bufferedImage.setRGB(x, y, rgb);
+      }
+    }
+    return bufferedImage;
+  }
+}
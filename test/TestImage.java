@@ -1,9 +1,74 @@
+import controller.io.ImageLoader;
+import model.ConvertImage;
 import model.ImageDataBase;
+import model.image.Channel;
+import model.image.CopyOnWriteImage;
+import model.image.CroppedImage;
+import model.image.Histogram;
+import model.image.IImage;
+import model.image.IImageState;
+import model.image.IReleasableImage;
+import model.image.ImageArena;
 import model.image.ImageImpl;
+import model.image.ImageStorage;
+import model.image.ImagePyramid;
+import model.image.IntegralImage;
+import model.image.MappedImage;
+import model.image.OffHeapImage;
+import model.image.PackedImage;
+import model.image.Parallelism;
+import model.image.PixelBufferPool;
+import model.image.PlanarImage;
+import model.image.PointwiseView;
+import model.image.Region;
+import model.image.TiledImage;
+import model.transformations.Arithmetic;
+import model.transformations.AutoLevelsTransformation;
+import model.transformations.BlueTransformation;
+import model.transformations.BrightenTransformation;
+import model.transformations.ColorMatrixTransformation;
+import model.transformations.ContrastTransformation;
+import model.transformations.EqualizeTransformation;
+import model.transformations.GammaTransformation;
+import model.transformations.GreenTransformation;
+import model.transformations.ITransformation;
+import model.transformations.InvertTransformation;
+import model.transformations.LevelsTransformation;
+import model.transformations.LookupTableTransformation;
+import model.transformations.LumaTransformation;
+import model.transformations.PointwiseTransformation;
+import model.transformations.RedTransformation;
+import model.transformations.VectorSupport;
+import model.transformations.filter.BlurTransformation;
+import model.transformations.filter.BorderMode;
+import model.transformations.filter.BoxBlurTransformation;
+import model.transformations.filter.ConvolutionTransformation;
+import model.transformations.filter.FastGaussianBlurTransformation;
+import model.transformations.filter.GaussianBlurTransformation;
+import model.transformations.filter.GrayscaleTransformation;
+import model.transformations.filter.Kernel;
+import model.transformations.filter.ResizeTransformation;
+import model.transformations.filter.SepiaTransformation;
+import model.transformations.filter.SharpenTransformation;
+import model.transformations.filter.ThumbnailTransformation;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * A JUnit test class for the model.
@@ -81,6 +146,984 @@ public class TestImage {
     image.setPixel(0, -2, 0, 0, 0);
   }
 
+  @Test
+  public void testPackedImage() {
+    PackedImage packed = new PackedImage(3, 2);
+    packed.setPixel(2, 1, 246, 146, 150);
+    assertEquals(3, packed.getWidth());
+    assertEquals(2, packed.getHeight());
+    assertEquals(246, packed.getRedChannel(2, 1));
+    assertEquals(146, packed.getGreenChannel(2, 1));
+    assertEquals(150, packed.getBlueChannel(2, 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalPackedPixel() {
+    PackedImage packed = new PackedImage(3, 2);
+    packed.setPixel(0, 0, 256, 0, 0);
+  }
+
+  @Test
+  public void testPackedImageAdoptsArray() {
+    int[] rgb = {0x0000FF00, 0x00123456, 0x80ABCDEF, 0xFF000001, 0, 0x00FFFFFF};
+    PackedImage packed = new PackedImage(3, 2, rgb);
+    assertEquals(0xFF00FF00, rgb[0]);
+    assertEquals(0xFF123456, rgb[1]);
+    assertEquals(0xFFABCDEF, rgb[2]);
+    assertEquals(0x12, packed.getRedChannel(1, 0));
+    assertEquals(0xEF, packed.getBlueChannel(2, 0));
+    packed.setPixel(0, 1, 1, 2, 3);
+    assertEquals(0xFF010203, rgb[3]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalPackedArray() {
+    new PackedImage(3, 2, new int[5]);
+  }
+
+  @Test
+  public void testStorageRoundTrip() {
+    PackedImage noisy = randomImage(7, 5);
+    for (ImageStorage storage : ImageStorage.values()) {
+      IImage created = storage.create(7, 5);
+      assertEquals(7, created.getWidth());
+      assertEquals(5, created.getHeight());
+      assertEquals(0, created.getRedChannel(6, 4));
+      for (int y = 0; y < 5; y++) {
+        for (int x = 0; x < 7; x++) {
+          created.setPixel(x, y, noisy.getRedChannel(x, y), noisy.getGreenChannel(x, y),
+              noisy.getBlueChannel(x, y));
+        }
+      }
+      assertSameImage(noisy, created, 0);
+
+      BufferedImage buffered = ConvertImage.convertToBuffered(created);
+      for (int y = 0; y < 5; y++) {
+        for (int x = 0; x < 7; x++) {
+          int expected = 0xFF000000 | (noisy.getRedChannel(x, y) << 16)
+              | (noisy.getGreenChannel(x, y) << 8) | noisy.getBlueChannel(x, y);
+          assertEquals(storage.name(), expected, buffered.getRGB(x, y));
+        }
+      }
+      IImage converted = ConvertImage.convertFromBuffered(buffered, storage);
+      assertSameImage(noisy, converted, 0);
+      IImage adopted = storage.create(7, 5, ConvertImage.toRGB(noisy));
+      assertSameImage(noisy, adopted, 0);
+
+      for (IImage storedImage : new IImage[] {created, converted, adopted}) {
+        if (storedImage instanceof IReleasableImage) {
+          ((IReleasableImage) storedImage).release();
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOffHeapImage() {
+    OffHeapImage offHeap = new OffHeapImage(3, 2);
+    offHeap.setPixel(2, 1, 246, 146, 150);
+    assertEquals(246, offHeap.getRedChannel(2, 1));
+    assertEquals(146, offHeap.getGreenChannel(2, 1));
+    assertEquals(150, offHeap.getBlueChannel(2, 1));
+    assertFalse(offHeap.isReleased());
+    offHeap.release();
+    offHeap.release();
+    assertTrue(offHeap.isReleased());
+    try {
+      offHeap.getRedChannel(0, 0);
+      fail("read after release");
+    } catch (IllegalStateException e) {
+      // released images throw instead of reading freed memory
+    }
+    try {
+      offHeap.setRGB(0, 0, 1, 1, new int[1], 0, 1);
+      fail("write after release");
+    } catch (IllegalStateException e) {
+      // released images throw instead of writing freed memory
+    }
+  }
+
+  @Test
+  public void testOffHeapReleaseFreesDirectMemory() {
+    BufferPoolMXBean direct = null;
+    for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+      if (pool.getName().equals("direct")) {
+        direct = pool;
+      }
+    }
+    long before = direct.getMemoryUsed();
+    OffHeapImage offHeap = new OffHeapImage(1000, 1000);
+    assertTrue(direct.getMemoryUsed() >= before + 4000000);
+    offHeap.release();
+    assertTrue(direct.getMemoryUsed() <= before);
+  }
+
+  @Test
+  public void testOffHeapReleaseDuringReads() throws InterruptedException {
+    OffHeapImage offHeap = new OffHeapImage(64, 64);
+    AtomicReference<RuntimeException> stopped = new AtomicReference<RuntimeException>();
+    Thread reader = new Thread(() -> {
+      int[] row = new int[64];
+      try {
+        while (true) {
+          for (int y = 0; y < 64; y++) {
+            offHeap.getRGB(0, y, 64, 1, row, 0, 64);
+          }
+        }
+      } catch (RuntimeException e) {
+        stopped.set(e);
+      }
+    });
+    reader.start();
+    Thread.sleep(20);
+    offHeap.release();
+    reader.join(10000);
+    assertTrue(stopped.get() instanceof IllegalStateException);
+  }
+
+  @Test
+  public void testImageArenaReleasesOnClose() {
+    ImageArena arena = new ImageArena();
+    OffHeapImage first;
+    OffHeapImage second;
+    try (ImageArena scope = arena) {
+      first = scope.allocate(3, 2);
+      second = scope.allocate(1, 1);
+      first.setPixel(0, 0, 1, 2, 3);
+      assertEquals(2, first.getGreenChannel(0, 0));
+    }
+    assertTrue(first.isReleased());
+    assertTrue(second.isReleased());
+    arena.close();
+    try {
+      arena.allocate(1, 1);
+      fail("allocate after close");
+    } catch (IllegalStateException e) {
+      // a closed arena owns no more images
+    }
+  }
+
+  @Test
+  public void testMappedImage() {
+    MappedImage mapped = new MappedImage(3, 2);
+    mapped.setPixel(2, 1, 246, 146, 150);
+    assertEquals(246, mapped.getRedChannel(2, 1));
+    assertEquals(146, mapped.getGreenChannel(2, 1));
+    assertEquals(150, mapped.getBlueChannel(2, 1));
+    BufferedImage view = mapped.asBufferedImage();
+    assertEquals(0xFFF69296, view.getRGB(2, 1));
+    view.setRGB(0, 0, 0x00010203);
+    assertEquals(3, mapped.getBlueChannel(0, 0));
+    mapped.release();
+    assertTrue(mapped.isReleased());
+    try {
+      mapped.getRedChannel(0, 0);
+      fail("read after release");
+    } catch (IllegalStateException e) {
+      // released images throw instead of reading the unmapped file
+    }
+  }
+
+  @Test
+  public void testMappedReleaseDuringReads() throws InterruptedException {
+    MappedImage mapped = new MappedImage(64, 64);
+    BufferedImage view = mapped.asBufferedImage();
+    AtomicReference<RuntimeException> stopped = new AtomicReference<RuntimeException>();
+    Thread reader = new Thread(() -> {
+      int[] row = new int[64];
+      try {
+        while (true) {
+          for (int y = 0; y < 64; y++) {
+            mapped.getRGB(0, y, 64, 1, row, 0, 64);
+            mapped.getGreenChannel(y, y);
+            view.getRGB(y, y);
+          }
+        }
+      } catch (RuntimeException e) {
+        stopped.set(e);
+      }
+    });
+    reader.start();
+    Thread.sleep(20);
+    mapped.release();
+    reader.join(10000);
+    assertTrue(stopped.get() instanceof IllegalStateException);
+  }
+
+  @Test
+  public void testMappedLoadMatchesPacked() throws IOException {
+    PackedImage noisy = randomImage(9, 7);
+    BufferedImage rgb = ConvertImage.convertToBuffered(noisy);
+    BufferedImage[] sources = {rgb, new BufferedImage(9, 7, BufferedImage.TYPE_INT_ARGB),
+        new BufferedImage(9, 7, BufferedImage.TYPE_BYTE_GRAY),
+        new BufferedImage(9, 7, BufferedImage.TYPE_BYTE_INDEXED)};
+    for (int i = 1; i < sources.length; i++) {
+      sources[i].getGraphics().drawImage(rgb, 0, 0, null);
+    }
+    sources[1].setRGB(4, 3, 0x80FF0000);
+    File directory = Files.createTempDirectory("images").toFile();
+    String[] names = {"rgb", "rgba", "grey", "indexed"};
+    for (int i = 0; i < sources.length; i++) {
+      for (String format : new String[] {"png", "jpg"}) {
+        if (format.equals("jpg") && sources[i].getColorModel().hasAlpha()) {
+          continue;
+        }
+        File file = new File(directory, names[i] + "." + format);
+        assertTrue(ImageIO.write(sources[i], format, file));
+        IImageState packed = new ImageLoader(file.getPath(), ImageStorage.PACKED).run();
+        IImageState mapped = new ImageLoader(file.getPath(), ImageStorage.MAPPED).run();
+        assertTrue(file.getName(), mapped instanceof MappedImage);
+        assertEquals(packed.getWidth(), mapped.getWidth());
+        assertEquals(packed.getHeight(), mapped.getHeight());
+        assertSameImage(packed, mapped, 0);
+        ((MappedImage) mapped).release();
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void testBulkAccessors() {
+    PackedImage noisy = randomImage(5, 4);
+    for (ImageStorage storage : ImageStorage.values()) {
+      IImage stored = storage.create(5, 4, ConvertImage.toRGB(noisy));
+      assertBulkAccessors(noisy, stored);
+      if (stored instanceof IReleasableImage) {
+        ((IReleasableImage) stored).release();
+      }
+    }
+    PackedImage copy = new PackedImage(5, 4, ConvertImage.toRGB(noisy));
+    assertBulkAccessors(noisy, new CopyOnWriteImage(copy));
+    assertBulkAccessors(noisy, new ImageImpl(5, 4) {
+      {
+        setRGB(0, 0, 5, 4, ConvertImage.toRGB(noisy), 0, 5);
+      }
+    });
+    assertBulkReads(noisy, new PointwiseView(noisy, rgb -> rgb));
+    assertBulkReads(new CroppedImage(noisy, 1, 1, 4, 3), new CroppedImage(noisy, 1, 1, 4, 3));
+  }
+
+  @Test
+  public void testTiledImageComputesTilesOnAccess() {
+    TiledImage tiled = new TiledImage(5, 3, 2, (x, y, w, h, tile, scansize) -> {
+      for (int row = 0; row < h; row++) {
+        for (int col = 0; col < w; col++) {
+          tile[row * scansize + col] = ((x + col) << 16) | ((y + row) << 8);
+        }
+      }
+    });
+    assertEquals(3, tiled.getTilesAcross());
+    assertEquals(2, tiled.getTilesDown());
+    assertFalse(tiled.isTileMaterialized(2, 1));
+    assertEquals(4, tiled.getRedChannel(4, 2));
+    assertEquals(2, tiled.getGreenChannel(4, 2));
+    assertTrue(tiled.isTileMaterialized(2, 1));
+    assertFalse(tiled.isTileMaterialized(0, 0));
+    int[] rgb = new int[3];
+    tiled.getRGB(1, 1, 3, 1, rgb, 0, 3);
+    assertEquals(0xFF010100, rgb[0]);
+    assertEquals(0xFF030100, rgb[2]);
+    int[] tile = new int[4];
+    tiled.readTile(2, 1, tile);
+    assertEquals(0xFF040200, tile[0]);
+    assertEquals(0xFF000000, tile[1]);
+  }
+
+  @Test
+  public void testCopyOnWriteImageCopiesWrittenRows() {
+    CopyOnWriteImage copy = new CopyOnWriteImage(image);
+    copy.setPixel(1, 1, 10, 20, 30);
+    assertEquals(10, copy.getRedChannel(1, 1));
+    assertEquals(0, image.getRedChannel(1, 1));
+    assertEquals(248, copy.getRedChannel(2, 0));
+    assertTrue(copy.isRowShared(0));
+    assertEquals(1, copy.getCopiedRowCount());
+  }
+
+  @Test
+  public void testPointwiseViewReadsSource() {
+    PointwiseView red = new RedTransformation().view(image);
+    assertEquals(248, red.getGreenChannel(2, 0));
+    image.setPixel(2, 0, 10, 177, 177);
+    assertEquals(10, red.getBlueChannel(2, 0));
+    IImageState copy = red.materialize();
+    image.setPixel(2, 0, 20, 177, 177);
+    assertEquals(10, copy.getRedChannel(2, 0));
+    assertEquals(20, red.getRedChannel(2, 0));
+  }
+
+  @Test
+  public void testPointwiseViewsFuse() {
+    PointwiseView brightened = new BrightenTransformation(30).view(image);
+    PointwiseView sepia = new SepiaTransformation().view(brightened);
+    PointwiseView luma = new LumaTransformation().view(sepia);
+    assertEquals(image, luma.getSource());
+
+    IImageState eager = new LumaTransformation().run(
+        new SepiaTransformation().run(new BrightenTransformation(30).run(image)));
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        assertEquals(eager.getRedChannel(x, y), luma.getRedChannel(x, y));
+        assertEquals(eager.getBlueChannel(x, y), luma.getBlueChannel(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testPixelBufferPoolReusesBuffers() {
+    PixelBufferPool pool = new PixelBufferPool(64);
+    int[] buffer = pool.acquire(8);
+    buffer[0] = 7;
+    pool.release(buffer);
+    assertEquals(32, pool.getPooledBytes());
+    int[] reused = pool.acquire(8);
+    assertTrue(buffer == reused);
+    assertEquals(0, reused[0]);
+    assertEquals(1, pool.getHits());
+    assertEquals(1, pool.getMisses());
+    pool.release(new int[32]);
+    assertEquals(0, pool.getPooledBytes());
+    pool.release(new int[8]);
+    assertEquals(0, pool.getPooledBytes());
+    pool.release(reused);
+    pool.release(reused);
+    assertEquals(32, pool.getPooledBytes());
+  }
+
+  @Test
+  public void testCopyingStoragesKeepCallerArrays() {
+    int[] rgb = new int[6];
+    for (ImageStorage storage : new ImageStorage[] {ImageStorage.PLANAR, ImageStorage.OFF_HEAP,
+        ImageStorage.MAPPED, ImageStorage.TILED}) {
+      IImage stored = storage.create(3, 2, rgb);
+      PackedImage next = new PackedImage(3, 2);
+      next.setPixel(0, 0, 9, 9, 9);
+      assertEquals(0, rgb[0] & 0xFFFFFF);
+      assertEquals(0, stored.getRedChannel(0, 0));
+      if (stored instanceof IReleasableImage) {
+        ((IReleasableImage) stored).release();
+      }
+      next.release();
+
+      int[] lent = PixelBufferPool.getShared().acquire(6);
+      stored = storage.create(3, 2, lent);
+      assertTrue(lent == PixelBufferPool.getShared().acquire(6));
+      if (stored instanceof IReleasableImage) {
+        ((IReleasableImage) stored).release();
+      }
+    }
+  }
+
+  @Test
+  public void testDatabaseReleasesReplacedImages() {
+    PackedImage kept = new PackedImage(3, 2);
+    database.add("a", kept);
+    database.remove("a");
+    assertFalse(kept.isReleased());
+
+    ImageDataBase database = new ImageDataBase(true);
+    PackedImage first = new PackedImage(3, 2);
+    PackedImage second = new PackedImage(3, 2);
+    database.add("a", first);
+    database.add("b", new RedTransformation().view(first));
+    database.add("a", second);
+    assertFalse(first.isReleased());
+    database.remove("b");
+    assertTrue(first.isReleased());
+    database.add("a", image);
+    assertTrue(second.isReleased());
+  }
+
+  @Test
+  public void testChannelTransformationsMatchMatrices() {
+    PointwiseTransformation[] channels = {new RedTransformation(), new GreenTransformation(),
+        new BlueTransformation()};
+    Random random = new Random(8);
+    for (int i = 0; i < channels.length; i++) {
+      double[][] matrix = new double[3][3];
+      for (int row = 0; row < 3; row++) {
+        matrix[row][i] = 1;
+      }
+      ColorMatrixTransformation expected = new ColorMatrixTransformation(matrix);
+      for (int k = 0; k < 1000; k++) {
+        int rgb = random.nextInt();
+        assertEquals(expected.apply(rgb), channels[i].apply(rgb));
+      }
+    }
+  }
+
+  @Test
+  public void testColorMatricesCompose() {
+    ColorMatrixTransformation grayscale = new GrayscaleTransformation();
+    ColorMatrixTransformation sepia = new SepiaTransformation();
+    ColorMatrixTransformation fused = grayscale.then(sepia);
+    assertTrue(grayscale.staysInRange());
+    assertFalse(sepia.staysInRange());
+
+    for (int rgb = 0; rgb < 0x1000000; rgb += 0x010307) {
+      int sequential = sepia.apply(grayscale.apply(rgb));
+      int combined = fused.apply(rgb);
+      for (int shift = 0; shift <= 16; shift += 8) {
+        int difference = ((sequential >> shift) & 0xFF) - ((combined >> shift) & 0xFF);
+        assertTrue(Math.abs(difference) <= 2);
+      }
+    }
+    assertEquals(new BrightenTransformation(30).apply(0x102030),
+        new BrightenTransformation(10).then(new BrightenTransformation(20)).apply(0x102030));
+  }
+
+  @Test
+  public void testLookupTablesCompose() {
+    LookupTableTransformation invert = new InvertTransformation();
+    assertEquals(0x0A1400, invert.then(invert).apply(0x0A1400));
+    assertEquals(0x0A1400, new GammaTransformation(1).apply(0x0A1400));
+    assertEquals(0x0A1400, new ContrastTransformation(1).apply(0x0A1400));
+    assertEquals(0x00FF80, new LevelsTransformation(100, 200).apply(0x32C896));
+
+    LookupTableTransformation brighten = new BrightenTransformation(40);
+    LookupTableTransformation fused = brighten.then(new GammaTransformation(2.2)).then(invert);
+    for (int rgb = 0; rgb < 0x1000000; rgb += 0x010307) {
+      assertEquals(invert.apply(new GammaTransformation(2.2).apply(brighten.apply(rgb))),
+          fused.apply(rgb));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalGamma() {
+    new GammaTransformation(0);
+  }
+
+  @Test
+  public void testBorderModes() {
+    assertEquals(-1, BorderMode.ZERO.map(-1, 4));
+    assertEquals(0, BorderMode.CLAMP.map(-3, 4));
+    assertEquals(3, BorderMode.CLAMP.map(9, 4));
+    assertEquals(2, BorderMode.MIRROR.map(-2, 4));
+    assertEquals(1, BorderMode.MIRROR.map(5, 4));
+  }
+
+  @Test
+  public void testKernelSeparability() {
+    assertTrue(new BlurTransformation().getKernel().isSeparable());
+    assertTrue(Kernel.gaussian(20, 7).isSeparable());
+    assertFalse(new Kernel(new double[][] {{0, 1, 0}, {1, 1, 1}, {0, 1, 0}}).isSeparable());
+  }
+
+  @Test
+  public void testSeparableConvolutionMatchesDirect() {
+    Kernel separable = new Kernel(new double[][] {{0.1, 0.2, 0.1}, {0.2, 0.4, 0.2},
+        {0.1, 0.2, 0.1}});
+    Kernel direct = new Kernel(new double[][] {{0.1, 0.2, 0.1}, {0.2, 0.4, 0.2},
+        {0.1, 0.2, 0.1000001}});
+    assertFalse(direct.isSeparable());
+    for (BorderMode mode : BorderMode.values()) {
+      IImageState expected = new ConvolutionTransformation(direct, mode).run(image);
+      IImageState actual = new ConvolutionTransformation(separable, mode).run(image);
+      for (int y = 0; y < image.getHeight(); y++) {
+        for (int x = 0; x < image.getWidth(); x++) {
+          assertEquals(expected.getRedChannel(x, y), actual.getRedChannel(x, y), 1);
+          assertEquals(expected.getBlueChannel(x, y), actual.getBlueChannel(x, y), 1);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testConvolutionBordersMatchEveryTap() {
+    Kernel sharpen = new SharpenTransformation().getKernel();
+    for (int[] size : new int[][] {{1, 1}, {3, 6}, {17, 11}}) {
+      PackedImage noisy = randomImage(size[0], size[1]);
+      for (BorderMode mode : BorderMode.values()) {
+        IImageState actual = new ConvolutionTransformation(sharpen, mode).run(noisy);
+        for (int y = 0; y < size[1]; y++) {
+          for (int x = 0; x < size[0]; x++) {
+            double sum = 0;
+            for (int row = 0; row < 5; row++) {
+              for (int col = 0; col < 5; col++) {
+                int sourceRow = mode.map(y + row - 2, size[1]);
+                int sourceCol = mode.map(x + col - 2, size[0]);
+                if (sourceRow >= 0 && sourceCol >= 0) {
+                  sum += sharpen.getWeight(row, col) * noisy.getGreenChannel(sourceCol, sourceRow);
+                }
+              }
+            }
+            assertEquals(Math.max(0, Math.min(255, (int) sum)), actual.getGreenChannel(x, y));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFourierConvolutionMatchesEveryTap() {
+    Random random = new Random(9);
+    double[][] weights = new double[9][11];
+    for (double[] row : weights) {
+      for (int col = 0; col < row.length; col++) {
+        row[col] = (random.nextDouble() - 0.3) / 40;
+      }
+    }
+    Kernel kernel = new Kernel(weights);
+    assertTrue(99 >= ConvolutionTransformation.FOURIER_MIN_WEIGHTS);
+    PackedImage noisy = randomImage(37, 23);
+    for (BorderMode mode : BorderMode.values()) {
+      ITransformation convolution = new ConvolutionTransformation(kernel, mode);
+      IImageState actual = convolution.run(noisy);
+      assertSameImage(actual, convolution.run(noisy, new Parallelism(4, 1)), 0);
+      for (int y = 0; y < 23; y++) {
+        for (int x = 0; x < 37; x++) {
+          double sum = 0;
+          for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 11; col++) {
+              int sourceRow = mode.map(y + row - 4, 23);
+              int sourceCol = mode.map(x + col - 5, 37);
+              if (sourceRow >= 0 && sourceCol >= 0) {
+                sum += weights[row][col] * noisy.getRedChannel(sourceCol, sourceRow);
+              }
+            }
+          }
+          assertEquals(Math.max(0, Math.min(255, (int) sum)), actual.getRedChannel(x, y), 1);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testGaussianBlurKeepsFlatImage() {
+    PackedImage flat = new PackedImage(40, 30);
+    for (int y = 0; y < 30; y++) {
+      for (int x = 0; x < 40; x++) {
+        flat.setPixel(x, y, 100, 150, 200);
+      }
+    }
+    IImageState blurred = new GaussianBlurTransformation(25).run(flat);
+    assertEquals(100, blurred.getRedChannel(0, 0), 1);
+    assertEquals(200, blurred.getBlueChannel(39, 29), 1);
+  }
+
+  @Test
+  public void testFixedPointConvolutionMatchesDouble() {
+    assertSameImage(new BlurTransformation().run(image),
+        new BlurTransformation(Arithmetic.FIXED_POINT).run(image), 0);
+    assertSameImage(new SharpenTransformation().run(image),
+        new SharpenTransformation(Arithmetic.FIXED_POINT).run(image), 0);
+    Kernel gaussian = Kernel.gaussian(4, 2);
+    assertSameImage(new ConvolutionTransformation(gaussian, BorderMode.MIRROR).run(image),
+        new ConvolutionTransformation(gaussian, BorderMode.MIRROR, Arithmetic.FIXED_POINT)
+            .run(image), 1);
+  }
+
+  @Test
+  public void testFixedPointColorMatrixWithinOne() {
+    assertSameImage(new SepiaTransformation().run(image),
+        new SepiaTransformation(Arithmetic.FIXED_POINT).run(image), 1);
+    assertSameImage(new LumaTransformation().run(image),
+        new LumaTransformation(Arithmetic.FIXED_POINT).run(image), 1);
+    assertEquals(Arithmetic.FIXED_POINT, new SepiaTransformation(Arithmetic.FIXED_POINT)
+        .then(new LumaTransformation()).getArithmetic());
+  }
+
+  @Test
+  public void testVectorizedMatchesScalar() {
+    PackedImage wide = randomImage(70, 9);
+    ITransformation[] transformations = {new BrightenTransformation(-40),
+        new SepiaTransformation(Arithmetic.FIXED_POINT), new LumaTransformation(),
+        new BlurTransformation(), new BlurTransformation(Arithmetic.FIXED_POINT),
+        new SharpenTransformation(), new SharpenTransformation(Arithmetic.FIXED_POINT),
+        new GaussianBlurTransformation(6)};
+    boolean enabled = VectorSupport.isEnabled();
+    try {
+      for (ITransformation transformation : transformations) {
+        VectorSupport.setEnabled(true);
+        IImageState vectorized = transformation.run(wide);
+        VectorSupport.setEnabled(false);
+        assertSameImage(transformation.run(wide), vectorized, 0);
+      }
+    } finally {
+      VectorSupport.setEnabled(enabled);
+    }
+  }
+
+  @Test
+  public void testParallelMatchesSequential() {
+    PackedImage large = randomImage(90, 61);
+    Parallelism parallelism = new Parallelism(4, 1);
+    ITransformation[] transformations = {new BrightenTransformation(25),
+        new SepiaTransformation(), new RedTransformation(), new BlurTransformation(),
+        new SharpenTransformation(Arithmetic.FIXED_POINT),
+        new ConvolutionTransformation(Kernel.gaussian(7, 3), BorderMode.MIRROR)};
+    for (ITransformation transformation : transformations) {
+      assertSameImage(transformation.run(large, Parallelism.SEQUENTIAL),
+          transformation.run(large, parallelism), 0);
+    }
+  }
+
+  @Test
+  public void testBoxBlurKeepsFlatImage() {
+    PackedImage flat = new PackedImage(31, 17);
+    for (int y = 0; y < 17; y++) {
+      for (int x = 0; x < 31; x++) {
+        flat.setPixel(x, y, 200, 90, 7);
+      }
+    }
+    for (BorderMode borderMode : new BorderMode[] {BorderMode.CLAMP, BorderMode.MIRROR}) {
+      assertSameImage(flat, new BoxBlurTransformation(new int[] {3, 40}, borderMode).run(flat), 0);
+    }
+    assertSameImage(flat, new FastGaussianBlurTransformation(25).run(flat), 0);
+  }
+
+  @Test
+  public void testBoxBlurRejectsHugeRadius() {
+    PackedImage noisy = randomImage(50, 40);
+    assertSameImage(new BoxBlurTransformation(BoxBlurTransformation.MAX_RADIUS).run(noisy),
+        new BoxBlurTransformation(BoxBlurTransformation.MAX_RADIUS).run(noisy), 0);
+    for (int radius : new int[] {BoxBlurTransformation.MAX_RADIUS + 1, Integer.MAX_VALUE}) {
+      try {
+        new BoxBlurTransformation(radius);
+        fail("radius " + radius);
+      } catch (IllegalArgumentException e) {
+        // the helper tables would grow with the radius
+      }
+    }
+    for (int radius : new int[] {10_000_000, Integer.MAX_VALUE}) {
+      try {
+        new FastGaussianBlurTransformation(radius);
+        fail("radius " + radius);
+      } catch (IllegalArgumentException e) {
+        // the box passes would exceed the largest radius
+      }
+    }
+  }
+
+  @Test
+  public void testBoxBlurMatchesConvolution() {
+    PackedImage noisy = randomImage(40, 23);
+    double[] weights = {0.2, 0.2, 0.2, 0.2, 0.2};
+    for (BorderMode borderMode : BorderMode.values()) {
+      assertSameImage(new ConvolutionTransformation(Kernel.separable(weights, weights), borderMode)
+          .run(noisy), new BoxBlurTransformation(new int[] {2}, borderMode).run(noisy), 1);
+    }
+  }
+
+  @Test
+  public void testFastGaussianBlurApproximatesGaussian() {
+    PackedImage gradient = new PackedImage(80, 60);
+    for (int y = 0; y < 60; y++) {
+      for (int x = 0; x < 80; x++) {
+        gradient.setPixel(x, y, x * 3, y * 4, x * y / 19);
+      }
+    }
+    assertSameImage(new GaussianBlurTransformation(12).run(gradient),
+        new FastGaussianBlurTransformation(12).run(gradient), 4);
+    PackedImage noisy = randomImage(90, 61);
+    ITransformation blur = new FastGaussianBlurTransformation(9);
+    assertSameImage(blur.run(noisy, Parallelism.SEQUENTIAL),
+        blur.run(noisy, new Parallelism(4, 1)), 0);
+  }
+
+  @Test
+  public void testParallelismBands() {
+    assertEquals(1, new Parallelism(8).bands(100, 100));
+    assertEquals(8, new Parallelism(8).bands(4000, 3000));
+    assertEquals(3, new Parallelism(8, 1).bands(100, 3));
+    assertEquals(1, Parallelism.SEQUENTIAL.bands(4000, 3000));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFixedPointOverflow() {
+    new ColorMatrixTransformation(new double[][] {{1e5, 0, 0}, {0, 1, 0}, {0, 0, 1}},
+        new double[3], Arithmetic.FIXED_POINT);
+  }
+
+  @Test
+  public void testIntegralImageSums() {
+    PackedImage noisy = randomImage(13, 9);
+    IntegralImage integral = new IntegralImage(noisy, new Parallelism(4, 1));
+    for (int y = 0; y <= 9; y++) {
+      for (int x = 0; x <= 13; x++) {
+        for (int height = 0; y + height <= 9; height++) {
+          for (int width = 0; x + width <= 13; width++) {
+            long red = 0;
+            long blue = 0;
+            for (int row = y; row < y + height; row++) {
+              for (int col = x; col < x + width; col++) {
+                red += noisy.getRedChannel(col, row);
+                blue += noisy.getBlueChannel(col, row);
+              }
+            }
+            assertEquals(red, integral.sum(Channel.RED, x, y, width, height));
+            assertEquals(blue, integral.sum(Channel.BLUE, x, y, width, height));
+          }
+        }
+      }
+    }
+    assertEquals(noisy.getGreenChannel(4, 5), integral.mean(Channel.GREEN, 4, 5, 1, 1), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIntegralImageEmptyMean() {
+    new IntegralImage(image).mean(Channel.RED, 1, 1, 0, 1);
+  }
+
+  @Test
+  public void testIntegralImageCached() {
+    database.add("3x2", image);
+    IntegralImage integral = database.getIntegralImage("3x2");
+    assertTrue(integral == database.getIntegralImage("3x2"));
+    assertEquals(image.getRedChannel(0, 0), integral.sum(Channel.RED, 0, 0, 1, 1));
+    database.add("3x2", randomImage(3, 2));
+    assertFalse(integral == database.getIntegralImage("3x2"));
+    assertTrue(database.getIntegralImage("missing") == null);
+  }
+
+  @Test
+  public void testRunInPlaceMatchesRun() {
+    PackedImage noisy = randomImage(41, 29);
+    PointwiseTransformation[] transformations = {new BrightenTransformation(-40),
+        new SepiaTransformation(), new LumaTransformation(), new GammaTransformation(2.2)};
+    for (PointwiseTransformation transformation : transformations) {
+      IImageState expected = transformation.run(noisy);
+      PackedImage packed = new PackedImage(41, 29);
+      PlanarImage planar = new PlanarImage(41, 29);
+      for (IImage copy : new IImage[] {packed, planar}) {
+        int[] row = new int[41];
+        for (int y = 0; y < 29; y++) {
+          noisy.getRGB(0, y, 41, 1, row, 0, 41);
+          copy.setRGB(0, y, 41, 1, row, 0, 41);
+        }
+        transformation.runInPlace(copy, new Parallelism(4, 1));
+        assertSameImage(expected, copy, 0);
+      }
+    }
+  }
+
+  @Test
+  public void testDatabaseSharedImages() {
+    database.add("3x2", image);
+    assertFalse(database.isShared("3x2"));
+    assertFalse(database.isShared("missing"));
+    database.add("view", new InvertTransformation().view(image));
+    assertTrue(database.isShared("3x2"));
+    assertFalse(database.isShared("view"));
+    database.remove("view");
+    database.add("copy", image);
+    assertTrue(database.isShared("3x2"));
+    database.remove("copy");
+    IntegralImage integral = database.getIntegralImage("3x2");
+    database.add("3x2", image);
+    assertFalse(integral == database.getIntegralImage("3x2"));
+  }
+
+  @Test
+  public void testImagePyramidLevels() {
+    PackedImage noisy = randomImage(57, 31);
+    ImagePyramid pyramid = new ImagePyramid(noisy, new Parallelism(4, 1));
+    assertEquals(7, pyramid.getLevelCount());
+    assertTrue(pyramid.getLevel(0) == noisy);
+    IImageState half = pyramid.getLevel(1);
+    assertEquals(29, half.getWidth());
+    assertEquals(16, half.getHeight());
+    for (int y = 0; y < 16; y++) {
+      for (int x = 0; x < 29; x++) {
+        int left = 2 * x;
+        int right = Math.min(2 * x + 1, 56);
+        int top = 2 * y;
+        int bottom = Math.min(2 * y + 1, 30);
+        int red = noisy.getRedChannel(left, top) + noisy.getRedChannel(right, top)
+            + noisy.getRedChannel(left, bottom) + noisy.getRedChannel(right, bottom);
+        int blue = noisy.getBlueChannel(left, top) + noisy.getBlueChannel(right, top)
+            + noisy.getBlueChannel(left, bottom) + noisy.getBlueChannel(right, bottom);
+        assertEquals((red + 2) / 4, half.getRedChannel(x, y));
+        assertEquals((blue + 2) / 4, half.getBlueChannel(x, y));
+      }
+    }
+
+    IImageState last = pyramid.getLevel(6);
+    assertEquals(1, last.getWidth());
+    assertEquals(1, last.getHeight());
+    assertTrue(pyramid.getLevel(1) == half);
+    ImagePyramid sequential = new ImagePyramid(noisy, new Parallelism(1));
+    for (int level = 0; level < pyramid.getLevelCount(); level++) {
+      assertSameImage(sequential.getLevel(level), pyramid.getLevel(level), 0);
+    }
+
+    assertEquals(0, pyramid.levelFor(57, 31));
+    assertEquals(0, pyramid.levelFor(30, 10));
+    assertEquals(1, pyramid.levelFor(29, 16));
+    assertEquals(2, pyramid.levelFor(10, 8));
+    assertEquals(6, pyramid.levelFor(0, 0));
+    assertEquals(1, new ImagePyramid(new PackedImage(1, 1)).getLevelCount());
+
+    database.add("noisy", noisy);
+    ImagePyramid stored = database.getPyramid("noisy");
+    assertTrue(stored == database.getPyramid("noisy"));
+    database.add("noisy", noisy);
+    assertFalse(stored == database.getPyramid("noisy"));
+    assertTrue(database.getPyramid("missing") == null);
+  }
+
+  @Test
+  public void testImagePyramidAfterRelease() {
+    PackedImage noisy = new PackedImage(8, 8, ConvertImage.toRGB(randomImage(8, 8)));
+    ImagePyramid pyramid = new ImagePyramid(noisy);
+    IImageState half = pyramid.getLevel(1);
+    int red = half.getRedChannel(3, 3);
+    noisy.release();
+    assertEquals(red, half.getRedChannel(3, 3));
+    assertTrue(pyramid.getLevel(0) == noisy);
+    assertEquals(2, pyramid.getLevel(2).getWidth());
+    ImagePyramid released = new ImagePyramid(noisy);
+    try {
+      released.getLevel(1);
+      fail("built a level from a released image");
+    } catch (IllegalStateException e) {
+      // level 0 is the released image itself
+    }
+  }
+
+  @Test
+  public void testHistogramCounts() {
+    PackedImage noisy = randomImage(57, 31);
+    Histogram histogram = new Histogram(noisy, new Parallelism(4, 1));
+    long[] green = new long[Histogram.BINS];
+    long[] luma = new long[Histogram.BINS];
+    IImageState lumaImage = new LumaTransformation().run(noisy);
+    for (int y = 0; y < 31; y++) {
+      for (int x = 0; x < 57; x++) {
+        green[noisy.getGreenChannel(x, y)]++;
+        luma[lumaImage.getRedChannel(x, y)]++;
+      }
+    }
+    assertEquals(57 * 31, histogram.getPixelCount());
+    for (int value = 0; value < Histogram.BINS; value++) {
+      assertEquals(green[value], histogram.getCounts(Channel.GREEN)[value]);
+      assertEquals(luma[value], histogram.getLumaCounts()[value]);
+    }
+  }
+
+  @Test
+  public void testEqualizeAndAutoLevels() {
+    PackedImage dull = new PackedImage(4, 1);
+    dull.setPixel(0, 0, 50, 100, 7);
+    dull.setPixel(1, 0, 50, 110, 7);
+    dull.setPixel(2, 0, 90, 120, 7);
+    dull.setPixel(3, 0, 200, 130, 7);
+    IImageState equalized = new EqualizeTransformation(dull).run(dull);
+    assertEquals(0, equalized.getRedChannel(1, 0));
+    assertEquals(128, equalized.getRedChannel(2, 0));
+    assertEquals(255, equalized.getRedChannel(3, 0));
+    assertEquals(85, equalized.getGreenChannel(1, 0));
+    assertEquals(7, equalized.getBlueChannel(0, 0));
+
+    IImageState stretched = new AutoLevelsTransformation(dull).run(dull);
+    assertEquals(0, stretched.getRedChannel(0, 0));
+    assertEquals(68, stretched.getRedChannel(2, 0));
+    assertEquals(255, stretched.getRedChannel(3, 0));
+    assertEquals(170, stretched.getGreenChannel(2, 0));
+    assertEquals(7, stretched.getBlueChannel(3, 0));
+  }
+
+  @Test
+  public void testResizeAveragesAreas() {
+    PackedImage row = new PackedImage(3, 1);
+    row.setPixel(0, 0, 30, 0, 255);
+    row.setPixel(1, 0, 90, 60, 0);
+    row.setPixel(2, 0, 0, 255, 255);
+    IImageState resized = new ResizeTransformation(2, 1).run(row);
+    assertEquals(50, resized.getRedChannel(0, 0));
+    assertEquals(20, resized.getGreenChannel(0, 0));
+    assertEquals(170, resized.getBlueChannel(0, 0));
+    assertEquals(30, resized.getRedChannel(1, 0));
+    assertEquals(190, resized.getGreenChannel(1, 0));
+    assertEquals(170, resized.getBlueChannel(1, 0));
+
+    PackedImage flat = new PackedImage(128, 96);
+    for (int y = 0; y < 96; y++) {
+      for (int x = 0; x < 128; x++) {
+        flat.setPixel(x, y, 3, 141, 250);
+      }
+    }
+    IImageState shrunk = new ResizeTransformation(7, 5).run(flat);
+    for (int y = 0; y < 5; y++) {
+      for (int x = 0; x < 7; x++) {
+        assertEquals(141, shrunk.getGreenChannel(x, y));
+      }
+    }
+    PackedImage noisy = randomImage(90, 61);
+    ITransformation resize = new ResizeTransformation(10, 13);
+    assertSameImage(resize.run(noisy, Parallelism.SEQUENTIAL),
+        resize.run(noisy, new Parallelism(4, 1)), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testResizeRejectsOverflowingSize() {
+    new ResizeTransformation(70000, 70000);
+  }
+
+  @Test
+  public void testThumbnailKeepsAspectRatio() {
+    PackedImage noisy = randomImage(90, 61);
+    IImageState thumbnail = new ThumbnailTransformation(30).run(noisy);
+    assertEquals(30, thumbnail.getWidth());
+    assertEquals(20, thumbnail.getHeight());
+    IImageState copy = new ThumbnailTransformation(200).run(noisy);
+    assertEquals(90, copy.getWidth());
+    assertSameImage(noisy, copy, 0);
+  }
+
+  @Test
+  public void testRegionMatchesWholeImage() {
+    PackedImage noisy = randomImage(50, 37);
+    PackedImage mask = new PackedImage(50, 37);
+    for (int y = 0; y < 37; y++) {
+      for (int x = 0; x < 50; x++) {
+        int value = (x - 30) * (x - 30) + (y - 20) * (y - 20) < 100 ? 255 : 0;
+        mask.setPixel(x, y, value, value, value);
+      }
+    }
+    Region[] regions = {new Region(7, 5, 20, 14), new Region(40, -3, 30, 12),
+        Region.ofMask(mask)};
+    ITransformation[] transformations = {new GaussianBlurTransformation(3),
+        new SharpenTransformation(), new BoxBlurTransformation(new int[] {2, 3}, BorderMode.MIRROR),
+        new SepiaTransformation()};
+    int[] pixel = new int[1];
+    int[] expected = new int[1];
+    for (ITransformation transformation : transformations) {
+      IImageState whole = transformation.run(noisy);
+      for (Region region : regions) {
+        IImageState partial = transformation.run(noisy, region);
+        for (int y = 0; y < 37; y++) {
+          for (int x = 0; x < 50; x++) {
+            IImageState reference = region.contains(x, y) ? whole : noisy;
+            reference.getRGB(x, y, 1, 1, expected, 0, 1);
+            partial.getRGB(x, y, 1, 1, pixel, 0, 1);
+            assertEquals(expected[0], pixel[0]);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRegionSharesRowsOutside() {
+    PackedImage noisy = randomImage(30, 20);
+    CopyOnWriteImage partial = (CopyOnWriteImage) new GaussianBlurTransformation(2)
+        .run(noisy, new Region(4, 6, 10, 3));
+    assertTrue(partial.isRowShared(5));
+    assertFalse(partial.isRowShared(6));
+    assertFalse(partial.isRowShared(8));
+    assertTrue(partial.isRowShared(9));
+    Region empty = Region.ofMask(new PackedImage(30, 20));
+    assertEquals(0, empty.getWidth());
+    assertTrue(((CopyOnWriteImage) new SharpenTransformation().run(noisy, empty)).isRowShared(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRegionRejectsResize() {
+    new ResizeTransformation(5, 5).run(randomImage(30, 20), new Region(0, 0, 10, 10));
+  }
+
   @Test
   public void testDatabase() {
     database.add("3x2", image);
@@ -92,4 +1135,113 @@ public class TestImage {
     database.add(null, image);
     database.add("image", null);
   }
+
+  /**
+   * Asserts that two images of the same size differ by at most the given amount in every
+   * channel.
+   *
+   * @param expected  The expected image.
+   * @param actual    The actual image.
+   * @param tolerance The largest allowed difference.
+   */
+  private static void assertSameImage(IImageState expected, IImageState actual, int tolerance) {
+    for (int y = 0; y < expected.getHeight(); y++) {
+      for (int x = 0; x < expected.getWidth(); x++) {
+        assertEquals(expected.getRedChannel(x, y), actual.getRedChannel(x, y), tolerance);
+        assertEquals(expected.getGreenChannel(x, y), actual.getGreenChannel(x, y), tolerance);
+        assertEquals(expected.getBlueChannel(x, y), actual.getBlueChannel(x, y), tolerance);
+      }
+    }
+  }
+
+  /**
+   * Checks the bulk reads of an image, then writes a rectangle of pixels without alpha from the
+   * middle of a larger array and checks that exactly that rectangle changed, and that
+   * rectangles outside the image are rejected.
+   *
+   * @param expected The pixels the image starts with.
+   * @param image    The image under test, which is modified.
+   */
+  private static void assertBulkAccessors(IImageState expected, IImage image) {
+    assertBulkReads(expected, image);
+    int[] rgb = new int[13];
+    for (int i = 0; i < rgb.length; i++) {
+      rgb[i] = 0x00010101 * i;
+    }
+    image.setRGB(2, 1, 2, 3, rgb, 1, 4);
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        boolean written = x >= 2 && x < 4 && y >= 1 && y < 4;
+        int value = written ? 1 + (y - 1) * 4 + (x - 2) : -1;
+        assertEquals(written ? value : expected.getRedChannel(x, y), image.getRedChannel(x, y));
+        assertEquals(written ? value : expected.getBlueChannel(x, y), image.getBlueChannel(x, y));
+      }
+    }
+    int[] row = new int[4];
+    image.getRGB(2, 2, 2, 1, row, 0, 2);
+    assertEquals(0xFF050505, row[0]);
+    for (int[] bounds : new int[][] {{-1, 0, 1, 1}, {4, 0, 2, 1}, {0, 3, 1, 2}, {0, 0, -1, 1}}) {
+      try {
+        image.setRGB(bounds[0], bounds[1], bounds[2], bounds[3], new int[16], 0, 4);
+        fail("setRGB outside of bounds");
+      } catch (IllegalArgumentException e) {
+        // rejected by the shared region check
+      }
+    }
+  }
+
+  /**
+   * Checks that reading a rectangle of an image into the middle of a larger array, with a row
+   * stride wider than the rectangle, fills exactly the expected entries with opaque pixels, and
+   * that rectangles outside the image are rejected.
+   *
+   * @param expected The pixels the image holds.
+   * @param image    The image under test.
+   */
+  private static void assertBulkReads(IImageState expected, IImageState image) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[] rgb = new int[3 + 7 * (height - 2) + width - 1];
+    Arrays.fill(rgb, 0x12345678);
+    image.getRGB(1, 1, width - 1, height - 1, rgb, 3, 7);
+    for (int i = 0; i < rgb.length; i++) {
+      int row = (i - 3) / 7;
+      int col = (i - 3) % 7;
+      if (i < 3 || col >= width - 1) {
+        assertEquals(0x12345678, rgb[i]);
+        continue;
+      }
+      int x = col + 1;
+      int y = row + 1;
+      assertEquals(0xFF000000 | (expected.getRedChannel(x, y) << 16)
+          | (expected.getGreenChannel(x, y) << 8) | expected.getBlueChannel(x, y), rgb[i]);
+    }
+    for (int[] bounds : new int[][] {{-1, 0, 1, 1}, {0, -1, 1, 1}, {width - 1, 0, 2, 1},
+        {0, height - 1, 1, 2}, {0, 0, 1, -1}}) {
+      try {
+        image.getRGB(bounds[0], bounds[1], bounds[2], bounds[3], new int[16], 0, 4);
+        fail("getRGB outside of bounds");
+      } catch (IllegalArgumentException e) {
+        // rejected by the shared region check
+      }
+    }
+  }
+
+  /**
+   * Creates an image filled with random pixels.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @return The random image.
+   */
+  private static PackedImage randomImage(int width, int height) {
+    PackedImage image = new PackedImage(width, height);
+    Random random = new Random(width * 31L + height);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        image.setPixel(x, y, random.nextInt(256), random.nextInt(256), random.nextInt(256));
+      }
+    }
+    return image;
+  }
 }